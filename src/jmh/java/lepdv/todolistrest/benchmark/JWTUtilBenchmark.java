@@ -0,0 +1,76 @@
+package lepdv.todolistrest.benchmark;
+
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.security.JWTUtil;
+import lepdv.todolistrest.security.JwtClaims;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Token issue and validation cost, without the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTUtilBenchmark {
+
+    /** 0 disables the cache of verified tokens, so every validation parses and verifies the token. */
+    @Param({"0", "10000"})
+    private int verifiedCacheMaxSize;
+
+    private JWTUtil jwtUtil;
+    private User user;
+    private String jwt;
+
+
+
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        user = User.builder()
+                .id(2L)
+                .username("Ivan")
+                .role(Role.USER)
+                .isNonLocked(true)
+                .build();
+        jwtUtil = new JWTUtil();
+        setField("secret", "xuuG5AKreDlb0tiAoWzB");
+        setField("amount", 60L);
+        setField("verifiedCacheMaxSize", verifiedCacheMaxSize);
+        jwt = jwtUtil.generateToken(user);
+    }
+
+
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String validateAndRetrieveUsername() {
+        return jwtUtil.validateAndRetrieveUsername(jwt);
+    }
+
+    @Benchmark
+    public JwtClaims validateAndDecode() {
+        return jwtUtil.validateAndDecode(jwt);
+    }
+
+
+
+    private void setField(String name, Object value) throws ReflectiveOperationException {
+        Field field = JWTUtil.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtUtil, value);
+    }
+
+
+}
@@ -0,0 +1,80 @@
+package lepdv.todolistrest.benchmark;
+
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.TaskStatus;
+import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.mapper.Mapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+
+/**
+ * Compares the hand-written {@link Mapper#mapToResponseTaskDto(Task)} with the reflective
+ * ModelMapper mapping it replaced, on a list of tasks of one user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param("10000")
+    private int size;
+
+    private List<Task> tasks;
+    private Mapper mapper;
+    private ModelMapper modelMapper;
+
+
+
+
+    @Setup
+    public void setUp() {
+        User user = User.builder()
+                .id(1L)
+                .username("Ivan")
+                .build();
+        tasks = IntStream.range(0, size)
+                .mapToObj(i -> Task.builder()
+                        .id((long) i)
+                        .description("Ivan task" + i)
+                        .dateOfCreation(LocalDate.of(2023, 1, 1))
+                        .dueDate(LocalDate.of(2030, 1, 1).plusDays(i))
+                        .status(TaskStatus.OPEN)
+                        .user(user)
+                        .build())
+                .toList();
+
+        mapper = new Mapper();
+        modelMapper = new ModelMapper();
+        modelMapper.emptyTypeMap(Task.class, ResponseTaskDto.class)
+                .addMappings(mapping -> mapping.map(task -> task.getUser().getUsername(), ResponseTaskDto::setUser))
+                .implicitMappings();
+    }
+
+
+
+    @Benchmark
+    public List<ResponseTaskDto> handWrittenMapper() {
+        return tasks.stream()
+                .map(mapper::mapToResponseTaskDto)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ResponseTaskDto> modelMapper() {
+        return tasks.stream()
+                .map(task -> modelMapper.map(task, ResponseTaskDto.class))
+                .toList();
+    }
+
+
+}
@@ -0,0 +1,164 @@
+package lepdv.todolistrest.benchmark;
+
+import lepdv.todolistrest.TodolistRestApplication;
+import lepdv.todolistrest.dto.task.TaskFilter;
+import lepdv.todolistrest.dto.task.TaskListDto;
+import lepdv.todolistrest.dto.task.TaskSort;
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.TaskStatus;
+import lepdv.todolistrest.security.AuthPrincipal;
+import lepdv.todolistrest.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Filtered todo list, {@link TaskService#getAllByAuthUser(int, int, String, TaskFilter)}, against in-memory H2
+ * seeded with {@code users} x {@code tasksPerUser} tasks (1M by default). Due dates are spread over
+ * a year, creation dates over the year before, every fourth task is completed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskFilterBenchmark {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Param("1000")
+    private int users;
+
+    @Param("1000")
+    private int tasksPerUser;
+
+    @Param("20")
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    /** Ids of user0, user1... which come from a pooled sequence, so they aren't consecutive. */
+    private long[] userIds;
+
+
+
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodolistRestApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "logging.level.root=warn",
+                        "logging.file.name=")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        seed(context.getBean(JdbcTemplate.class));
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+
+
+    @Benchmark
+    public TaskListDto openByDueDate() {
+        authenticateRandomUser();
+        return taskService.getAllByAuthUser(0, pageSize, null, TaskFilter.builder()
+                .status(TaskStatus.OPEN)
+                .sort(TaskSort.DUE_DATE)
+                .build());
+    }
+
+    @Benchmark
+    public TaskListDto dueNextMonth() {
+        authenticateRandomUser();
+        return taskService.getAllByAuthUser(0, pageSize, null, TaskFilter.builder()
+                .dueAfter(TODAY)
+                .dueBefore(TODAY.plusMonths(1))
+                .sort(TaskSort.DUE_DATE)
+                .build());
+    }
+
+    @Benchmark
+    public TaskListDto createdLastWeek() {
+        authenticateRandomUser();
+        return taskService.getAllByAuthUser(0, pageSize, null, TaskFilter.builder()
+                .createdFrom(TODAY.minusWeeks(1))
+                .build());
+    }
+
+    @Benchmark
+    public TaskListDto completed() {
+        authenticateRandomUser();
+        return taskService.getAllByAuthUser(0, pageSize, null, TaskFilter.builder()
+                .status(TaskStatus.COMPLETED)
+                .build());
+    }
+
+
+
+    private void authenticateRandomUser() {
+        int user = ThreadLocalRandom.current().nextInt(users);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthPrincipal(userIds[user], "user" + user, Role.USER), null,
+                List.of(new SimpleGrantedAuthority(Role.USER.getAuthority()))));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> userRows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userRows.add(new Object[]{"user" + i, "password", "USER", true});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, password, role, is_non_locked) VALUES (?, ?, ?, ?)",
+                userRows);
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE 'user%' ORDER BY id",
+                        Long.class)
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+
+        List<Object[]> taskRows = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < users; i++) {
+            for (int j = 0; j < tasksPerUser; j++) {
+                TaskStatus status = j % 4 == 0 ? TaskStatus.COMPLETED : TaskStatus.OPEN;
+                taskRows.add(new Object[]{"task " + j + " of user" + i,
+                        Date.valueOf(TODAY.minusDays(random.nextInt(365))),
+                        Date.valueOf(TODAY.plusDays(random.nextInt(365))),
+                        status.getCode(), userIds[i]});
+            }
+            if (taskRows.size() >= 10_000) {
+                insertTasks(jdbcTemplate, taskRows);
+            }
+        }
+        insertTasks(jdbcTemplate, taskRows);
+    }
+
+    private void insertTasks(JdbcTemplate jdbcTemplate, List<Object[]> taskRows) {
+        jdbcTemplate.batchUpdate("INSERT INTO task (description, date_of_creation, due_date, status, user_id) " +
+                "VALUES (?, ?, ?, ?, ?)", taskRows);
+        taskRows.clear();
+    }
+
+
+}
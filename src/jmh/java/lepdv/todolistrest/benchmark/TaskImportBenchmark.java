@@ -0,0 +1,114 @@
+package lepdv.todolistrest.benchmark;
+
+import lepdv.todolistrest.TodolistRestApplication;
+import lepdv.todolistrest.dto.task.ImportResultDto;
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.export.ExportFormat;
+import lepdv.todolistrest.repository.UserRepository;
+import lepdv.todolistrest.search.LuceneTaskSearchEngine;
+import lepdv.todolistrest.security.AuthPrincipal;
+import lepdv.todolistrest.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Imports an ndjson file of {@code tasks} tasks (1M by default) by {@link TaskService#importTasks},
+ * against in-memory H2 and in-memory search index, in batches of {@code batchSize}.
+ * Every run starts from the tasks of the sql script. Settings are passed as arguments,
+ * default properties of the builder would lose to application.properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TaskImportBenchmark {
+
+    @Param("1000000")
+    private int tasks;
+
+    @Param({"100", "1000", "10000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private JdbcTemplate jdbcTemplate;
+    private LuceneTaskSearchEngine searchEngine;
+    private byte[] file;
+
+
+
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodolistRestApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:import-benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "--import.batch-size=" + batchSize,
+                        "--search.lucene.directory=",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=warn",
+                        "--logging.file.name=");
+        taskService = context.getBean(TaskService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        searchEngine = context.getBean(LuceneTaskSearchEngine.class);
+        Long userId = context.getBean(UserRepository.class).findByUsername("Ivan").orElseThrow().getId();
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthPrincipal(userId, "Ivan", Role.USER), null,
+                List.of(new SimpleGrantedAuthority(Role.USER.getAuthority()))));
+        file = ndjson();
+    }
+
+    /** In chunks, H2 keeps undo log of a transaction in memory. */
+    @TearDown(Level.Iteration)
+    public void deleteImportedTasks() throws IOException {
+        while (jdbcTemplate.update("DELETE FROM task WHERE description LIKE 'Imported%' " +
+                "FETCH FIRST 50000 ROWS ONLY") > 0) {
+        }
+        searchEngine.reindex();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+
+
+    @Benchmark
+    public ImportResultDto importTasks() throws IOException {
+        return taskService.importTasks(ExportFormat.NDJSON, new ByteArrayInputStream(file));
+    }
+
+
+
+    private byte[] ndjson() {
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(tasks * 64);
+        for (int i = 0; i < tasks; i++) {
+            out.writeBytes(("{\"description\":\"Imported task " + i + "\",\"dueDate\":\"" + dueDate + "\"}\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+package lepdv.todolistrest.benchmark;
+
+import lepdv.todolistrest.TodolistRestApplication;
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.TaskStatus;
+import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.repository.TaskRepository;
+import lepdv.todolistrest.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+
+/**
+ * Inserts {@code tasks} tasks (and their Envers rows) in one transaction against in-memory H2.
+ * Ids come from pooled sequences, so {@code batchSize} 1 shows the row-by-row round trips
+ * insertion had with identity columns, and the default 50 shows jdbc batching of the inserts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(TaskInsertBenchmark.TASKS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskInsertBenchmark {
+
+    static final int TASKS = 10_000;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private UserRepository userRepository;
+    private Long userId;
+
+
+
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodolistRestApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:insert-benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "logging.level.root=warn",
+                        "logging.file.name=")
+                .run();
+        taskRepository = context.getBean(TaskRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userRepository = context.getBean(UserRepository.class);
+        User user = userRepository.findByUsername("Ivan").orElseThrow();
+        userId = user.getId();
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority(Role.USER.getAuthority()))));
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInsertedTasks() {
+        jdbcTemplate.update("DELETE FROM task_aud");
+        jdbcTemplate.update("DELETE FROM task WHERE id > 6");
+        jdbcTemplate.update("DELETE FROM revision");
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+
+
+    @Benchmark
+    public List<Task> insertTasks() {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.getReferenceById(userId);
+            List<Task> tasks = IntStream.range(0, TASKS)
+                    .mapToObj(i -> Task.builder()
+                            .description("Ivan task" + i)
+                            .dateOfCreation(LocalDate.now())
+                            .dueDate(LocalDate.now().plusDays(1))
+                            .status(TaskStatus.OPEN)
+                            .user(user)
+                            .build())
+                    .toList();
+            return taskRepository.saveAll(tasks);
+        });
+    }
+
+
+}
@@ -0,0 +1,168 @@
+package lepdv.todolistrest.benchmark;
+
+import lepdv.todolistrest.TodolistRestApplication;
+import lepdv.todolistrest.dto.task.TaskListDto;
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.TaskStatus;
+import lepdv.todolistrest.security.AuthPrincipal;
+import lepdv.todolistrest.service.TaskService;
+import lepdv.todolistrest.util.PageCursor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link TaskService#getAllByAuthUser(int, int, String)} against in-memory H2 seeded with
+ * {@code users} x {@code tasksPerUser} tasks. {@code principal} selects whether the
+ * authentication carries the user id (jwt) or only the username. Last page benchmarks compare
+ * offset pagination with the cursor one on the deepest page of a user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    @Param("100")
+    private int users;
+
+    @Param("1000")
+    private int tasksPerUser;
+
+    @Param("20")
+    private int pageSize;
+
+    @Param({"jwt", "username"})
+    private String principal;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    /** Ids of user0, user1... which come from a pooled sequence, so they aren't consecutive. */
+    private long[] userIds;
+    private String[] lastPageCursors;
+
+
+
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodolistRestApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "logging.level.root=warn",
+                        "logging.file.name=")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate);
+        lastPageCursors = lastPageCursors(jdbcTemplate);
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+
+
+    @Benchmark
+    public TaskListDto getAllByAuthUser() {
+        authenticate(ThreadLocalRandom.current().nextInt(users));
+        return taskService.getAllByAuthUser(0, pageSize, null);
+    }
+
+    @Benchmark
+    public TaskListDto lastPageByOffset() {
+        authenticate(ThreadLocalRandom.current().nextInt(users));
+        return taskService.getAllByAuthUser(lastPage(), pageSize, null);
+    }
+
+    @Benchmark
+    public TaskListDto lastPageByCursor() {
+        int user = ThreadLocalRandom.current().nextInt(users);
+        authenticate(user);
+        return taskService.getAllByAuthUser(0, pageSize, lastPageCursors[user]);
+    }
+
+
+
+    private void authenticate(int user) {
+        String username = "user" + user;
+        Object authPrincipal = principal.equals("jwt")
+                ? new AuthPrincipal(userIds[user], username, Role.USER)
+                : username;
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                authPrincipal, null, List.of(new SimpleGrantedAuthority(Role.USER.getAuthority()))));
+    }
+
+    private int lastPage() {
+        return Math.max((tasksPerUser - 1) / pageSize, 0);
+    }
+
+    /** Cursor of every user which points to the last task before his last page. */
+    private String[] lastPageCursors(JdbcTemplate jdbcTemplate) {
+        String[] cursors = new String[users];
+        int offset = lastPage() * pageSize - 1;
+        for (int i = 0; i < users; i++) {
+            Long id = offset < 0 ? 0L : jdbcTemplate.queryForObject(
+                    "SELECT id FROM task WHERE user_id = ? ORDER BY id OFFSET ? ROWS FETCH FIRST 1 ROWS ONLY",
+                    Long.class, userIds[i], offset);
+            cursors[i] = PageCursor.of(id).encode();
+        }
+        return cursors;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> userRows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userRows.add(new Object[]{"user" + i, "password", "USER", true});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, password, role, is_non_locked) VALUES (?, ?, ?, ?)",
+                userRows);
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE 'user%' ORDER BY id",
+                        Long.class)
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+
+        List<Object[]> taskRows = new ArrayList<>();
+        Date today = Date.valueOf(LocalDate.now());
+        for (int i = 0; i < users; i++) {
+            for (int j = 0; j < tasksPerUser; j++) {
+                taskRows.add(new Object[]{"task " + j + " of user" + i, today, TaskStatus.OPEN.getCode(),
+                        userIds[i]});
+            }
+            if (taskRows.size() >= 10_000) {
+                insertTasks(jdbcTemplate, taskRows);
+            }
+        }
+        insertTasks(jdbcTemplate, taskRows);
+    }
+
+    private void insertTasks(JdbcTemplate jdbcTemplate, List<Object[]> taskRows) {
+        jdbcTemplate.batchUpdate("INSERT INTO task (description, date_of_creation, status, user_id) " +
+                "VALUES (?, ?, ?, ?)", taskRows);
+        taskRows.clear();
+    }
+
+
+}
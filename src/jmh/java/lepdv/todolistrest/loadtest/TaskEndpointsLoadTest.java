@@ -0,0 +1,250 @@
+package lepdv.todolistrest.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lepdv.todolistrest.TodolistRestApplication;
+import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.reactive.ReactiveTodolistApplication;
+import lepdv.todolistrest.repository.UserRepository;
+import lepdv.todolistrest.security.JWTUtil;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.WebFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Load test of task endpoints in platform-thread, virtual-thread ({@code virtual-threads} profile) and reactive
+ * modes. For every mode the app is started on a random port, warmed up, then for every level of concurrency
+ * that many clients call todo-list (9 of 10 requests) and create task for the duration. Printed are throughput,
+ * latency percentiles, errors and the peak of requests being inside the app at once.
+ * <p>
+ * In reactive mode todo-list is read from {@link ReactiveTodolistApplication} started next to the MVC app
+ * over the same database, tasks are still created by the MVC app, and the peak counts reads only.
+ * <p>
+ * Run by {@code gradle loadTest} with {@code -Pconcurrency=100,400,1000 -Pduration=20s}, which runs on Java 21;
+ * on an older runtime virtual-threads mode is skipped. Other arguments go to the app,
+ * e.g. {@code --spring.datasource.url=jdbc:postgresql://...}: jdbc calls to in-memory H2 don't block,
+ * so against H2 the modes differ only in scheduling.
+ */
+public class TaskEndpointsLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final String[] MODES = {"platform-threads", "virtual-threads", "reactive"};
+    /** R2DBC of the reactive app is on the classpath too, the MVC app stays on jdbc. */
+    private static final String MVC_EXCLUDE = "--spring.autoconfigure.exclude="
+            + "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration";
+
+    public static void main(String[] args) throws Exception {
+        int[] concurrency = {100, 400, 1000};
+        Duration duration = Duration.ofSeconds(20);
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=0",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--logging.level.root=warn",
+                "--logging.file.name="));
+        for (String arg : args) {
+            if (arg.startsWith("--concurrency=")) {
+                concurrency = Arrays.stream(arg.substring("--concurrency=".length()).split(","))
+                        .mapToInt(Integer::parseInt)
+                        .toArray();
+            } else if (arg.startsWith("--duration=")) {
+                duration = Duration.parse("PT" + arg.substring("--duration=".length()));
+            } else {
+                appArgs.add(arg);
+            }
+        }
+
+        System.out.printf("%-17s %11s %9s %8s %8s %8s %8s %7s %9s%n", "mode", "concurrency", "requests",
+                "req/s", "p50 ms", "p99 ms", "max ms", "errors", "peak app");
+        for (String mode : MODES) {
+            if (mode.equals("virtual-threads") && Runtime.version().feature() < 21) {
+                System.out.printf("%-17s skipped, needs Java 21%n", mode);
+                continue;
+            }
+            List<String> modeArgs = new ArrayList<>(appArgs);
+            modeArgs.add(MVC_EXCLUDE);
+            modeArgs.add("--spring.profiles.active=" + (mode.equals("virtual-threads") ? mode : "default"));
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodolistRestApplication.class,
+                    InFlightProbe.class)
+                    .web(WebApplicationType.SERVLET)
+                    .run(modeArgs.toArray(String[]::new));
+                 ConfigurableApplicationContext readContext = mode.equals("reactive")
+                         ? new SpringApplicationBuilder(ReactiveTodolistApplication.class, InFlightProbe.class)
+                                 .web(WebApplicationType.REACTIVE)
+                                 .profiles("reactive")
+                                 .run(appArgs.toArray(String[]::new))
+                         : context) {
+                Target target = Target.of(context, readContext);
+                run(target, concurrency[0], WARMUP);
+                for (int clients : concurrency) {
+                    target.probe.reset();
+                    Result result = run(target, clients, duration);
+                    System.out.printf("%-17s %11d %9d %8.0f %8.1f %8.1f %8.1f %7d %9d%n", mode, clients,
+                            result.latencies.length, result.latencies.length / (duration.toMillis() / 1000.0),
+                            result.percentile(50), result.percentile(99), result.percentile(100),
+                            result.errors, target.probe.peak());
+                }
+            }
+        }
+    }
+
+
+
+    private static Result run(Target target, int clients, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<long[]>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> client(target, deadline, errors)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        List<long[]> latencies = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            latencies.add(future.get());
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors.get());
+    }
+
+    /** Latencies of requests of one client, in nanos. */
+    private static long[] client(Target target, long deadline, AtomicInteger errors) throws InterruptedException {
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = count % 10 == 9 ? target.createTask() : target.todoList();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = target.httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                }
+            } catch (IOException e) {
+                errors.incrementAndGet();
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+
+
+    private record Target(HttpClient httpClient, URI tasksUri, URI todoListUri, String token, InFlightProbe probe) {
+
+        /** Tasks are created in {@code context} and read from {@code readContext}. */
+        static Target of(ConfigurableApplicationContext context, ConfigurableApplicationContext readContext) {
+            User user = context.getBean(UserRepository.class).findByUsername("Ivan").orElseThrow();
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(Executors.newCachedThreadPool())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            return new Target(httpClient, URI.create(tasksUrl(context)), URI.create(tasksUrl(readContext) + "/todo-list"),
+                    context.getBean(JWTUtil.class).generateToken(user), readContext.getBean(InFlightProbe.class));
+        }
+
+        private static String tasksUrl(ConfigurableApplicationContext context) {
+            return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+                    + "/api/v2/tasks";
+        }
+
+        HttpRequest todoList() {
+            return HttpRequest.newBuilder(todoListUri)
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+        }
+
+        HttpRequest createTask() {
+            return HttpRequest.newBuilder(tasksUri)
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"description\":\"Load task\",\"dueDate\":\"" + LocalDate.now().plusDays(1) + "\"}"))
+                    .build();
+        }
+    }
+
+    private record Result(long[] latencies, int errors) {
+
+        double percentile(int percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+
+
+    /**
+     * Counts requests being inside the app at once, to show how many the mode actually serves concurrently.
+     * The servlet filter works in the MVC app, the web filter in the reactive one.
+     */
+    @Configuration
+    static class InFlightProbe {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        @Bean
+        OncePerRequestFilter inFlightFilter() {
+            return new OncePerRequestFilter() {
+                @Override
+                protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                                FilterChain chain) throws ServletException, IOException {
+                    peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        chain.doFilter(request, response);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                }
+            };
+        }
+
+        @Bean
+        WebFilter inFlightWebFilter() {
+            return (exchange, chain) -> {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return chain.filter(exchange)
+                        .doFinally(signal -> inFlight.decrementAndGet());
+            };
+        }
+
+        void reset() {
+            peak.set(inFlight.get());
+        }
+
+        int peak() {
+            return peak.get();
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package lepdv.todolistrest.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lepdv.todolistrest.entity.Revision;
+import lepdv.todolistrest.exception.AuditQueueFullException;
+import lepdv.todolistrest.exception.AuditUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Background writer of audit data in async audit mode ({@code audit.mode=async}).
+ * <p>
+ * A committing transaction reserves a place in the bounded queue before commit and waits at most
+ * {@code audit.async.offer-timeout} for it; if the queue stays full the transaction is rolled back
+ * with {@link AuditQueueFullException}. After commit the record is queued, with
+ * {@code audit.async.durability=wal} it is first appended to the write-ahead file, so that it survives
+ * a crash before being written (the file is replayed on start, records may be written twice).
+ * If a record can't be appended it's still queued, but new transactions are rejected with
+ * {@link AuditUnavailableException} until the file can be written again.
+ * With {@code best-effort} queued records are lost on crash, but are written on graceful shutdown.
+ * <p>
+ * A single thread writes queued records in batches of jdbc inserts into {@code revision},
+ * {@code task_aud} and {@code users_aud}, the same rows as Envers writes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "audit.mode", havingValue = "async")
+public class AsyncAuditWriter implements SmartLifecycle {
+
+    private static final String NEXT_REVISION_ID = "SELECT nextval('revision_seq')";
+    private static final String INSERT_REVISION = "INSERT INTO revision (id, timestamp, date_time, modified_by) " +
+            "VALUES (?, ?, ?, ?)";
+    private static final String INSERT_TASK_AUD = "INSERT INTO task_aud " +
+            "(id, rev, revtype, description, date_of_creation, due_date, status, modified_at, modified_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_USERS_AUD = "INSERT INTO users_aud " +
+            "(id, rev, revtype, username, password, full_name, date_of_birth, role, is_non_locked, modified_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] REVISION_TYPES = {Types.INTEGER, Types.BIGINT, Types.TIMESTAMP, Types.VARCHAR};
+    private static final int[] TASK_AUD_TYPES = {Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.VARCHAR,
+            Types.DATE, Types.DATE, Types.SMALLINT, Types.TIMESTAMP, Types.VARCHAR};
+    private static final int[] USERS_AUD_TYPES = {Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.DATE, Types.VARCHAR, Types.BOOLEAN, Types.TIMESTAMP};
+    private static final long POLL_MILLIS = 100;
+    private static final long MAX_RETRY_MILLIS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditWal wal;
+    private final BlockingQueue<AuditRecord> queue;
+    private final Semaphore places;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    /** Not a monitor: submit does file I/O, which would pin the carrier of a virtual thread. */
+    private final ReentrantLock submitLock = new ReentrantLock();
+    private final AtomicLong seq = new AtomicLong();
+    private final Counter writtenRevisions;
+    private final Counter rejectedRevisions;
+    private final Counter walFailures;
+    private volatile boolean walFailed;
+    private long writtenSeq;
+    private volatile boolean running;
+    private Thread writerThread;
+
+
+
+    @Autowired
+    public AsyncAuditWriter(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${audit.async.queue-capacity:10000}") int queueCapacity,
+                            @Value("${audit.async.batch-size:500}") int batchSize,
+                            @Value("${audit.async.offer-timeout:1s}") Duration offerTimeout,
+                            @Value("${audit.async.durability:best-effort}") String durability,
+                            @Value("${audit.async.wal-file:logs/audit.wal}") Path walFile) throws IOException {
+        this(jdbcTemplate, transactionTemplate,
+                "wal".equals(durability) ? new AuditWal(walFile, objectMapper) : null,
+                meterRegistry, queueCapacity, batchSize, offerTimeout);
+    }
+
+    public AsyncAuditWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, AuditWal wal,
+                            MeterRegistry meterRegistry, int queueCapacity, int batchSize, Duration offerTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.wal = wal;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.places = new Semaphore(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.writtenRevisions = Counter.builder("audit.async.revisions").tag("result", "written")
+                .register(meterRegistry);
+        this.rejectedRevisions = Counter.builder("audit.async.revisions").tag("result", "rejected")
+                .register(meterRegistry);
+        this.walFailures = Counter.builder("audit.async.wal.failures").register(meterRegistry);
+        meterRegistry.gaugeCollectionSize("audit.async.queue.size", Tags.empty(), queue);
+    }
+
+
+
+    /**
+     * Called before commit: takes a place in the queue for the record of the transaction.
+     * @throws AuditQueueFullException if no place is freed within offer timeout
+     * @throws AuditUnavailableException if the last record wasn't appended to write-ahead file
+     */
+    public void reserve() {
+        if (walFailed) {
+            rejectedRevisions.increment();
+            throw new AuditUnavailableException("Audit write-ahead file isn't writable, try again later");
+        }
+        try {
+            if (places.tryAcquire(offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectedRevisions.increment();
+        throw new AuditQueueFullException("Audit queue is full, try again later");
+    }
+
+    /** Called after rollback of a transaction which has reserved a place. */
+    public void release() {
+        places.release();
+    }
+
+    /** Called after commit of a transaction which has reserved a place. */
+    public void submit(Revision revision, List<TaskAudit> tasks, List<UserAudit> users) {
+        submitLock.lock();
+        try {
+            AuditRecord auditRecord = new AuditRecord(seq.incrementAndGet(), revision.getTimestamp(),
+                    revision.getDateTime(), revision.getModifiedBy(), tasks, users);
+            if (wal != null) {
+                try {
+                    wal.append(auditRecord);
+                } catch (IOException e) {
+                    walFailures.increment();
+                    walFailed = true;
+                    log.error("Audit record {} wasn't appended to write-ahead file, new audited transactions " +
+                            "are rejected until it's writable", auditRecord.seq(), e);
+                }
+            }
+            queue.add(auditRecord);
+        } finally {
+            submitLock.unlock();
+        }
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+
+
+    @Override
+    public void start() {
+        if (wal != null) {
+            recover();
+        }
+        running = true;
+        writerThread = new Thread(this::writeQueued, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /** Stops taking new records and waits until the queued ones are written. */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (wal != null) {
+            try {
+                wal.close();
+            } catch (IOException e) {
+                log.warn("Audit write-ahead file wasn't closed", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Started before and stopped after the web server, so that no request comes after the last write. */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+
+
+    private void recover() {
+        try {
+            List<AuditRecord> records = wal.recover();
+            if (!records.isEmpty()) {
+                log.info("Writing {} audit records left in write-ahead file", records.size());
+                for (int from = 0; from < records.size(); from += batchSize) {
+                    write(records.subList(from, Math.min(from + batchSize, records.size())));
+                }
+                seq.set(records.get(records.size() - 1).seq());
+                writtenSeq = seq.get();
+            }
+            wal.truncate();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeQueued() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditRecord first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (walFailed) {
+                        checkpoint(writtenSeq);
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                boolean written = writeWithRetry(batch);
+                places.release(batch.size());
+                if (!written) {
+                    if (!queue.isEmpty()) {
+                        log.error("{} audit records queued after them weren't written either", queue.size());
+                    }
+                    return;
+                }
+                writtenRevisions.increment(batch.size());
+                writtenSeq = batch.get(batch.size() - 1).seq();
+                checkpoint(writtenSeq);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Failed batch is retried until it's written, meanwhile the queue fills up and new
+     * transactions are rejected. On shutdown it's given up: neither it nor the records queued after it
+     * are checkpointed, so wal (if any) keeps them for replay.
+     * @return false if the batch was given up
+     */
+    private boolean writeWithRetry(List<AuditRecord> batch) throws InterruptedException {
+        long backoffMillis = POLL_MILLIS;
+        while (true) {
+            try {
+                write(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    log.error("Audit records {}..{} weren't written", batch.get(0).seq(),
+                            batch.get(batch.size() - 1).seq(), e);
+                    return false;
+                }
+                log.warn("Audit batch wasn't written, retry in {} ms", backoffMillis, e);
+                Thread.sleep(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, MAX_RETRY_MILLIS);
+            }
+        }
+    }
+
+    /** Also probes the file after a failed append: a successful write lets new transactions in again. */
+    private void checkpoint(long lastWrittenSeq) {
+        if (wal == null) {
+            return;
+        }
+        submitLock.lock();
+        try {
+            if (lastWrittenSeq == seq.get()) {
+                wal.truncate();
+            } else {
+                wal.checkpoint(lastWrittenSeq);
+            }
+            if (walFailed) {
+                walFailed = false;
+                log.info("Audit write-ahead file is writable again");
+            }
+        } catch (IOException e) {
+            if (!walFailed) {
+                log.warn("Audit write-ahead file wasn't checkpointed", e);
+            }
+        } finally {
+            submitLock.unlock();
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> revisions = new ArrayList<>(batch.size());
+            List<Object[]> tasks = new ArrayList<>();
+            List<Object[]> users = new ArrayList<>();
+            for (AuditRecord auditRecord : batch) {
+                int rev = jdbcTemplate.queryForObject(NEXT_REVISION_ID, Integer.class);
+                revisions.add(new Object[]{rev, auditRecord.timestamp(), toUtc(auditRecord.dateTime()),
+                        auditRecord.modifiedBy()});
+                for (TaskAudit task : auditRecord.tasks()) {
+                    tasks.add(new Object[]{task.id(), rev, task.revisionType().getRepresentation(),
+                            task.description(), task.dateOfCreation(), task.dueDate(),
+                            task.status() == null ? null : task.status().getCode(),
+                            toUtc(task.modifiedAt()), task.modifiedBy()});
+                }
+                for (UserAudit user : auditRecord.users()) {
+                    users.add(new Object[]{user.id(), rev, user.revisionType().getRepresentation(),
+                            user.username(), user.password(), user.fullName(), user.dateOfBirth(),
+                            user.role() == null ? null : user.role().name(), user.isNonLocked(),
+                            toUtc(user.modifiedAt())});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_REVISION, revisions, REVISION_TYPES);
+            jdbcTemplate.batchUpdate(INSERT_TASK_AUD, tasks, TASK_AUD_TYPES);
+            jdbcTemplate.batchUpdate(INSERT_USERS_AUD, users, USERS_AUD_TYPES);
+        });
+    }
+
+    /** Timestamp columns keep utc time, as Hibernate writes {@link Instant}. */
+    private static LocalDateTime toUtc(Instant instant) {
+        return instant == null ? null : LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
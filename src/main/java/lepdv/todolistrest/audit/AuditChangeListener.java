@@ -0,0 +1,144 @@
+package lepdv.todolistrest.audit;
+
+import jakarta.persistence.EntityManagerFactory;
+import lepdv.todolistrest.entity.Revision;
+import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.util.CustomRevisionListener;
+import org.hibernate.Transaction;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.envers.RevisionType;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Captures changes of audited entities in async audit mode, instead of the Envers listeners.
+ * Changes of one transaction make one revision: its place in {@link AsyncAuditWriter} queue is
+ * reserved before commit and the record is submitted after commit, rolled back transactions leave nothing.
+ * Several changes of one entity are merged the way Envers does it.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.mode", havingValue = "async")
+public class AuditChangeListener implements PostInsertEventListener, PostUpdateEventListener,
+                                            PostDeleteEventListener {
+
+    private final AsyncAuditWriter auditWriter;
+    private final CustomRevisionListener revisionListener = new CustomRevisionListener();
+    private final Map<Transaction, PendingRevision> pendingRevisions = new ConcurrentHashMap<>();
+
+
+
+    public AuditChangeListener(AsyncAuditWriter auditWriter, EntityManagerFactory entityManagerFactory) {
+        this.auditWriter = auditWriter;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onChange(event.getSession(), event.getEntity(), RevisionType.ADD);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onChange(event.getSession(), event.getEntity(), RevisionType.MOD);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onChange(event.getSession(), event.getEntity(), RevisionType.DEL);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+
+
+    private void onChange(EventSource session, Object entity, RevisionType revisionType) {
+        if (!(entity instanceof Task) && !(entity instanceof User)) {
+            return;
+        }
+        PendingRevision pendingRevision = pendingRevisions.computeIfAbsent(session.accessTransaction(),
+                transaction -> begin(session, transaction));
+        if (entity instanceof Task task) {
+            pendingRevision.tasks.merge(task.getId(), TaskAudit.of(task, revisionType), (previous, next) -> {
+                RevisionType merged = merge(previous.revisionType(), next.revisionType());
+                return merged == null ? null : next.withRevisionType(merged);
+            });
+        } else if (entity instanceof User user) {
+            pendingRevision.users.merge(user.getId(), UserAudit.of(user, revisionType), (previous, next) -> {
+                RevisionType merged = merge(previous.revisionType(), next.revisionType());
+                return merged == null ? null : next.withRevisionType(merged);
+            });
+        }
+    }
+
+    private PendingRevision begin(EventSource session, Transaction transaction) {
+        PendingRevision pendingRevision = new PendingRevision();
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) completingSession -> {
+            if (pendingRevision.isEmpty()) {
+                return;
+            }
+            auditWriter.reserve();
+            pendingRevision.reserved = true;
+            pendingRevision.revision.setTimestamp(System.currentTimeMillis());
+            revisionListener.newRevision(pendingRevision.revision);
+        });
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completingSession) -> {
+            pendingRevisions.remove(transaction);
+            if (!pendingRevision.reserved) {
+                return;
+            }
+            if (success) {
+                auditWriter.submit(pendingRevision.revision, new ArrayList<>(pendingRevision.tasks.values()),
+                        new ArrayList<>(pendingRevision.users.values()));
+            } else {
+                auditWriter.release();
+            }
+        });
+        return pendingRevision;
+    }
+
+    /** Type of two changes of one entity in one revision, null if nothing is left to audit. */
+    static RevisionType merge(RevisionType previous, RevisionType next) {
+        if (previous == RevisionType.ADD) {
+            return next == RevisionType.DEL ? null : RevisionType.ADD;
+        }
+        if (previous == RevisionType.DEL && next == RevisionType.ADD) {
+            return RevisionType.MOD;
+        }
+        return next;
+    }
+
+
+
+    private static class PendingRevision {
+        private final Revision revision = new Revision();
+        private final Map<Long, TaskAudit> tasks = new LinkedHashMap<>();
+        private final Map<Long, UserAudit> users = new LinkedHashMap<>();
+        private boolean reserved;
+
+        private boolean isEmpty() {
+            return tasks.isEmpty() && users.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package lepdv.todolistrest.audit;
+
+import lepdv.todolistrest.entity.Revision;
+
+import java.time.Instant;
+import java.util.List;
+
+
+/**
+ * Changes of one committed transaction: a future {@link Revision} row with its {@code task_aud} and
+ * {@code users_aud} rows. The revision id is assigned when the record is written, {@code seq} orders
+ * records in the write-ahead file.
+ */
+public record AuditRecord(long seq, Long timestamp, Instant dateTime, String modifiedBy,
+                          List<TaskAudit> tasks, List<UserAudit> users) {
+
+    public AuditRecord {
+        tasks = List.copyOf(tasks);
+        users = List.copyOf(users);
+    }
+}
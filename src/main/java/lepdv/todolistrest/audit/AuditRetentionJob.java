@@ -0,0 +1,237 @@
+package lepdv.todolistrest.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Scheduled pruning of {@code task_aud}, {@code users_aud} and {@code revision}.
+ * <p>
+ * An audit row is kept while it is one of the last {@code audit.retention.keep-last} rows of its entity
+ * or its revision is younger than {@code audit.retention.keep-days}; 0 turns the rule off, with both 0
+ * nothing is pruned. Revisions left without audit rows are deleted after that.
+ * <p>
+ * Rows are selected and deleted in chunks of {@code audit.retention.chunk-size}, each chunk in its own
+ * short transaction. With {@code audit.retention.archive-dir} set, every pruned row is first written
+ * to a gzip file of json lines, one file per run.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "audit.retention.enabled", havingValue = "true")
+public class AuditRetentionJob {
+
+    private static final String PRUNABLE_ROWS = "SELECT a.* FROM %s a JOIN revision r ON r.id = a.rev " +
+            "WHERE (a.rev > ? OR (a.rev = ? AND a.id > ?)) AND r.timestamp < ? " +
+            "AND (SELECT count(*) FROM %1$s n WHERE n.id = a.id AND n.rev > a.rev) >= ? " +
+            "ORDER BY a.rev, a.id FETCH FIRST ? ROWS ONLY";
+    private static final String DELETE_ROW = "DELETE FROM %s WHERE rev = ? AND id = ?";
+    private static final String ORPHAN_REVISIONS = "SELECT r.* FROM revision r " +
+            "WHERE r.id > ? AND r.timestamp < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM task_aud t WHERE t.rev = r.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM users_aud u WHERE u.rev = r.id) " +
+            "ORDER BY r.id FETCH FIRST ? ROWS ONLY";
+    private static final String DELETE_REVISION = "DELETE FROM revision WHERE id = ?";
+    private static final DateTimeFormatter ARCHIVE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final int keepLast;
+    private final int keepDays;
+    private final int chunkSize;
+    private final String archiveDir;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Timer runTimer;
+    private final Counter archivedRows;
+
+
+
+    public AuditRetentionJob(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${audit.retention.keep-last:20}") int keepLast,
+                             @Value("${audit.retention.keep-days:90}") int keepDays,
+                             @Value("${audit.retention.chunk-size:1000}") int chunkSize,
+                             @Value("${audit.retention.archive-dir:}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.clock = Clock.systemUTC();
+        this.keepLast = keepLast;
+        this.keepDays = keepDays;
+        this.chunkSize = chunkSize;
+        this.archiveDir = archiveDir;
+        this.runTimer = Timer.builder("audit.retention.run").register(meterRegistry);
+        this.archivedRows = Counter.builder("audit.retention.archived").register(meterRegistry);
+    }
+
+
+
+    @Scheduled(cron = "${audit.retention.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        run();
+    }
+
+    /** Prunes audit tables once, a run which overlaps a running one is skipped. */
+    public RetentionResult run() {
+        if (keepLast == 0 && keepDays == 0) {
+            log.warn("Audit retention keeps neither last revisions nor days, nothing is pruned");
+            return new RetentionResult(0, 0, 0);
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.info("Audit retention is already running");
+            return new RetentionResult(0, 0, 0);
+        }
+        try {
+            return runTimer.record(this::prune);
+        } finally {
+            running.set(false);
+        }
+    }
+
+
+
+    private RetentionResult prune() {
+        long cutoff = keepDays == 0
+                ? clock.millis()
+                : clock.instant().minus(Duration.ofDays(keepDays)).toEpochMilli();
+        try (Writer archive = openArchive()) {
+            long tasks = pruneAuditTable("task_aud", cutoff, archive);
+            long users = pruneAuditTable("users_aud", cutoff, archive);
+            long revisions = pruneOrphanRevisions(cutoff, archive);
+            log.info("Audit retention deleted {} task_aud, {} users_aud and {} revision rows",
+                    tasks, users, revisions);
+            return new RetentionResult(tasks, users, revisions);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long pruneAuditTable(String table, long cutoff, Writer archive) throws IOException {
+        Counter deleted = deletedCounter(table);
+        String select = String.format(PRUNABLE_ROWS, table);
+        String delete = String.format(DELETE_ROW, table);
+        long total = 0;
+        long lastRev = 0;
+        long lastId = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(select, lastRev, lastRev, lastId, cutoff,
+                    keepLast, chunkSize);
+            if (rows.isEmpty()) {
+                return total;
+            }
+            archive(archive, table, rows);
+            List<Object[]> keys = rows.stream()
+                    .map(row -> new Object[]{row.get("rev"), row.get("id")})
+                    .toList();
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(delete, keys));
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            lastRev = ((Number) last.get("rev")).longValue();
+            lastId = ((Number) last.get("id")).longValue();
+            total += rows.size();
+            deleted.increment(rows.size());
+        }
+    }
+
+    private long pruneOrphanRevisions(long cutoff, Writer archive) throws IOException {
+        Counter deleted = deletedCounter("revision");
+        long total = 0;
+        long lastId = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(ORPHAN_REVISIONS, lastId, cutoff, chunkSize);
+            if (rows.isEmpty()) {
+                return total;
+            }
+            archive(archive, "revision", rows);
+            List<Object[]> ids = rows.stream()
+                    .map(row -> new Object[]{row.get("id")})
+                    .toList();
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(DELETE_REVISION, ids));
+            lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+            total += rows.size();
+            deleted.increment(rows.size());
+        }
+    }
+
+    private Counter deletedCounter(String table) {
+        return Counter.builder("audit.retention.deleted").tag("table", table).register(meterRegistry);
+    }
+
+
+
+    /**
+     * Archive of the run, or a writer which drops everything when archiving is off.
+     * An existing archive is never reused: a run started in the same millisecond gets a numbered name.
+     */
+    private Writer openArchive() throws IOException {
+        if (archiveDir.isBlank()) {
+            return Writer.nullWriter();
+        }
+        Path directory = Files.createDirectories(Path.of(archiveDir));
+        String name = "audit-" + ARCHIVE_NAME.format(clock.instant().atZone(clock.getZone()));
+        OutputStream out = null;
+        for (int attempt = 0; out == null; attempt++) {
+            Path file = directory.resolve(name + (attempt == 0 ? "" : "-" + attempt) + ".jsonl.gz");
+            try {
+                out = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                log.debug("Audit archive {} already exists", file);
+            }
+        }
+        return new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(out, true), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rows are flushed before they are deleted: the gzip stream is sync-flushed, so an archive cut short
+     * by a crash still decompresses up to the last deleted chunk.
+     */
+    private void archive(Writer archive, String table, List<Map<String, Object>> rows) throws IOException {
+        if (archiveDir.isBlank()) {
+            return;
+        }
+        for (Map<String, Object> row : rows) {
+            archive.write(objectMapper.writeValueAsString(Map.of("table", table, "row", row)));
+            archive.write('\n');
+        }
+        archive.flush();
+        archivedRows.increment(rows.size());
+    }
+
+
+
+    /** Numbers of deleted rows per table. */
+    public record RetentionResult(long tasks, long users, long revisions) {
+    }
+}
@@ -0,0 +1,114 @@
+package lepdv.todolistrest.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Append-only file of {@link AuditRecord} (one json per line) which are not written to database yet.
+ * Every appended record is forced to disk. Checkpoint lines mark records up to a seq as written,
+ * the file is truncated once nothing after the checkpoint is left.
+ * Not thread-safe: {@link AsyncAuditWriter} calls it under its lock.
+ */
+@Slf4j
+public class AuditWal implements Closeable {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+
+
+
+    public AuditWal(Path path, ObjectMapper objectMapper) throws IOException {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.channel.position(channel.size());
+    }
+
+
+
+    /**
+     * Records which follow the last checkpoint, in order of appending.
+     * A torn last line (crash in the middle of append) is skipped.
+     */
+    public List<AuditRecord> recover() throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        long checkpoint = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                log.warn("Skipped unreadable line of audit write-ahead file {}", path);
+                continue;
+            }
+            if (node.has("checkpoint")) {
+                checkpoint = Math.max(checkpoint, node.get("checkpoint").asLong());
+            } else {
+                records.add(objectMapper.treeToValue(node, AuditRecord.class));
+            }
+        }
+        long lastWritten = checkpoint;
+        return records.stream()
+                .filter(auditRecord -> auditRecord.seq() > lastWritten)
+                .toList();
+    }
+
+    public void append(AuditRecord auditRecord) throws IOException {
+        write(objectMapper.writeValueAsString(auditRecord));
+        channel.force(false);
+    }
+
+    /**
+     * Marks records up to {@code seq} as written. Checkpoint isn't forced: after a crash
+     * it costs at most duplicated audit rows, not lost ones.
+     */
+    public void checkpoint(long seq) throws IOException {
+        write(objectMapper.writeValueAsString(new Checkpoint(seq)));
+    }
+
+    public void truncate() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+
+
+    private void write(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+
+
+    private record Checkpoint(long checkpoint) {
+    }
+}
@@ -0,0 +1,30 @@
+package lepdv.todolistrest.audit;
+
+import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.TaskStatus;
+import org.hibernate.envers.RevisionType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+
+/**
+ * Row of {@code task_aud}: audited fields of {@link Task} as Envers stores them.
+ * Like Envers (without store_data_at_delete), a deleted task keeps only its id.
+ */
+public record TaskAudit(Long id, RevisionType revisionType, String description, LocalDate dateOfCreation,
+                        LocalDate dueDate, TaskStatus status, Instant modifiedAt, String modifiedBy) {
+
+    public static TaskAudit of(Task task, RevisionType revisionType) {
+        if (revisionType == RevisionType.DEL) {
+            return new TaskAudit(task.getId(), revisionType, null, null, null, null, null, null);
+        }
+        return new TaskAudit(task.getId(), revisionType, task.getDescription(), task.getDateOfCreation(),
+                task.getDueDate(), task.getStatus(), task.getModifiedAt(), task.getModifiedBy());
+    }
+
+    TaskAudit withRevisionType(RevisionType revisionType) {
+        return new TaskAudit(id, revisionType, description, dateOfCreation, dueDate, status, modifiedAt,
+                modifiedBy);
+    }
+}
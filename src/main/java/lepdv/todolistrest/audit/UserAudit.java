@@ -0,0 +1,31 @@
+package lepdv.todolistrest.audit;
+
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.User;
+import org.hibernate.envers.RevisionType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+
+/**
+ * Row of {@code users_aud}: audited fields of {@link User} as Envers stores them.
+ * Like Envers (without store_data_at_delete), a deleted user keeps only his id.
+ */
+public record UserAudit(Long id, RevisionType revisionType, String username, String password, String fullName,
+                        LocalDate dateOfBirth, Role role, Boolean isNonLocked, Instant modifiedAt) {
+
+    public static UserAudit of(User user, RevisionType revisionType) {
+        if (revisionType == RevisionType.DEL) {
+            return new UserAudit(user.getId(), revisionType, null, null, null, null, null, null, null);
+        }
+        return new UserAudit(user.getId(), revisionType, user.getUsername(), user.getPassword(),
+                user.getFullName(), user.getDateOfBirth(), user.getRole(), user.getIsNonLocked(),
+                user.getModifiedAt());
+    }
+
+    UserAudit withRevisionType(RevisionType revisionType) {
+        return new UserAudit(id, revisionType, username, password, fullName, dateOfBirth, role, isNonLocked,
+                modifiedAt);
+    }
+}
@@ -0,0 +1,17 @@
+package lepdv.todolistrest.cache;
+
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.User;
+
+
+/**
+ * Immutable snapshot of the fields of {@link User} that are needed to authorize a request,
+ * so that it can be cached without holding on to a managed entity.
+ */
+public record UserIdentity(Long id, String username, Role role, boolean isNonLocked) {
+
+    public static UserIdentity of(User user) {
+        return new UserIdentity(user.getId(), user.getUsername(), user.getRole(),
+                Boolean.TRUE.equals(user.getIsNonLocked()));
+    }
+}
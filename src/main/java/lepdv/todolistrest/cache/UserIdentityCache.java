@@ -0,0 +1,143 @@
+package lepdv.todolistrest.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Bounded cache of {@link UserIdentity} keyed by username, entries expire after a fixed ttl.
+ * Every change of user data must call {@link #invalidate(String)}.
+ */
+@Component
+@Slf4j
+public class UserIdentityCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+
+
+    @Autowired
+    public UserIdentityCache(@Value("${user-cache.max-size:10000}") int maxSize,
+                             @Value("${user-cache.ttl:60s}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this(maxSize, ttl, meterRegistry, System::nanoTime);
+    }
+
+    public UserIdentityCache(int maxSize, Duration ttl, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.hits = Counter.builder("user.identity.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("user.identity.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("user.identity.cache.evictions").register(meterRegistry);
+        meterRegistry.gaugeMapSize("user.identity.cache.size", Tags.empty(), entries);
+    }
+
+
+
+    public Optional<UserIdentity> get(String username, Function<String, Optional<UserIdentity>> loader) {
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt() - now > 0) {
+            hits.increment();
+            return Optional.of(entry.identity());
+        }
+        misses.increment();
+
+        long generationBeforeLoad = generation.get();
+        Optional<UserIdentity> loaded = loader.apply(username);
+        loaded.ifPresent(identity -> put(username, identity, now, generationBeforeLoad));
+        return loaded;
+    }
+
+
+
+    /**
+     * Removes the entry at once and, if called inside a transaction, once more after commit,
+     * so that a concurrent reader can't put back the state that is being changed.
+     */
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        entries.remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    entries.remove(username);
+                }
+            });
+        }
+        log.debug("User identity of username={} was invalidated", username);
+    }
+
+
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+
+
+    public long getHitCount() {
+        return (long) hits.count();
+    }
+
+    public long getMissCount() {
+        return (long) misses.count();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+
+
+    private void put(String username, UserIdentity identity, long now, long generationBeforeLoad) {
+        if (entries.size() >= maxSize && !entries.containsKey(username)) {
+            evict(now);
+        }
+        entries.put(username, new Entry(identity, now + ttlNanos));
+        if (generation.get() != generationBeforeLoad) {
+            entries.remove(username);
+        }
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+        while (!entries.isEmpty() && entries.size() >= maxSize) {
+            entries.entrySet().stream()
+                    .min((a, b) -> Long.compare(a.getValue().expiresAt() - now, b.getValue().expiresAt() - now))
+                    .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+            evictions.increment();
+        }
+    }
+
+
+
+    private record Entry(UserIdentity identity, long expiresAt) {
+    }
+}
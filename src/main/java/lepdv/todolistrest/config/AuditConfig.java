@@ -1,7 +1,11 @@
 package lepdv.todolistrest.config;
 
 import lepdv.todolistrest.TodolistRestApplication;
+import lepdv.todolistrest.audit.AuditChangeListener;
 import lepdv.todolistrest.util.AuthUser;
+import org.hibernate.envers.boot.internal.EnversIntegrator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
@@ -21,5 +25,15 @@ public class AuditConfig {
         return () -> Optional.of(AuthUser.getAuthUsername());
     }
 
+    /**
+     * In async audit mode Envers keeps its metadata for audit queries, but doesn't write revisions:
+     * {@link AuditChangeListener} captures the changes instead.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "audit.mode", havingValue = "async")
+    public HibernatePropertiesCustomizer disableEnversListeners() {
+        return properties -> properties.put(EnversIntegrator.AUTO_REGISTER, false);
+    }
+
 
 }
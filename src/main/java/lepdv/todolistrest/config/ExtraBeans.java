@@ -1,9 +1,12 @@
 package lepdv.todolistrest.config;
 
 
-import org.modelmapper.ModelMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lepdv.todolistrest.security.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -11,14 +14,25 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class ExtraBeans {
 
 
+    /** BCrypt of {@code password.hashing.cost} on a bounded pool, {@code threads=0} - one per core. */
     @Bean
-    public PasswordEncoder getPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder getPasswordEncoder(@Value("${password.hashing.cost:10}") int cost,
+                                              @Value("${password.hashing.threads:0}") int threads,
+                                              @Value("${password.hashing.queue-capacity:100}") int queueCapacity,
+                                              MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(cost),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), queueCapacity, meterRegistry);
     }
 
-    @Bean
-    public ModelMapper modelMapper () {
-        return new ModelMapper();
+
+
+    /**
+     * Schedules purge of expired refresh tokens ({@code refresh-token.purge.cron}), commits of the search index
+     * ({@code search.lucene.commit.cron}) and audit retention ({@code audit.retention.cron}) when it's enabled.
+     */
+    @Configuration
+    @EnableScheduling
+    static class SchedulingConfig {
     }
 
 
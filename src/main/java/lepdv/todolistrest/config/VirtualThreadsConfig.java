@@ -0,0 +1,71 @@
+package lepdv.todolistrest.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * Virtual-thread execution mode, opt-in by {@code virtual-threads.enabled} (profile {@code virtual-threads}).
+ * Tomcat runs every request on a new virtual thread instead of its pool of platform threads, so a request
+ * blocked on jdbc or on BCrypt doesn't hold a platform thread. {@code applicationTaskExecutor}, which runs
+ * async requests (streaming exports) and {@code @Async} methods, starts a virtual thread per task as well.
+ * <p>
+ * The app is built for Java 17: the mode applies only when it runs on Java 21 or later, on an older runtime
+ * the property is ignored. It isn't the default, with a small connection pool it queues requests on the pool
+ * (see the profile). Boot 3.2 has {@code spring.threads.virtual.enabled}; after an upgrade this class can go.
+ */
+@Configuration
+@ConditionalOnProperty(name = "virtual-threads.enabled", havingValue = "true")
+@Conditional(VirtualThreadsConfig.OnVirtualThreadsRuntime.class)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+                  AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+
+
+    /** {@code Executors.newVirtualThreadPerTaskExecutor()}, which isn't in the Java 17 api the app compiles against. */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads aren't available on Java " + Runtime.version(), e);
+        }
+    }
+
+
+    static class OnVirtualThreadsRuntime extends SpringBootCondition {
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            int feature = Runtime.version().feature();
+            return feature >= 21
+                    ? ConditionOutcome.match("Java " + feature + " has virtual threads")
+                    : ConditionOutcome.noMatch("Java " + feature + " has no virtual threads, 21 is needed");
+        }
+    }
+
+
+}
@@ -9,15 +9,20 @@ import jakarta.validation.Valid;
 import lepdv.todolistrest.dto.admin.UserForAdminDto;
 import lepdv.todolistrest.dto.admin.UserListDto;
 import lepdv.todolistrest.dto.auth.CredentialsDto;
+import lepdv.todolistrest.dto.revision.RevisionListDto;
+import lepdv.todolistrest.dto.revision.RevisionView;
 import lepdv.todolistrest.dto.task.ResponseTaskDto;
 import lepdv.todolistrest.dto.task.TaskListDto;
 import lepdv.todolistrest.exception.ErrorsBody;
+import lepdv.todolistrest.export.ExportFormat;
+import lepdv.todolistrest.export.ExportResponses;
 import lepdv.todolistrest.service.AdminService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.TEXT_PLAIN_VALUE;
@@ -46,8 +51,9 @@ public class AdminController {
     public ResponseEntity<UserListDto> getAllUsers(@RequestParam(required = false, name = "page",
                                                    defaultValue = "0") int page,
                                                    @RequestParam(required = false, name = "size",
-                                                   defaultValue = "20") int size) {
-        UserListDto allUsers = adminService.getAllUsers(page, size);
+                                                   defaultValue = "20") int size,
+                                                   @RequestParam(required = false, name = "cursor") String cursor) {
+        UserListDto allUsers = adminService.getAllUsers(page, size, cursor);
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -78,6 +84,32 @@ public class AdminController {
 
 
 
+    @Operation(
+            operationId = "getUserRevisions",
+            summary = "Returns history of user by its id, paginated by revision number",
+            tags = "admin-controller",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Found revisions of the user", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = RevisionListDto.class))}),
+                    @ApiResponse(description = "All unusual situations", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorsBody.class))})
+            })
+    @GetMapping("/users/{id}/revisions")
+    public ResponseEntity<RevisionListDto> getUserRevisions(@PathVariable("id") Long id,
+                                                            @RequestParam(required = false, name = "size",
+                                                                          defaultValue = "20") int size,
+                                                            @RequestParam(required = false, name = "cursor") String cursor,
+                                                            @RequestParam(required = false, name = "view",
+                                                                          defaultValue = "SUMMARY") RevisionView view) {
+        RevisionListDto revisions = adminService.getUserRevisions(id, size, cursor, view);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(revisions);
+    }
+
+
+
     @Operation(
             operationId = "lockUserById",
             summary = "Lock user by its id",
@@ -157,8 +189,9 @@ public class AdminController {
     public ResponseEntity<TaskListDto> getAllTasks(@RequestParam(required = false, name = "page",
                                                    defaultValue = "0") int page,
                                                    @RequestParam(required = false, name = "size",
-                                                   defaultValue = "20") int size) {
-        TaskListDto taskListDto = adminService.getAllTasks(page, size);
+                                                   defaultValue = "20") int size,
+                                                   @RequestParam(required = false, name = "cursor") String cursor) {
+        TaskListDto taskListDto = adminService.getAllTasks(page, size, cursor);
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -167,6 +200,27 @@ public class AdminController {
 
 
 
+    @Operation(
+            operationId = "exportAllTasks",
+            summary = "Streams tasks of all users as ndjson or csv file, optionally gzipped",
+            tags = "admin-controller",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Tasks of all users ordered by id", content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv"),
+                            @Content(mediaType = "application/gzip")})
+            })
+    @GetMapping("/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportAllTasks(@RequestParam(required = false, name = "format",
+                                                                              defaultValue = "NDJSON") ExportFormat format,
+                                                                @RequestParam(required = false, name = "gzip",
+                                                                              defaultValue = "false") boolean gzip) {
+        StreamingResponseBody tasks = adminService.exportAllTasks(format);
+        return ExportResponses.attachment("all-tasks", format, gzip, tasks);
+    }
+
+
+
     @Operation(
             operationId = "getTaskById",
             summary = "Get task by its id",
@@ -188,4 +242,30 @@ public class AdminController {
     }
 
 
+
+    @Operation(
+            operationId = "getTaskRevisions",
+            summary = "Returns history of task by its id, paginated by revision number",
+            tags = "admin-controller",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Found revisions of the task", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = RevisionListDto.class))}),
+                    @ApiResponse(description = "All unusual situations", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorsBody.class))})
+            })
+    @GetMapping("/tasks/{id}/revisions")
+    public ResponseEntity<RevisionListDto> getTaskRevisions(@PathVariable("id") Long id,
+                                                            @RequestParam(required = false, name = "size",
+                                                                          defaultValue = "20") int size,
+                                                            @RequestParam(required = false, name = "cursor") String cursor,
+                                                            @RequestParam(required = false, name = "view",
+                                                                          defaultValue = "SUMMARY") RevisionView view) {
+        RevisionListDto revisions = adminService.getTaskRevisions(id, size, cursor, view);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(revisions);
+    }
+
+
 }
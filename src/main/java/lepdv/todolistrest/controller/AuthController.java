@@ -5,13 +5,18 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lepdv.todolistrest.dto.auth.CredentialsDto;
 import lepdv.todolistrest.dto.auth.JwtDto;
+import lepdv.todolistrest.dto.auth.RefreshTokenDto;
 import lepdv.todolistrest.dto.auth.RegisterDto;
+import lepdv.todolistrest.entity.User;
 import lepdv.todolistrest.exception.ErrorsBody;
 import lepdv.todolistrest.exception.UnitedException;
 import lepdv.todolistrest.security.JWTUtil;
+import lepdv.todolistrest.security.LoginRateLimiter;
+import lepdv.todolistrest.service.RefreshTokenService;
 import lepdv.todolistrest.service.UserService;
 import lepdv.todolistrest.util.RegisterDtoValidator;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +27,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -42,6 +48,8 @@ public class AuthController {
     private final RegisterDtoValidator registerDtoValidator;
     private final JWTUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RefreshTokenService refreshTokenService;
 
 
 
@@ -57,19 +65,23 @@ public class AuthController {
                             @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorsBody.class))})
             })
     @PostMapping("/login")
-    public ResponseEntity<JwtDto> performLogin(@Valid @RequestBody CredentialsDto credentialsDto) {
+    public ResponseEntity<JwtDto> performLogin(@Valid @RequestBody CredentialsDto credentialsDto,
+                                               HttpServletRequest request) {
 
+        loginRateLimiter.acquire(credentialsDto.getUsername(), request.getRemoteAddr());
         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                 credentialsDto.getUsername(), credentialsDto.getPassword());
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(authToken);
+            authentication = authenticationManager.authenticate(authToken);
         } catch (BadCredentialsException e) {
             throw new UnitedException("Incorrect credentials");
         } catch (LockedException e) {
             throw new UnitedException("User is locked");
         }
-        String token = jwtUtil.generateToken(credentialsDto.getUsername());
-        JwtDto jwtMapDto = new JwtDto(token);
+        loginRateLimiter.onSuccess(credentialsDto.getUsername(), request.getRemoteAddr());
+        User user = (User) authentication.getPrincipal();
+        JwtDto jwtMapDto = new JwtDto(jwtUtil.generateToken(user), refreshTokenService.issue(user));
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -95,9 +107,8 @@ public class AuthController {
         if (bindingResult.hasErrors()) {
             throw new UnitedException(getErrorMessage(bindingResult));
         }
-        userService.register(registerDto);
-        String token = jwtUtil.generateToken(registerDto.getUsername());
-        JwtDto jwtMapDto = new JwtDto(token);
+        User savedUser = userService.register(registerDto);
+        JwtDto jwtMapDto = new JwtDto(jwtUtil.generateToken(savedUser), refreshTokenService.issue(savedUser));
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -106,4 +117,27 @@ public class AuthController {
 
 
 
+    @Operation(
+            operationId = "refresh",
+            summary = "Exchange refresh token for new jwt and refresh token",
+            tags = "auth-controller",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Refresh was successful, the used refresh token is no longer valid", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = JwtDto.class))}),
+                    @ApiResponse(description = "All unusual situations", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorsBody.class))})
+            })
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtDto> refresh(@Valid @RequestBody RefreshTokenDto refreshTokenDto) {
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshTokenDto.getRefreshToken());
+        JwtDto jwtMapDto = new JwtDto(jwtUtil.generateToken(rotation.user()), rotation.refreshToken());
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jwtMapDto);
+    }
+
+
+
 }
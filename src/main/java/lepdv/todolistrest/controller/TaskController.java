@@ -8,11 +8,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lepdv.todolistrest.dto.task.*;
 import lepdv.todolistrest.exception.ErrorsBody;
+import lepdv.todolistrest.export.ExportFormat;
+import lepdv.todolistrest.export.ExportResponses;
+import lepdv.todolistrest.service.TaskSearchService;
 import lepdv.todolistrest.service.TaskService;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
 
 import static org.springframework.http.MediaType.*;
 
@@ -24,6 +33,7 @@ import static org.springframework.http.MediaType.*;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskSearchService taskSearchService;
 
 
 
@@ -49,6 +59,52 @@ public class TaskController {
 
 
 
+    @Operation(
+            operationId = "batchTasks",
+            summary = "Create, update, mark as completed and delete tasks in one transaction",
+            tags = "task-controller",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch was applied, status of every item is in results", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = BatchResultDto.class))}),
+                    @ApiResponse(description = "All unusual situations", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorsBody.class))})
+            })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultDto> batchTasks(@RequestBody BatchTaskDto batchTaskDto) {
+        BatchResultDto batchResult = taskService.batch(batchTaskDto);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(APPLICATION_JSON)
+                .body(batchResult);
+    }
+
+
+
+    @Operation(
+            operationId = "importTasks",
+            summary = "Creates tasks of authenticate user from ndjson or csv file, optionally gzipped",
+            tags = "task-controller",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Valid rows were imported, rejected ones are reported by line", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ImportResultDto.class))}),
+                    @ApiResponse(description = "All unusual situations", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorsBody.class))})
+            })
+    @PostMapping("/import")
+    public ResponseEntity<ImportResultDto> importTasks(@RequestParam(required = false, name = "format",
+                                                                     defaultValue = "NDJSON") ExportFormat format,
+                                                       @RequestParam(required = false, name = "gzip",
+                                                                     defaultValue = "false") boolean gzip,
+                                                       InputStream body) throws IOException {
+        ImportResultDto importResult = taskService.importTasks(format, gzip ? new GZIPInputStream(body) : body);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(APPLICATION_JSON)
+                .body(importResult);
+    }
+
+
+
     @Operation(
             operationId = "getTodoList",
             summary = "Returns list of tasks of authenticate user and sorted/filtered based on the query parameters",
@@ -60,9 +116,36 @@ public class TaskController {
     @GetMapping("/todo-list")
     public ResponseEntity<TaskListDto> getTodoList(@RequestParam(required = false, name = "page",
                                                                  defaultValue = "0") int page,
+                                                   @RequestParam(required = false, name = "size",
+                                                                 defaultValue = "20") int size,
+                                                   @RequestParam(required = false, name = "cursor") String cursor,
+                                                   @ParameterObject TaskFilter filter) {
+        TaskListDto taskListDto = taskService.getAllByAuthUser(page, size, cursor, filter);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(APPLICATION_JSON)
+                .body(taskListDto);
+    }
+
+
+
+    @Operation(
+            operationId = "searchTasks",
+            summary = "Full-text search over descriptions of tasks of authenticate user, the most relevant first",
+            tags = "task-controller",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Found tasks of authenticate user", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = TaskListDto.class))}),
+                    @ApiResponse(description = "All unusual situations", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorsBody.class))})
+            })
+    @GetMapping("/search")
+    public ResponseEntity<TaskListDto> searchTasks(@RequestParam(name = "q") String query,
+                                                   @RequestParam(required = false, name = "page",
+                                                                 defaultValue = "0") int page,
                                                    @RequestParam(required = false, name = "size",
                                                                  defaultValue = "20") int size) {
-        TaskListDto taskListDto = taskService.getAllByAuthUser(page, size);
+        TaskListDto taskListDto = taskSearchService.search(query, page, size);
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .contentType(APPLICATION_JSON)
@@ -71,6 +154,29 @@ public class TaskController {
 
 
 
+    @Operation(
+            operationId = "exportTasks",
+            summary = "Streams all tasks of authenticate user as ndjson or csv file, optionally gzipped",
+            tags = "task-controller",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Tasks of authenticate user ordered by id", content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv"),
+                            @Content(mediaType = "application/gzip")}),
+                    @ApiResponse(description = "All unusual situations", content = {
+                            @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorsBody.class))})
+            })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(required = false, name = "format",
+                                                                           defaultValue = "NDJSON") ExportFormat format,
+                                                             @RequestParam(required = false, name = "gzip",
+                                                                           defaultValue = "false") boolean gzip) {
+        StreamingResponseBody tasks = taskService.exportByAuthUser(format);
+        return ExportResponses.attachment("tasks", format, gzip, tasks);
+    }
+
+
+
     @Operation(
             operationId = "getTaskById",
             summary = "Get task by its id",
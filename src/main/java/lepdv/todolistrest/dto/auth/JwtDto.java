@@ -13,5 +13,13 @@ public class JwtDto {
 
     private String jwt;
 
+    /** Opaque token for {@code /api/v2/authenticate/refresh}, single use. */
+    private String refreshToken;
+
+
+    public JwtDto(String jwt) {
+        this.jwt = jwt;
+    }
+
 
 }
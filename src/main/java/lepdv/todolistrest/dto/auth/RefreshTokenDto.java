@@ -0,0 +1,21 @@
+package lepdv.todolistrest.dto.auth;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenDto {
+
+
+    @Schema(description = "Refresh token got with the last jwt", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank(message = "can't be empty")
+    @Size(max = 100, message = "should be up to 100 symbols")
+    private String refreshToken;
+
+}
@@ -0,0 +1,16 @@
+package lepdv.todolistrest.dto.revision;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FieldChangeDto {
+
+    private Object from;
+    private Object to;
+
+}
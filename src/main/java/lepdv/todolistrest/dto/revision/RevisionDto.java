@@ -0,0 +1,31 @@
+package lepdv.todolistrest.dto.revision;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RevisionDto {
+
+    private Integer revision;
+    private String type;
+    private Instant dateTime;
+    private String modifiedBy;
+
+    /** Audited fields of the entity in this revision, only in snapshot view. */
+    private Map<String, Object> fields;
+
+    /** Fields changed since the previous revision, only in diff view. */
+    private Map<String, FieldChangeDto> changes;
+
+}
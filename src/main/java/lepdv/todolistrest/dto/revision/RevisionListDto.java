@@ -0,0 +1,26 @@
+package lepdv.todolistrest.dto.revision;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevisionListDto {
+
+    private List<RevisionDto> revisionList;
+
+    /** Cursor of the next page, absent when there are no more revisions. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+
+    public RevisionListDto(List<RevisionDto> revisionList) {
+        this.revisionList = revisionList;
+    }
+
+}
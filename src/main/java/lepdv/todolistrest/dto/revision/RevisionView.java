@@ -0,0 +1,13 @@
+package lepdv.todolistrest.dto.revision;
+
+
+/**
+ * What a revision of history carries besides its number, type, time and author:
+ * nothing ({@code SUMMARY}), all audited fields ({@code SNAPSHOT}) or only the fields
+ * changed since the previous revision ({@code DIFF}).
+ */
+public enum RevisionView {
+    SUMMARY,
+    SNAPSHOT,
+    DIFF
+}
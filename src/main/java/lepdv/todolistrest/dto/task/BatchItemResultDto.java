@@ -0,0 +1,28 @@
+package lepdv.todolistrest.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Result of one item of {@link BatchTaskDto}: {@code index} is position of the item in its array,
+ * {@code status} is http status which the same single request would get.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDto {
+
+    private String operation;
+    private Integer index;
+    private Long id;
+    private Integer status;
+    private String error;
+    private ResponseTaskDto task;
+
+}
@@ -0,0 +1,16 @@
+package lepdv.todolistrest.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDto {
+
+    private List<BatchItemResultDto> results;
+
+}
@@ -0,0 +1,28 @@
+package lepdv.todolistrest.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+/**
+ * Changes of tasks which are applied in one transaction. Items are validated one by one,
+ * so an invalid item doesn't reject the whole batch.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchTaskDto {
+
+    private List<CreateTaskDto> create;
+    private List<BatchUpdateTaskDto> update;
+    private List<Long> markAsCompleted;
+    private List<Long> delete;
+
+}
@@ -0,0 +1,32 @@
+package lepdv.todolistrest.dto.task;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+
+/**
+ * Partial update of task in batch: fields which are null stay unchanged.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchUpdateTaskDto {
+
+    @NotNull(message = "can't be empty")
+    private Long id;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "can't be empty")
+    private String description;
+
+    @FutureOrPresent(message = "can't be in Past")
+    private LocalDate dueDate;
+
+}
@@ -0,0 +1,19 @@
+package lepdv.todolistrest.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Rejected row of a task import, {@code line} is 1-based line of the file where the row starts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDto {
+
+    private int line;
+    private String error;
+
+}
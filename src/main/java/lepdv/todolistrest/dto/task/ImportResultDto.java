@@ -0,0 +1,22 @@
+package lepdv.todolistrest.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+/**
+ * Result of a task import: counts of imported and rejected rows and errors of the first rejected ones.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDto {
+
+    private int imported;
+    private int rejected;
+    private List<ImportErrorDto> errors;
+
+}
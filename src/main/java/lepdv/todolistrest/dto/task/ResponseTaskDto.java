@@ -1,6 +1,6 @@
 package lepdv.todolistrest.dto.task;
 
-import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.entity.TaskStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,5 +22,11 @@ public class ResponseTaskDto {
     private String isCompleted;
     private String user;
 
-    public void setUser(User user) { this.user = user.getUsername(); }
+
+
+    /** Used by projections of {@link lepdv.todolistrest.repository.TaskRepository}. */
+    public ResponseTaskDto(Long id, String description, LocalDate dateOfCreation, LocalDate dueDate,
+                           TaskStatus status, String user) {
+        this(id, description, dateOfCreation, dueDate, status == null ? null : status.getLabel(), user);
+    }
 }
@@ -0,0 +1,44 @@
+package lepdv.todolistrest.dto.task;
+
+import lepdv.todolistrest.entity.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+
+/**
+ * Query parameters of the todo list, every condition is optional.
+ * Due date bounds are exclusive, creation date bounds are inclusive.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TaskFilter {
+
+    private TaskStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueBefore;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueAfter;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+
+    @Builder.Default
+    private TaskSort sort = TaskSort.ID;
+
+
+    public boolean hasConditions() {
+        return status != null || dueBefore != null || dueAfter != null || createdFrom != null || createdTo != null;
+    }
+}
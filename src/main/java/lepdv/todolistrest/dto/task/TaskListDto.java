@@ -1,5 +1,6 @@
 package lepdv.todolistrest.dto.task;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,4 +14,13 @@ public class TaskListDto {
 
     private List<ResponseTaskDto> taskList;
 
+    /** Cursor of the next page, absent when there are no more rows. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+
+    public TaskListDto(List<ResponseTaskDto> taskList) {
+        this.taskList = taskList;
+    }
+
 }
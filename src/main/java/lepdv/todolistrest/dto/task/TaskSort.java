@@ -0,0 +1,9 @@
+package lepdv.todolistrest.dto.task;
+
+
+/** Order of the todo list, task id breaks ties. */
+public enum TaskSort {
+    ID,
+    /** Tasks without due date go last. */
+    DUE_DATE
+}
@@ -19,7 +19,7 @@ import java.time.Instant;
 public abstract class BaseEntity<T extends Serializable> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     protected T id;
 
     @CreatedDate
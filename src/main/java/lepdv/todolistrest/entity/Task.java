@@ -24,7 +24,8 @@ import java.time.LocalDate;
 public class Task extends BaseEntity<Long> implements Cloneable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "can't be empty")
@@ -35,7 +36,8 @@ public class Task extends BaseEntity<Long> implements Cloneable {
     @FutureOrPresent(message = "can't be in past")
     private LocalDate dueDate;
 
-    private String isCompleted;
+    @Convert(converter = TaskStatusConverter.class)
+    private TaskStatus status;
 
     @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinColumn(name = "user_id", referencedColumnName = "id")
@@ -0,0 +1,28 @@
+package lepdv.todolistrest.entity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Completion state of a task, stored as {@link #getCode() code} in a smallint column.
+ * Label is the value shown in api.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskStatus {
+    OPEN((short) 0, "Not completed"),
+    COMPLETED((short) 1, "Completed");
+
+    private final short code;
+    private final String label;
+
+    public static TaskStatus ofCode(short code) {
+        for (TaskStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown task status code " + code);
+    }
+}
@@ -0,0 +1,19 @@
+package lepdv.todolistrest.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+
+@Converter
+public class TaskStatusConverter implements AttributeConverter<TaskStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TaskStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public TaskStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : TaskStatus.ofCode(code);
+    }
+}
@@ -0,0 +1,12 @@
+package lepdv.todolistrest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AuditUnavailableException extends RuntimeException {
+
+    public AuditUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -99,9 +99,10 @@ public class GeneralExceptionHandler extends ResponseEntityExceptionHandler {
     @ExceptionHandler({Exception.class})
     public ResponseEntity<Object> handleAllExceptions(Exception exception, WebRequest request) {
 
-        ResponseStatus responseStatus = exception.getClass().getAnnotation(ResponseStatus.class);
+        final Throwable annotated = withResponseStatus(exception);
+        ResponseStatus responseStatus = annotated.getClass().getAnnotation(ResponseStatus.class);
         final HttpStatus status = responseStatus != null ? responseStatus.value() : HttpStatus.INTERNAL_SERVER_ERROR;
-        final String localizedMessage = exception.getLocalizedMessage();
+        final String localizedMessage = annotated.getLocalizedMessage();
         final String path = request.getDescription(false);
         String message = (StringUtils.isNotEmpty(localizedMessage) ? localizedMessage : status.getReasonPhrase());
         logger.error(String.format(ERROR_MESSAGE_TEMPLATE, message, path), exception);
@@ -143,6 +144,20 @@ public class GeneralExceptionHandler extends ResponseEntityExceptionHandler {
     }
 
 
+    /**
+     * The exception or its cause annotated with {@link ResponseStatus}, for exceptions which reach
+     * the controller wrapped (e.g. thrown on commit of transaction).
+     */
+    private Throwable withResponseStatus(Exception exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause.getClass().isAnnotationPresent(ResponseStatus.class)) {
+                return cause;
+            }
+        }
+        return exception;
+    }
+
+
     private String getMessageForStatus(HttpStatus status) {
         return switch (status) {
             case UNAUTHORIZED -> ACCESS_DENIED;
@@ -0,0 +1,47 @@
+package lepdv.todolistrest.export;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Responses of streaming exports: an attachment named {@code <name>.<format extension>[.gz]}
+ * written after the controller method returns.
+ */
+@UtilityClass
+public class ExportResponses {
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+
+
+    public static ResponseEntity<StreamingResponseBody> attachment(String name, ExportFormat format, boolean gzip,
+                                                                   StreamingResponseBody body) {
+        String fileName = name + "." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName)
+                        .build()
+                        .toString())
+                .body(gzip ? gzipped(body) : body);
+    }
+
+
+
+    private static StreamingResponseBody gzipped(StreamingResponseBody body) {
+        return out -> {
+            GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+            body.writeTo(gzip);
+            gzip.finish();
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package lepdv.todolistrest.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.entity.TaskStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+
+/**
+ * Writes tasks as {@link ExportFormat} rows straight from a forward-only jdbc cursor, so memory
+ * doesn't depend on the number of tasks. The cursor is read in a read-only transaction: PostgreSQL driver
+ * fetches {@code export.fetch-size} rows at a time only when autocommit is off.
+ */
+@Component
+public class TaskExporter {
+
+    private static final String TASKS = "SELECT t.id, t.description, t.date_of_creation, t.due_date, t.status, " +
+            "u.username FROM task t JOIN users u ON u.id = t.user_id";
+    private static final String CSV_HEADER = "id,description,dateOfCreation,dueDate,isCompleted,user";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+
+
+
+    public TaskExporter(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.jsonWriter = objectMapper.writerFor(ResponseTaskDto.class);
+        this.fetchSize = fetchSize;
+    }
+
+
+
+    /**
+     * Writes tasks of the user, of all users when {@code userId} is null, ordered by id.
+     * {@code out} is flushed, not closed.
+     */
+    public void export(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement statement = con.prepareStatement(
+                        userId == null ? TASKS + " ORDER BY t.id" : TASKS + " WHERE t.user_id = ? ORDER BY t.id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                if (userId != null) {
+                    statement.setLong(1, userId);
+                }
+                return statement;
+            }, resultSet -> {
+                try {
+                    writeRow(format, task(resultSet), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+
+
+    private ResponseTaskDto task(ResultSet resultSet) throws SQLException {
+        return new ResponseTaskDto(resultSet.getLong(1), resultSet.getString(2),
+                resultSet.getObject(3, LocalDate.class), resultSet.getObject(4, LocalDate.class),
+                TaskStatus.ofCode(resultSet.getShort(5)), resultSet.getString(6));
+    }
+
+    private void writeRow(ExportFormat format, ResponseTaskDto task, Writer writer) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(jsonWriter.writeValueAsString(task));
+        } else {
+            writer.write(String.valueOf(task.getId()));
+            writer.write(',');
+            writer.write(csvValue(task.getDescription()));
+            writer.write(',');
+            writer.write(csvValue(task.getDateOfCreation()));
+            writer.write(',');
+            writer.write(csvValue(task.getDueDate()));
+            writer.write(',');
+            writer.write(csvValue(task.getIsCompleted()));
+            writer.write(',');
+            writer.write(csvValue(task.getUser()));
+        }
+        writer.write('\n');
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
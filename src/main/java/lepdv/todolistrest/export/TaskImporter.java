@@ -0,0 +1,421 @@
+package lepdv.todolistrest.export;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lepdv.todolistrest.cache.UserIdentity;
+import lepdv.todolistrest.dto.task.CreateTaskDto;
+import lepdv.todolistrest.dto.task.ImportErrorDto;
+import lepdv.todolistrest.dto.task.ImportResultDto;
+import lepdv.todolistrest.entity.TaskStatus;
+import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.search.TaskIndexEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.envers.RevisionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+
+/**
+ * Reads {@link ExportFormat} rows as {@link CreateTaskDto}s one by one, so memory doesn't depend on the size
+ * of the file, and inserts valid ones in jdbc batches of {@code import.batch-size}. A json line or a csv record
+ * longer than {@code import.max-line-length} characters is rejected without being read whole. Csv needs a header row,
+ * {@code description} and {@code dueDate} columns are read and others are ignored, as are unknown json fields,
+ * so an export can be imported back.
+ * <p>
+ * Every batch is committed in its own transaction and published as {@link TaskIndexEvent}. Rows bypass Envers,
+ * so the batch writes its revision itself: one revision (as Envers writes per transaction) with an {@code ADD}
+ * row of {@code task_aud} per task, the base of the history of an imported task. Ids are taken from {@code task_seq} the way
+ * Hibernate pooled optimizer does: a value of the sequence reserves itself and {@code increment - 1} ids below.
+ * The increment is read from the sequence itself, so the blocks can't overlap ones taken by Hibernate.
+ */
+@Slf4j
+@Component
+public class TaskImporter {
+
+    private static final String INSERT_TASK = "INSERT INTO task (id, description, date_of_creation, due_date, " +
+            "status, user_id, create_at, modified_at, created_by, modified_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String NEXT_REVISION_ID = "SELECT nextval('revision_seq')";
+    private static final String INSERT_REVISION = "INSERT INTO revision (id, timestamp, date_time, modified_by) " +
+            "VALUES (?, ?, ?, ?)";
+    private static final String INSERT_TASK_AUD = "INSERT INTO task_aud " +
+            "(id, rev, revtype, description, date_of_creation, due_date, status, modified_at, modified_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String NEXT_TASK_ID = "SELECT nextval('task_seq')";
+    private static final String TASK_SEQ_INCREMENT = "SELECT increment FROM information_schema.sequences " +
+            "WHERE sequence_schema = current_schema AND sequence_name = 'task_seq'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader jsonReader;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxErrors;
+    private final int maxLineLength;
+    private volatile long taskSeqIncrement;
+
+
+
+    public TaskImporter(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        Validator validator,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${import.batch-size:1000}") int batchSize,
+                        @Value("${import.max-errors:1000}") int maxErrors,
+                        @Value("${import.max-line-length:65536}") int maxLineLength) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonReader = objectMapper.readerFor(CreateTaskDto.class);
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.maxLineLength = maxLineLength;
+    }
+
+
+
+    public ImportResultDto importTasks(UserIdentity user, ExportFormat format, InputStream in) throws IOException {
+        LineReader reader = new LineReader(new InputStreamReader(in, StandardCharsets.UTF_8), maxLineLength);
+        Import result = new Import(user);
+        if (format == ExportFormat.NDJSON) {
+            readJsonLines(reader, result);
+        } else {
+            readCsv(reader, result);
+        }
+        result.flush();
+        log.info("{} tasks were imported by user id={}, {} rows were rejected",
+                result.imported, user.id(), result.rejected);
+        return new ImportResultDto(result.imported, result.rejected, result.errors);
+    }
+
+
+
+    private void readJsonLines(LineReader reader, Import result) throws IOException {
+        int line = 0;
+        String json;
+        while ((json = reader.next()) != null) {
+            line++;
+            if (reader.tooLong) {
+                result.reject(line, "line - can't be longer than " + maxLineLength + " characters; ");
+                continue;
+            }
+            if (json.isBlank()) {
+                continue;
+            }
+            CreateTaskDto task;
+            try {
+                task = jsonReader.readValue(json);
+            } catch (JsonProcessingException e) {
+                result.reject(line, "json - " + e.getOriginalMessage() + "; ");
+                continue;
+            }
+            if (task == null) {
+                result.reject(line, "json - must be an object; ");
+            } else {
+                result.add(line, task);
+            }
+        }
+    }
+
+    private void readCsv(LineReader reader, Import result) throws IOException {
+        CsvReader csv = new CsvReader(reader, maxLineLength);
+        List<String> header = csv.next();
+        if (csv.tooLong) {
+            throw new UnitedException("Csv header can't be longer than " + maxLineLength + " characters");
+        }
+        int description = header == null ? -1 : header.indexOf("description");
+        if (description < 0) {
+            throw new UnitedException("Csv header must have description column");
+        }
+        int dueDate = header.indexOf("dueDate");
+        List<String> row;
+        while ((row = csv.next()) != null) {
+            int line = csv.recordLine;
+            if (csv.tooLong) {
+                result.reject(line, "record - can't be longer than " + maxLineLength + " characters; ");
+                continue;
+            }
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                result.add(line, new CreateTaskDto(value(row, description), date(value(row, dueDate))));
+            } catch (DateTimeParseException e) {
+                result.reject(line, "dueDate - must be yyyy-MM-dd; ");
+            }
+        }
+    }
+
+    private String value(List<String> row, int column) {
+        return column < 0 || column >= row.size() ? null : row.get(column);
+    }
+
+    private LocalDate date(String value) {
+        return value == null || value.isEmpty() ? null : LocalDate.parse(value);
+    }
+
+    /** Violations in the same format as {@link lepdv.todolistrest.exception.ErrorMessage}, null when valid. */
+    private String validate(CreateTaskDto task) {
+        Set<ConstraintViolation<CreateTaskDto>> violations = validator.validate(task);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " - " + violation.getMessage() + "; ")
+                .sorted()
+                .collect(Collectors.joining());
+    }
+
+    private void insert(UserIdentity user, List<CreateTaskDto> tasks) {
+        transactionTemplate.executeWithoutResult(status -> {
+            long[] ids = nextTaskIds(tasks.size());
+            Instant instant = Instant.now();
+            LocalDateTime now = toUtc(instant);
+            LocalDate today = LocalDate.now();
+            int rev = jdbcTemplate.queryForObject(NEXT_REVISION_ID, Integer.class);
+            List<Object[]> rows = new ArrayList<>(tasks.size());
+            List<Object[]> auditRows = new ArrayList<>(tasks.size());
+            List<TaskIndexEvent.Document> documents = new ArrayList<>(tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                CreateTaskDto task = tasks.get(i);
+                rows.add(new Object[]{ids[i], task.getDescription(), today, task.getDueDate(),
+                        TaskStatus.OPEN.getCode(), user.id(), now, now, user.username(), user.username()});
+                auditRows.add(new Object[]{ids[i], rev, RevisionType.ADD.getRepresentation(), task.getDescription(),
+                        today, task.getDueDate(), TaskStatus.OPEN.getCode(), now, user.username()});
+                documents.add(new TaskIndexEvent.Document(ids[i], user.id(), task.getDescription()));
+            }
+            jdbcTemplate.batchUpdate(INSERT_TASK, rows);
+            jdbcTemplate.update(INSERT_REVISION, rev, instant.toEpochMilli(), now, user.username());
+            jdbcTemplate.batchUpdate(INSERT_TASK_AUD, auditRows);
+            eventPublisher.publishEvent(new TaskIndexEvent(documents, List.of()));
+        });
+    }
+
+    private long[] nextTaskIds(int count) {
+        long increment = taskSeqIncrement();
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i += increment) {
+            long hi = jdbcTemplate.queryForObject(NEXT_TASK_ID, Long.class);
+            for (int j = 0; j < increment && i + j < count; j++) {
+                ids[i + j] = hi - increment + 1 + j;
+            }
+        }
+        return ids;
+    }
+
+    /** Timestamp columns keep utc time, as Hibernate writes {@link Instant}. */
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    /** Read on first import, as the migrations have run by then. */
+    private long taskSeqIncrement() {
+        if (taskSeqIncrement == 0) {
+            taskSeqIncrement = jdbcTemplate.queryForObject(TASK_SEQ_INCREMENT, Long.class);
+        }
+        return taskSeqIncrement;
+    }
+
+
+
+    /** State of one import: the current batch and the report. */
+    private class Import {
+
+        private final UserIdentity user;
+        private final List<CreateTaskDto> batch = new ArrayList<>(batchSize);
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        Import(UserIdentity user) {
+            this.user = user;
+        }
+
+        void add(int line, CreateTaskDto task) {
+            String error = validate(task);
+            if (error != null) {
+                reject(line, error);
+                return;
+            }
+            batch.add(task);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void reject(int line, String error) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportErrorDto(line, error));
+            }
+        }
+
+        void flush() {
+            if (!batch.isEmpty()) {
+                insert(user, batch);
+                imported += batch.size();
+                batch.clear();
+            }
+        }
+    }
+
+
+
+    /**
+     * Lines without their terminator ({@code \n} or {@code \r\n}). Only {@code maxLength} characters of a line
+     * are kept: the rest of a longer line is skipped and {@link #tooLong} is set.
+     */
+    private static class LineReader {
+
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private boolean tooLong;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /** @return null at the end of the text */
+        String next() throws IOException {
+            StringBuilder line = new StringBuilder();
+            boolean empty = true;
+            tooLong = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(reader.read(buffer), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        return empty ? null : end(line);
+                    }
+                }
+                char c = buffer[position++];
+                empty = false;
+                if (c == '\n') {
+                    return end(line);
+                }
+                if (line.length() <= maxLength) {
+                    line.append(c);
+                } else {
+                    tooLong = true;
+                }
+            }
+        }
+
+        private String end(StringBuilder line) {
+            if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            if (line.length() > maxLength) {
+                tooLong = true;
+                line.setLength(maxLength);
+            }
+            return line.toString();
+        }
+    }
+
+
+
+    /**
+     * Rfc 4180 records: quoted values may have commas, doubled quotes and line breaks. Values of a record longer
+     * than {@code maxLength} characters are dropped, it's read to its end, or to the end of a line which is too
+     * long itself, as the quotes of the skipped part are unknown.
+     */
+    private static class CsvReader {
+
+        private final LineReader reader;
+        private final int maxLength;
+        private int line;
+        private int recordLine;
+        private boolean tooLong;
+
+        CsvReader(LineReader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        List<String> next() throws IOException {
+            String text = reader.next();
+            if (text == null) {
+                return null;
+            }
+            recordLine = ++line;
+            tooLong = reader.tooLong;
+            int length = text.length();
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted || reader.tooLong) {
+                        break;
+                    }
+                    text = reader.next();
+                    if (text == null) {
+                        break;
+                    }
+                    line++;
+                    length += text.length() + 1;
+                    if (reader.tooLong || length > maxLength) {
+                        tooLong = true;
+                    }
+                    if (tooLong) {
+                        values.clear();
+                        value.setLength(0);
+                    }
+                    value.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+}
@@ -7,36 +7,65 @@ import lepdv.todolistrest.dto.task.ResponseTaskDto;
 import lepdv.todolistrest.dto.user.UserDto;
 import lepdv.todolistrest.entity.Task;
 import lepdv.todolistrest.entity.User;
-import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 
 @Component
-@RequiredArgsConstructor
 public class Mapper {
 
-    private final ModelMapper modelMapper;
-
 
 
 
     public User mapToUser(RegisterDto registerDto) {
-        return modelMapper.map(registerDto, User.class);
+        return User.builder()
+                .username(registerDto.getUsername())
+                .password(registerDto.getPassword())
+                .fullName(registerDto.getFullName())
+                .dateOfBirth(registerDto.getDateOfBirth())
+                .build();
     }
 
     public UserDto mapToUserDto(User user) {
-        return modelMapper.map(user, UserDto.class);
+        return UserDto.builder()
+                .username(user.getUsername())
+                .fullName(user.getFullName())
+                .dateOfBirth(user.getDateOfBirth())
+                .build();
     }
 
     public UserForAdminDto mapToUserForAdminDto(User user) {
-        return modelMapper.map(user, UserForAdminDto.class);
+        return UserForAdminDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .fullName(user.getFullName())
+                .dateOfBirth(user.getDateOfBirth())
+                .role(user.getRole() == null ? null : user.getRole().name())
+                .isNonLocked(user.getIsNonLocked())
+                .build();
     }
 
-    public Task mapToTask(CreateTaskDto createTaskDto) { return modelMapper.map(createTaskDto, Task.class); }
+    public Task mapToTask(CreateTaskDto createTaskDto) {
+        return Task.builder()
+                .description(createTaskDto.getDescription())
+                .dueDate(createTaskDto.getDueDate())
+                .build();
+    }
 
     public ResponseTaskDto mapToResponseTaskDto(Task task) {
-        return modelMapper.map(task, ResponseTaskDto.class);
+        return mapToResponseTaskDto(task, task.getUser() == null ? null : task.getUser().getUsername());
+    }
+
+    /**
+     * Use when the owner's username is already known, so that a lazy {@code task.user} is not loaded.
+     */
+    public ResponseTaskDto mapToResponseTaskDto(Task task, String username) {
+        return new ResponseTaskDto(
+                task.getId(),
+                task.getDescription(),
+                task.getDateOfCreation(),
+                task.getDueDate(),
+                task.getStatus() == null ? null : task.getStatus().getLabel(),
+                username);
     }
 
 
@@ -0,0 +1,70 @@
+package lepdv.todolistrest.repository;
+
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+
+/**
+ * Hashes of refresh tokens in {@code refresh_token}, plain jdbc: a token is looked up by its primary key
+ * together with the fields of the user which the access token needs. Timestamp columns keep utc time.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenRepository {
+
+    private static final String INSERT = "INSERT INTO refresh_token (token_hash, user_id, expires_at, create_at) " +
+            "VALUES (?, ?, ?, ?)";
+    private static final String FIND_USER = "SELECT u.id, u.username, u.role, u.is_non_locked " +
+            "FROM refresh_token rt JOIN users u ON u.id = rt.user_id " +
+            "WHERE rt.token_hash = ? AND rt.expires_at > ?";
+    private static final String DELETE = "DELETE FROM refresh_token WHERE token_hash = ?";
+    private static final String DELETE_BY_USER_ID = "DELETE FROM refresh_token WHERE user_id = ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM refresh_token WHERE expires_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+
+    public void save(String tokenHash, Long userId, Instant expiresAt, Instant createAt) {
+        jdbcTemplate.update(INSERT, tokenHash, userId, toUtc(expiresAt), toUtc(createAt));
+    }
+
+    /** The user of a token which isn't expired at {@code now}, with id, username, role and lock state only. */
+    public Optional<User> findUserByTokenHash(String tokenHash, Instant now) {
+        return jdbcTemplate.query(FIND_USER, (rs, rowNum) -> User.builder()
+                        .id(rs.getLong("id"))
+                        .username(rs.getString("username"))
+                        .role(Role.valueOf(rs.getString("role")))
+                        .isNonLocked(rs.getBoolean("is_non_locked"))
+                        .build(),
+                tokenHash, toUtc(now)).stream().findFirst();
+    }
+
+    /** @return false if there was no such token (e.g. it has just been rotated by a concurrent request) */
+    public boolean delete(String tokenHash) {
+        return jdbcTemplate.update(DELETE, tokenHash) > 0;
+    }
+
+    public int deleteAllByUserId(Long userId) {
+        return jdbcTemplate.update(DELETE_BY_USER_ID, userId);
+    }
+
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update(DELETE_EXPIRED, toUtc(now));
+    }
+
+
+
+    private static Timestamp toUtc(Instant instant) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(instant, ZoneOffset.UTC));
+    }
+}
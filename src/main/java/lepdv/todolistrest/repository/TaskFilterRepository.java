@@ -0,0 +1,19 @@
+package lepdv.todolistrest.repository;
+
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.dto.task.TaskSort;
+import lepdv.todolistrest.entity.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+
+/**
+ * Fragment of {@link TaskRepository}: tasks matching a {@link Specification}, read by projection
+ * straight to dto like the other listings.
+ */
+public interface TaskFilterRepository {
+
+    List<ResponseTaskDto> findAllDto(Specification<Task> specification, TaskSort sort, int offset, int limit);
+
+}
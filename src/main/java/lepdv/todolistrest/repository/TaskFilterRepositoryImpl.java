@@ -0,0 +1,51 @@
+package lepdv.todolistrest.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.dto.task.TaskSort;
+import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+
+@RequiredArgsConstructor
+public class TaskFilterRepositoryImpl implements TaskFilterRepository {
+
+    private final EntityManager entityManager;
+
+
+
+    @Override
+    public List<ResponseTaskDto> findAllDto(Specification<Task> specification, TaskSort sort, int offset, int limit) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        JpaCriteriaQuery<ResponseTaskDto> query = cb.createQuery(ResponseTaskDto.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> user = task.join("user");
+        query.select(cb.construct(ResponseTaskDto.class, new Selection<?>[]{task.get("id"), task.get("description"),
+                task.get("dateOfCreation"), task.get("dueDate"), task.get("status"), user.get("username")}));
+
+        Predicate predicate = specification.toPredicate(task, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort == TaskSort.DUE_DATE) {
+            query.orderBy(cb.asc(task.get("dueDate"), false), cb.asc(task.get("id")));
+        } else {
+            query.orderBy(cb.asc(task.get("id")));
+        }
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
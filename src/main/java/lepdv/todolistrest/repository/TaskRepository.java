@@ -1,26 +1,71 @@
 package lepdv.todolistrest.repository;
 
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
 import lepdv.todolistrest.entity.Task;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.history.RevisionRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface TaskRepository extends JpaRepository<Task, Long>,
-                 RevisionRepository<Task, Long, Integer> {
+                 RevisionRepository<Task, Long, Integer>,
+                 TaskFilterRepository {
 
     //    List<Task> findAllByOrderByUser(Pageable pageable);
 
     @Query(value = "select t " +
-            "from Task t join User u on t.user.id = u.id " +
+            "from Task t join fetch t.user u " +
             "order by u.username, t.id")
     List<Task> findAllBy(Pageable pageable);
 
+    @Query(value = "select t " +
+            "from Task t join fetch t.user u " +
+            "where u.username > :username or (u.username = :username and t.id > :id) " +
+            "order by u.username, t.id")
+    List<Task> findAllAfter(@Param("username") String username, @Param("id") Long id, Pageable pageable);
+
+
+    /*
+     * Read-only projections: rows go straight to dto, without managed entities in persistence context.
+     */
+    @Query(value = "select new lepdv.todolistrest.dto.task.ResponseTaskDto(" +
+            "t.id, t.description, t.dateOfCreation, t.dueDate, t.status, u.username) " +
+            "from Task t join t.user u " +
+            "where u.id = :userId " +
+            "order by t.id")
+    List<ResponseTaskDto> findAllDtoByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = "select new lepdv.todolistrest.dto.task.ResponseTaskDto(" +
+            "t.id, t.description, t.dateOfCreation, t.dueDate, t.status, u.username) " +
+            "from Task t join t.user u " +
+            "where u.id = :userId and t.id > :id " +
+            "order by t.id")
+    List<ResponseTaskDto> findAllDtoByUserIdAfter(@Param("userId") Long userId, @Param("id") Long id,
+                                                  Pageable pageable);
+
+    @Query(value = "select new lepdv.todolistrest.dto.task.ResponseTaskDto(" +
+            "t.id, t.description, t.dateOfCreation, t.dueDate, t.status, u.username) " +
+            "from Task t join t.user u " +
+            "where t.id = :id")
+    Optional<ResponseTaskDto> findDtoById(@Param("id") Long id);
+
+    @Query(value = "select new lepdv.todolistrest.dto.task.ResponseTaskDto(" +
+            "t.id, t.description, t.dateOfCreation, t.dueDate, t.status, u.username) " +
+            "from Task t join t.user u " +
+            "where t.id = :id and u.id = :userId")
+    Optional<ResponseTaskDto> findDtoByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
-    List<Task> findAllByUserIdOrderById(Long id, Pageable pageable);
+    @Query(value = "select new lepdv.todolistrest.dto.task.ResponseTaskDto(" +
+            "t.id, t.description, t.dateOfCreation, t.dueDate, t.status, u.username) " +
+            "from Task t join t.user u " +
+            "where t.id in :ids and u.id = :userId")
+    List<ResponseTaskDto> findAllDtoByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
 
 
 }
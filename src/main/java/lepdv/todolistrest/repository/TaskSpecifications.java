@@ -0,0 +1,85 @@
+package lepdv.todolistrest.repository;
+
+import lepdv.todolistrest.dto.task.TaskFilter;
+import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.TaskStatus;
+import lepdv.todolistrest.util.PageCursor;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+
+/**
+ * Conditions of task queries. {@link #of(Long, TaskFilter)} adds only the conditions which are set,
+ * so every combination of filters is a query of its own shape which the indexes of changelog 6.0 serve.
+ */
+@UtilityClass
+public class TaskSpecifications {
+
+    public Specification<Task> of(Long userId, TaskFilter filter) {
+        Specification<Task> specification = ofUser(userId);
+        if (filter.getStatus() != null) {
+            specification = specification.and(hasStatus(filter.getStatus()));
+        }
+        if (filter.getDueBefore() != null) {
+            specification = specification.and(dueBefore(filter.getDueBefore()));
+        }
+        if (filter.getDueAfter() != null) {
+            specification = specification.and(dueAfter(filter.getDueAfter()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            specification = specification.and(createdFrom(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            specification = specification.and(createdTo(filter.getCreatedTo()));
+        }
+        return specification;
+    }
+
+    public Specification<Task> ofUser(Long userId) {
+        return (task, query, cb) -> cb.equal(task.get("user").get("id"), userId);
+    }
+
+    public Specification<Task> hasStatus(TaskStatus status) {
+        return (task, query, cb) -> cb.equal(task.get("status"), status);
+    }
+
+    public Specification<Task> dueBefore(LocalDate date) {
+        return (task, query, cb) -> cb.lessThan(task.get("dueDate"), date);
+    }
+
+    public Specification<Task> dueAfter(LocalDate date) {
+        return (task, query, cb) -> cb.greaterThan(task.get("dueDate"), date);
+    }
+
+    public Specification<Task> createdFrom(LocalDate date) {
+        return (task, query, cb) -> cb.greaterThanOrEqualTo(task.get("dateOfCreation"), date);
+    }
+
+    public Specification<Task> createdTo(LocalDate date) {
+        return (task, query, cb) -> cb.lessThanOrEqualTo(task.get("dateOfCreation"), date);
+    }
+
+    /** Tasks which follow the cursor in order (id). */
+    public Specification<Task> afterId(PageCursor cursor) {
+        return (task, query, cb) -> cb.greaterThan(task.get("id"), cursor.id());
+    }
+
+    /**
+     * Tasks which follow the cursor in order (dueDate nulls last, id).
+     * Cursor without due date points into the tail of tasks without due date.
+     */
+    public Specification<Task> afterDueDate(PageCursor cursor) {
+        return (task, query, cb) -> {
+            if (cursor.dueDate() == null) {
+                return cb.and(cb.isNull(task.get("dueDate")), cb.greaterThan(task.get("id"), cursor.id()));
+            }
+            return cb.or(
+                    cb.greaterThan(task.get("dueDate"), cursor.dueDate()),
+                    cb.and(cb.equal(task.get("dueDate"), cursor.dueDate()),
+                            cb.greaterThan(task.get("id"), cursor.id())),
+                    cb.isNull(task.get("dueDate")));
+        };
+    }
+}
@@ -17,6 +17,8 @@ public interface UserRepository extends JpaRepository<User, Long>,
 
     List<User> findAllByOrderByUsername(Pageable pageable);
 
+    List<User> findAllByUsernameGreaterThanOrderByUsername(String username, Pageable pageable);
+
 
 
 
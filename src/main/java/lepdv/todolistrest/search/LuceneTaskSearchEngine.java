@@ -0,0 +1,230 @@
+package lepdv.todolistrest.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+/**
+ * Embedded Lucene index of task descriptions, ranked by BM25. The index is kept in
+ * {@code search.lucene.directory} (in memory when it's empty) and follows {@link TaskIndexEvent}s
+ * of committed transactions. Tasks written past the service (sql scripts, other instances) are picked up
+ * by {@link #reindex()}, which runs on start unless {@code search.lucene.rebuild-on-start} is off.
+ * <p>
+ * Changes are applied to the writer and made visible by a near-real-time refresh, the index is committed
+ * (synced to disk) by {@code search.lucene.commit.cron} and on close, so task writes don't wait for it.
+ * Changes lost in a crash before commit are restored by the reindex on start. Failed changes are logged and
+ * counted in {@code search.index.failures}, the task write itself is already committed.
+ * Changes share the read side of a {@link ReentrantReadWriteLock}, reindex takes the write side; a
+ * {@code java.util.concurrent} lock rather than a monitor, which would pin virtual threads during index I/O.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "lucene", matchIfMissing = true)
+public class LuceneTaskSearchEngine implements TaskSearchEngine, DisposableBean {
+
+    private static final String ID = "id";
+    private static final String USER_ID = "userId";
+    private static final String DESCRIPTION = "description";
+    private static final int REINDEX_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean rebuildOnStart;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Counter indexFailures;
+
+
+
+    public LuceneTaskSearchEngine(JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${search.lucene.directory:}") String directory,
+                                  @Value("${search.lucene.rebuild-on-start:true}") boolean rebuildOnStart)
+            throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildOnStart = rebuildOnStart;
+        this.directory = directory.isBlank()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Files.createDirectories(Path.of(directory)));
+        this.writer = new IndexWriter(this.directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.indexFailures = Counter.builder("search.index.failures").register(meterRegistry);
+    }
+
+
+
+    @Override
+    public List<Long> search(Long userId, String text, int offset, int limit) {
+        BooleanQuery.Builder words = new BooleanQuery.Builder();
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        terms.forEach(term -> words.add(new TermQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD));
+        Query query = new BooleanQuery.Builder()
+                .add(words.build(), BooleanClause.Occur.MUST)
+                .add(new TermQuery(new Term(USER_ID, userId.toString())), BooleanClause.Occur.FILTER)
+                .build();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc[] hits = searcher.search(query, offset + limit).scoreDocs;
+                List<Long> ids = new ArrayList<>(limit);
+                for (int i = offset; i < hits.length; i++) {
+                    ids.add(Long.valueOf(searcher.storedFields().document(hits[i].doc).get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "lucene";
+    }
+
+
+
+    @TransactionalEventListener
+    public void onTaskIndexEvent(TaskIndexEvent event) {
+        lock.readLock().lock();
+        try {
+            for (TaskIndexEvent.Document task : event.saved()) {
+                writer.updateDocument(new Term(ID, task.id().toString()), document(task));
+            }
+            for (Long id : event.deleted()) {
+                writer.deleteDocuments(new Term(ID, id.toString()));
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            indexFailures.increment();
+            log.error("Search index wasn't updated for tasks saved={}, deleted={}, it's fixed by reindex",
+                    event.saved().stream().map(TaskIndexEvent.Document::id).toList(), event.deleted(), e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(cron = "${search.lucene.commit.cron:*/10 * * * * *}")
+    public void commit() {
+        lock.readLock().lock();
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            indexFailures.increment();
+            log.error("Search index wasn't committed", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() throws IOException {
+        if (rebuildOnStart) {
+            reindex();
+        }
+    }
+
+    /** Rebuilds the index from the task table. */
+    public void reindex() throws IOException {
+        lock.writeLock().lock();
+        try {
+            writer.deleteAll();
+            jdbcTemplate.query(con -> {
+                PreparedStatement statement = con.prepareStatement("SELECT id, user_id, description FROM task");
+                statement.setFetchSize(REINDEX_FETCH_SIZE);
+                return statement;
+            }, resultSet -> {
+                try {
+                    writer.addDocument(document(new TaskIndexEvent.Document(resultSet.getLong(1),
+                            resultSet.getLong(2), resultSet.getString(3))));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index of {} tasks was rebuilt", writer.getDocStats().numDocs);
+    }
+
+    /** Closing the writer commits changes since the last commit. */
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+
+
+    private Document document(TaskIndexEvent.Document task) {
+        Document document = new Document();
+        document.add(new StringField(ID, task.id().toString(), Field.Store.YES));
+        document.add(new StringField(USER_ID, task.userId().toString(), Field.Store.NO));
+        if (task.description() != null) {
+            document.add(new TextField(DESCRIPTION, task.description(), Field.Store.NO));
+        }
+        return document;
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(DESCRIPTION, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,38 @@
+package lepdv.todolistrest.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+
+/**
+ * Search by PostgreSQL full-text match, ranked by {@code ts_rank}. The expression is the one of
+ * the GIN index {@code task_description_fts_idx}, so the index stays in sync with the table by itself.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresTaskSearchEngine implements TaskSearchEngine {
+
+    private static final String SEARCH = "SELECT t.id FROM task t, plainto_tsquery('simple', ?) q " +
+            "WHERE t.user_id = ? AND to_tsvector('simple', t.description) @@ q " +
+            "ORDER BY ts_rank(to_tsvector('simple', t.description), q) DESC, t.id " +
+            "LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+
+    @Override
+    public List<Long> search(Long userId, String text, int offset, int limit) {
+        return jdbcTemplate.queryForList(SEARCH, Long.class, text, userId, limit, offset);
+    }
+
+    @Override
+    public String name() {
+        return "postgres";
+    }
+}
@@ -0,0 +1,40 @@
+package lepdv.todolistrest.search;
+
+import lepdv.todolistrest.entity.Task;
+
+import java.util.List;
+
+
+/**
+ * Tasks created, updated or deleted by a transaction, published by {@link lepdv.todolistrest.service.TaskService}
+ * and {@link lepdv.todolistrest.export.TaskImporter}.
+ * Engines with their own index apply it after commit.
+ */
+public record TaskIndexEvent(List<Document> saved, List<Long> deleted) {
+
+    public static TaskIndexEvent of(List<Task> saved, List<Long> deleted) {
+        return new TaskIndexEvent(saved.stream().map(Document::of).toList(), deleted);
+    }
+
+    public static TaskIndexEvent saved(List<Task> tasks) {
+        return of(tasks, List.of());
+    }
+
+    public static TaskIndexEvent deleted(List<Long> ids) {
+        return of(List.of(), ids);
+    }
+
+    public boolean isEmpty() {
+        return saved.isEmpty() && deleted.isEmpty();
+    }
+
+
+
+    /** Indexed fields of a task. */
+    public record Document(Long id, Long userId, String description) {
+
+        static Document of(Task task) {
+            return new Document(task.getId(), task.getUser().getId(), task.getDescription());
+        }
+    }
+}
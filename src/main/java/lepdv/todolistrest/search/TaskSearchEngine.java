@@ -0,0 +1,18 @@
+package lepdv.todolistrest.search;
+
+import java.util.List;
+
+
+/**
+ * Full-text search over descriptions of tasks of one user.
+ * Engine is chosen by {@code search.engine} property.
+ */
+public interface TaskSearchEngine {
+
+    /** Ids of matching tasks, the most relevant first. */
+    List<Long> search(Long userId, String text, int offset, int limit);
+
+    /** Name of the engine, the tag of search metrics. */
+    String name();
+
+}
@@ -0,0 +1,18 @@
+package lepdv.todolistrest.security;
+
+import lepdv.todolistrest.entity.Role;
+
+import java.security.Principal;
+
+
+/**
+ * Principal which {@link JWTFilter} builds from the claims of jwt token.
+ * {@code id} is null for tokens issued before the claim was added.
+ */
+public record AuthPrincipal(Long id, String username, Role role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
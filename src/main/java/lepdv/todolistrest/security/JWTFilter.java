@@ -8,6 +8,10 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lepdv.todolistrest.cache.UserIdentity;
+import lepdv.todolistrest.cache.UserIdentityCache;
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,14 +22,24 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 
+/**
+ * Authenticates requests by jwt token. Lock state isn't in the token: it's checked per request in
+ * {@link UserIdentityCache}, which locking invalidates, so a lock takes effect with the next request.
+ * The checked identity is kept as details of the authentication, services read it by
+ * {@link lepdv.todolistrest.util.AuthUser#getAuthIdentity()}. Tokens of deleted users leave the request
+ * unauthenticated.
+ */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class JWTFilter extends OncePerRequestFilter {
 
     private final JWTUtil jwtUtil;
+    private final UserIdentityCache userIdentityCache;
+    private final UserRepository userRepository;
 
 
     @Override
@@ -37,16 +51,30 @@ public class JWTFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
             try {
-                String username = jwtUtil.validateAndRetrieveUsername(jwt);
-                List<SimpleGrantedAuthority> roles = jwtUtil.validateAndRetrieveRoles(jwt)
-                        .stream()
+                JwtClaims claims = jwtUtil.validateAndDecode(jwt);
+                List<String> roleList = claims.roles();
+                List<SimpleGrantedAuthority> roles = roleList.stream()
                         .map(SimpleGrantedAuthority::new)
                         .toList();
 
                 if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            username, null, roles);
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    Optional<UserIdentity> identity = userIdentityCache.get(claims.username(),
+                            username -> userRepository.findByUsername(username).map(UserIdentity::of));
+                    if (identity.isPresent() && !identity.get().isNonLocked()) {
+                        response.sendError(HttpServletResponse.SC_FORBIDDEN, "User is locked");
+                        log.info("Request of locked user username={} was rejected", claims.username());
+                        return;
+                    }
+                    if (identity.isPresent()) {
+                        AuthPrincipal principal = new AuthPrincipal(claims.userId(), claims.username(),
+                                roleList.isEmpty() ? null : Role.valueOf(roleList.get(0)));
+                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                                principal, null, roles);
+                        authToken.setDetails(identity.get());
+                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                    } else {
+                        log.info("Jwt token of username={}, who doesn't exist anymore", claims.username());
+                    }
                 }
             } catch (ExpiredJwtException e) {
                 response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Lifetime of jwt token is expired");
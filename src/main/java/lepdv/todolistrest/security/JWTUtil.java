@@ -3,22 +3,26 @@ package lepdv.todolistrest.security;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import lepdv.todolistrest.service.UserService;
-import lombok.RequiredArgsConstructor;
+import lepdv.todolistrest.entity.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 @Component
 @PropertySource("classpath:variables.properties")
-@RequiredArgsConstructor
 public class JWTUtil {
 
     @Value("${jwt.secret}")
@@ -26,14 +30,21 @@ public class JWTUtil {
 
     @Value("${jwt.lifetime}")
     private Long amount;
-    private final UserService userService;
 
+    /** Max count of verified tokens kept in memory, 0 disables the cache. */
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+    private final Map<String, JwtClaims> verifiedTokens = new ConcurrentHashMap<>();
 
 
-    public String generateToken(String username) {
 
-        UserDetails userDetails = userService.loadUserByUsername(username);
-        List<String> roleList = userDetails.getAuthorities().stream()
+    /**
+     * Issues token for the user which is already loaded (authenticated principal or just registered user),
+     * so issuing costs no database queries.
+     */
+    public String generateToken(User user) {
+
+        List<String> roleList = user.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .toList();
         Date issuedDate = new Date();
@@ -41,7 +52,8 @@ public class JWTUtil {
         Date expirationDate = new Date(issuedDate.getTime() + duration.toMillis());
 
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(user.getUsername())
+                .claim("id", user.getId())
                 .claim("roles", roleList)
                 .setIssuedAt(issuedDate)
                 .setExpiration(expirationDate)
@@ -51,15 +63,43 @@ public class JWTUtil {
     }
 
 
+    /**
+     * Verifies the signature and expiration of jwt token once and returns all its claims.
+     * Claims of verified tokens are kept (keyed by SHA-256 of the token) until the token expires,
+     * so repeated requests with the same token skip parsing and HMAC computation.
+     */
+    public JwtClaims validateAndDecode(String jwt) {
+        String key = sha256(jwt);
+        JwtClaims cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.expiration().isAfter(Instant.now())) {
+                return cached;
+            }
+            verifiedTokens.remove(key);
+        }
+
+        Claims claims = getAllClaims(jwt);
+        Number id = claims.get("id", Number.class);
+        List<?> roles = claims.get("roles", List.class);
+        JwtClaims jwtClaims = new JwtClaims(
+                claims.getSubject(),
+                id == null ? null : id.longValue(),
+                roles == null ? List.of() : roles.stream().map(String::valueOf).toList(),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
+        cacheVerified(key, jwtClaims);
+        return jwtClaims;
+    }
+
     public String validateAndRetrieveUsername(String jwt) {
-        return getAllClaims(jwt).getSubject();
+        return validateAndDecode(jwt).username();
+    }
+
+    public Long validateAndRetrieveUserId(String jwt) {
+        return validateAndDecode(jwt).userId();
     }
 
     public List<String> validateAndRetrieveRoles(String jwt) {
-        List<?> roles = getAllClaims(jwt).get("roles", List.class);
-        return roles.stream()
-                .map(String::valueOf)
-                .toList();
+        return validateAndDecode(jwt).roles();
     }
 
     private Claims getAllClaims(String jwt) {
@@ -69,6 +109,32 @@ public class JWTUtil {
                 .getBody();
     }
 
+    /**
+     * The cache is bounded by lifetime of tokens: when it is full, expired tokens are dropped,
+     * and if there are none, the new token is just not cached.
+     */
+    private void cacheVerified(String key, JwtClaims jwtClaims) {
+        if (verifiedCacheMaxSize <= 0 || jwtClaims.expiration() == null) {
+            return;
+        }
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            Instant now = Instant.now();
+            verifiedTokens.values().removeIf(claims -> !claims.expiration().isAfter(now));
+        }
+        if (verifiedTokens.size() < verifiedCacheMaxSize) {
+            verifiedTokens.put(key, jwtClaims);
+        }
+    }
+
+    private static String sha256(String jwt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jwt.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
 
 //    public String generateToken(String username) {
 //
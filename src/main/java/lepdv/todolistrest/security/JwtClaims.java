@@ -0,0 +1,16 @@
+package lepdv.todolistrest.security;
+
+import java.time.Instant;
+import java.util.List;
+
+
+/**
+ * Claims of jwt token which passed signature verification in {@link JWTUtil#validateAndDecode(String)}.
+ * {@code userId} is null for tokens issued before the claim was added.
+ */
+public record JwtClaims(String username, Long userId, List<String> roles, Instant expiration) {
+
+    public JwtClaims {
+        roles = List.copyOf(roles);
+    }
+}
@@ -0,0 +1,254 @@
+package lepdv.todolistrest.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lepdv.todolistrest.exception.TooManyLoginAttemptsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+
+/**
+ * In-memory token buckets of login attempts, one per username and one per client ip.
+ * <p>
+ * A login takes a token from both buckets before the user is loaded and the password is checked, and gives
+ * them back when it succeeds, so only failed attempts drain the buckets while a parallel burst is still
+ * bounded. An attempt without tokens is rejected with {@link TooManyLoginAttemptsException} (429).
+ * A bucket gets a token back every {@code refill-period} up to its {@code capacity}.
+ * <p>
+ * Buckets are guarded by a fixed set of locks chosen by hash of the key. A bucket idle for
+ * {@code idle-timeout} is full again and is dropped by a sweep, which runs at most once per tenth of it.
+ * Usernames and ips are kept apart, up to {@code max-buckets} of each: while one kind is full, its new keys
+ * are let through untracked (counted as {@code result=untracked}), but are still limited by the other kind.
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+
+    private static final int SWEEPS_PER_IDLE_TIMEOUT = 10;
+
+    private final Map<String, Bucket> usernameBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks;
+    private final boolean enabled;
+    private final Limit usernameLimit;
+    private final Limit ipLimit;
+    private final long idleNanos;
+    private final long sweepNanos;
+    private final int maxBuckets;
+    private final LongSupplier nanoClock;
+    private final AtomicLong lastSweep;
+    private final Map<String, Counter> counters = new HashMap<>();
+
+
+
+    @Autowired
+    public LoginRateLimiter(@Value("${login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${login.rate-limit.username.capacity:5}") int usernameCapacity,
+                            @Value("${login.rate-limit.username.refill-period:1m}") Duration usernameRefillPeriod,
+                            @Value("${login.rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${login.rate-limit.ip.refill-period:3s}") Duration ipRefillPeriod,
+                            @Value("${login.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                            @Value("${login.rate-limit.max-buckets:100000}") int maxBuckets,
+                            @Value("${login.rate-limit.lock-stripes:64}") int lockStripes,
+                            MeterRegistry meterRegistry) {
+        this(enabled, new Limit("username", usernameCapacity, usernameRefillPeriod),
+                new Limit("ip", ipCapacity, ipRefillPeriod), idleTimeout, maxBuckets, lockStripes,
+                meterRegistry, System::nanoTime);
+    }
+
+    public LoginRateLimiter(boolean enabled, Limit usernameLimit, Limit ipLimit, Duration idleTimeout,
+                            int maxBuckets, int lockStripes, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.usernameLimit = usernameLimit;
+        this.ipLimit = ipLimit;
+        this.idleNanos = Math.max(idleTimeout.toNanos(),
+                Math.max(usernameLimit.fullRefillNanos(), ipLimit.fullRefillNanos()));
+        this.sweepNanos = idleNanos / SWEEPS_PER_IDLE_TIMEOUT;
+        this.maxBuckets = maxBuckets;
+        this.locks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.nanoClock = nanoClock;
+        this.lastSweep = new AtomicLong(nanoClock.getAsLong());
+        for (Limit limit : List.of(usernameLimit, ipLimit)) {
+            for (String result : List.of("allowed", "rejected", "untracked")) {
+                counters.put(limit.kind() + ':' + result, Counter.builder("login.rate-limit.attempts")
+                        .tag("key", limit.kind())
+                        .tag("result", result)
+                        .register(meterRegistry));
+            }
+        }
+        meterRegistry.gaugeMapSize("login.rate-limit.buckets", Tags.of("key", usernameLimit.kind()),
+                usernameBuckets);
+        meterRegistry.gaugeMapSize("login.rate-limit.buckets", Tags.of("key", ipLimit.kind()), ipBuckets);
+    }
+
+
+
+    /**
+     * Takes a token of the username and of the client ip.
+     * @throws TooManyLoginAttemptsException if either of them has none left
+     */
+    public void acquire(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long sweptAt = lastSweep.get();
+        if (now - sweptAt >= sweepNanos && lastSweep.compareAndSet(sweptAt, now)) {
+            sweep(usernameLimit, now);
+            sweep(ipLimit, now);
+        }
+        long ipWait = take(ipLimit, clientIp, now);
+        if (ipWait > 0) {
+            throw rejected(ipWait);
+        }
+        long usernameWait = take(usernameLimit, username, now);
+        if (usernameWait > 0) {
+            giveBack(ipLimit, clientIp);
+            throw rejected(usernameWait);
+        }
+    }
+
+    /** Gives back the tokens taken by {@link #acquire} of a successful login. */
+    public void onSuccess(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        giveBack(ipLimit, clientIp);
+        giveBack(usernameLimit, username);
+    }
+
+    public int size() {
+        return usernameBuckets.size() + ipBuckets.size();
+    }
+
+
+
+    /** @return 0 if a token was taken, otherwise nanos until the next token */
+    private long take(Limit limit, String key, long now) {
+        Map<String, Bucket> buckets = bucketsOf(limit);
+        ReentrantLock lock = lockOf(limit, key);
+        lock.lock();
+        try {
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxBuckets) {
+                    count(limit, "untracked");
+                    return 0;
+                }
+                bucket = new Bucket(limit.capacity(), now);
+                buckets.put(key, bucket);
+            }
+            bucket.refill(limit, now);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                bucket.limited = false;
+                count(limit, "allowed");
+                return 0;
+            }
+            if (!bucket.limited) {
+                bucket.limited = true;
+                log.warn("Login attempts of {} {} are limited", limit.kind(), key);
+            }
+            count(limit, "rejected");
+            return Math.max(1, (long) ((1 - bucket.tokens) * limit.refillNanos()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void giveBack(Limit limit, String key) {
+        ReentrantLock lock = lockOf(limit, key);
+        lock.lock();
+        try {
+            Bucket bucket = bucketsOf(limit).get(key);
+            if (bucket != null) {
+                bucket.tokens = Math.min(limit.capacity(), bucket.tokens + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Buckets whose lock is busy are skipped, they are in use and aren't idle anyway. */
+    private void sweep(Limit limit, long now) {
+        Map<String, Bucket> buckets = bucketsOf(limit);
+        buckets.forEach((key, bucket) -> {
+            ReentrantLock lock = lockOf(limit, key);
+            if (!lock.tryLock()) {
+                return;
+            }
+            try {
+                if (now - bucket.updatedAt >= idleNanos) {
+                    buckets.remove(key, bucket);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private Map<String, Bucket> bucketsOf(Limit limit) {
+        return limit == ipLimit ? ipBuckets : usernameBuckets;
+    }
+
+    private ReentrantLock lockOf(Limit limit, String key) {
+        return locks[Math.floorMod(31 * limit.kind().hashCode() + key.hashCode(), locks.length)];
+    }
+
+    private void count(Limit limit, String result) {
+        counters.get(limit.kind() + ':' + result).increment();
+    }
+
+    private static TooManyLoginAttemptsException rejected(long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new TooManyLoginAttemptsException("Too many login attempts, try again in " + seconds + " s");
+    }
+
+
+
+    /** Capacity of buckets of one kind of key and the period to get one token back. */
+    public record Limit(String kind, int capacity, Duration refillPeriod) {
+
+        long refillNanos() {
+            return refillPeriod.toNanos();
+        }
+
+        long fullRefillNanos() {
+            return refillNanos() * capacity;
+        }
+    }
+
+    /** Guarded by the lock of its key. */
+    private static final class Bucket {
+
+        private double tokens;
+        private long updatedAt;
+        private boolean limited;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+
+        private void refill(Limit limit, long now) {
+            tokens = Math.min(limit.capacity(), tokens + (double) (now - updatedAt) / limit.refillNanos());
+            updatedAt = now;
+        }
+    }
+}
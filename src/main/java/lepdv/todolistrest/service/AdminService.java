@@ -1,22 +1,31 @@
 package lepdv.todolistrest.service;
 
+import lepdv.todolistrest.cache.UserIdentityCache;
 import lepdv.todolistrest.dto.admin.UserForAdminDto;
 import lepdv.todolistrest.dto.admin.UserListDto;
 import lepdv.todolistrest.dto.auth.CredentialsDto;
+import lepdv.todolistrest.dto.revision.RevisionListDto;
+import lepdv.todolistrest.dto.revision.RevisionView;
 import lepdv.todolistrest.dto.task.ResponseTaskDto;
 import lepdv.todolistrest.dto.task.TaskListDto;
 import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.Task;
 import lepdv.todolistrest.entity.User;
 import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.export.ExportFormat;
 import lepdv.todolistrest.mapper.Mapper;
+import lepdv.todolistrest.util.PageCursor;
+import lepdv.todolistrest.util.PageLimits;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 
 @Service
@@ -28,23 +37,41 @@ public class AdminService {
 
     private final UserService userService;
     private final TaskService taskService;
+    private final RevisionService revisionService;
     private final Mapper mapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserIdentityCache userIdentityCache;
 
 
 
 
-    public UserListDto getAllUsers(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    /** Size above {@link PageLimits#MAX_PAGE_SIZE} is lowered to it. */
+    public UserListDto getAllUsers(int page, int size, String cursor) {
+        size = PageLimits.checkSize(size, PageLimits.MAX_PAGE_SIZE);
+        PageLimits.checkPage(page, size);
+        List<User> users = cursor == null
+                ? userService.getAllByPageable(PageRequest.of(page, size))
+                : userService.getAllAfter(usernameOf(PageCursor.decode(cursor)), size);
 
         UserListDto userListDto = new UserListDto();
-        userListDto.setUserList(userService.getAllByPageable(pageable)
-                .stream()
+        userListDto.setUserList(users.stream()
                 .map(mapper::mapToUserForAdminDto)
                 .toList());
+        if (users.size() == size) {
+            User last = users.get(size - 1);
+            userListDto.setNextCursor(new PageCursor(last.getId(), last.getUsername()).encode());
+        }
         return userListDto;
     }
 
+    /** Cursors of the user list carry a username, others (bare id, id with due date) don't fit it. */
+    private String usernameOf(PageCursor cursor) {
+        if (cursor.username() == null) {
+            throw new UnitedException("Invalid cursor");
+        }
+        return cursor.username();
+    }
+
 
 
     public UserForAdminDto getUserForAdminDto(Long id) {
@@ -60,6 +87,7 @@ public class AdminService {
             throw new UnitedException("You can't lock Administrator");
         }
         user.setIsNonLocked(false);
+        userIdentityCache.invalidate(user.getUsername());
         log.info("User id={}, username={} was locked", id, user.getUsername());
     }
 
@@ -69,6 +97,7 @@ public class AdminService {
     public void unlockUser(Long id) {
         User user = userService.getUser(id);
         user.setIsNonLocked(true);
+        userIdentityCache.invalidate(user.getUsername());
         log.info("User id={}, username={} was unlocked", id, user.getUsername());
     }
 
@@ -92,14 +121,22 @@ public class AdminService {
     }
 
 
-    public TaskListDto getAllTasks(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    /** Size above {@link PageLimits#MAX_PAGE_SIZE} is lowered to it. */
+    public TaskListDto getAllTasks(int page, int size, String cursor) {
+        size = PageLimits.checkSize(size, PageLimits.MAX_PAGE_SIZE);
+        PageLimits.checkPage(page, size);
+        List<Task> tasks = cursor == null
+                ? taskService.getAllByPageable(PageRequest.of(page, size))
+                : taskService.getAllAfter(PageCursor.decode(cursor), size);
         TaskListDto taskListDto = new TaskListDto();
 
-        taskListDto.setTaskList(taskService.getAllByPageable(pageable)
-                .stream()
+        taskListDto.setTaskList(tasks.stream()
                 .map(mapper::mapToResponseTaskDto)
                 .toList());
+        if (tasks.size() == size) {
+            Task last = tasks.get(size - 1);
+            taskListDto.setNextCursor(new PageCursor(last.getId(), last.getUser().getUsername()).encode());
+        }
         return taskListDto;
     }
 
@@ -109,4 +146,21 @@ public class AdminService {
     }
 
 
+
+    public StreamingResponseBody exportAllTasks(ExportFormat format) {
+        return taskService.exportAll(format);
+    }
+
+
+
+    public RevisionListDto getTaskRevisions(Long id, int size, String cursor, RevisionView view) {
+        return revisionService.getTaskRevisions(id, size, cursor, view);
+    }
+
+
+    public RevisionListDto getUserRevisions(Long id, int size, String cursor, RevisionView view) {
+        return revisionService.getUserRevisions(id, size, cursor, view);
+    }
+
+
 }
@@ -0,0 +1,132 @@
+package lepdv.todolistrest.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+
+/**
+ * Opaque refresh tokens: 32 random bytes, of which only SHA-256 is stored, so a token is checked by one
+ * primary key lookup instead of a password check. Every refresh rotates the token: the used one is deleted
+ * and a new one is issued, a token which has already been used (or rotated by a concurrent request) is rejected.
+ * <p>
+ * Tokens live {@code refresh-token.lifetime}, expired ones are purged by {@code refresh-token.purge.cron}
+ * ("-" turns it off). Tokens of a user are revoked on password change and deleted with the user.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final String INVALID_TOKEN = "Invalid refresh token";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration lifetime;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final Counter rotated;
+    private final Counter rejected;
+
+
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${refresh-token.lifetime:30d}") Duration lifetime) {
+        this(refreshTokenRepository, meterRegistry, lifetime, Clock.systemUTC());
+    }
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, MeterRegistry meterRegistry,
+                               Duration lifetime, Clock clock) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.lifetime = lifetime;
+        this.clock = clock;
+        this.rotated = Counter.builder("refresh.token.refreshes").tag("result", "rotated").register(meterRegistry);
+        this.rejected = Counter.builder("refresh.token.refreshes").tag("result", "rejected").register(meterRegistry);
+    }
+
+
+
+    @Transactional
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant now = clock.instant();
+        refreshTokenRepository.save(sha256(token), user.getId(), now.plus(lifetime), now);
+        return token;
+    }
+
+    /**
+     * Exchanges a valid refresh token for a new one.
+     * @return the user of the token (id, username, role) and the new refresh token
+     */
+    @Transactional
+    public Rotation rotate(String token) {
+        String tokenHash = sha256(token);
+        User user = refreshTokenRepository.findUserByTokenHash(tokenHash, clock.instant())
+                .orElseThrow(() -> reject(INVALID_TOKEN));
+        if (!refreshTokenRepository.delete(tokenHash)) {
+            throw reject(INVALID_TOKEN);
+        }
+        if (!user.isAccountNonLocked()) {
+            throw reject("User is locked");
+        }
+        rotated.increment();
+        return new Rotation(user, issue(user));
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        int revoked = refreshTokenRepository.deleteAllByUserId(userId);
+        log.info("{} refresh tokens of user id={} were revoked", revoked, userId);
+    }
+
+    @Scheduled(cron = "${refresh-token.purge.cron:0 15 * * * *}")
+    @Transactional
+    public int purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(clock.instant());
+        log.info("{} expired refresh tokens were purged", purged);
+        return purged;
+    }
+
+
+
+    private UnitedException reject(String message) {
+        rejected.increment();
+        return new UnitedException(message);
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
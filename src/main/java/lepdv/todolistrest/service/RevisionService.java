@@ -0,0 +1,180 @@
+package lepdv.todolistrest.service;
+
+import jakarta.persistence.EntityManager;
+import lepdv.todolistrest.dto.revision.FieldChangeDto;
+import lepdv.todolistrest.dto.revision.RevisionDto;
+import lepdv.todolistrest.dto.revision.RevisionListDto;
+import lepdv.todolistrest.dto.revision.RevisionView;
+import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.exception.NotFoundException;
+import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.repository.TaskRepository;
+import lepdv.todolistrest.repository.UserRepository;
+import lepdv.todolistrest.util.PageCursor;
+import lepdv.todolistrest.util.PageLimits;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.RevisionType;
+import org.hibernate.envers.query.AuditEntity;
+import org.hibernate.envers.query.AuditQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+
+/**
+ * History of tasks and users kept by Envers, paginated by revision number.
+ * Revisions are read with projections of {@link AuditQuery}: no entity snapshot is built,
+ * audited fields are selected only for snapshot and diff views.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class RevisionService {
+
+    private static final List<String> TASK_FIELDS = List.of("description", "dateOfCreation", "dueDate",
+            "status", "modifiedAt", "modifiedBy");
+    /** Password hash is audited, but isn't shown. */
+    private static final List<String> USER_FIELDS = List.of("username", "fullName", "dateOfBirth", "role",
+            "isNonLocked", "modifiedAt");
+    private static final int REVISION_COLUMNS = 4;
+    /** Larger page size is lowered to it. */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final EntityManager entityManager;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+
+
+
+
+    public RevisionListDto getTaskRevisions(Long id, int size, String cursor, RevisionView view) {
+        return getRevisions(Task.class, TASK_FIELDS, id, size, cursor, view,
+                taskRepository::existsById, "There is no task with id=" + id + " in database");
+    }
+
+    public RevisionListDto getUserRevisions(Long id, int size, String cursor, RevisionView view) {
+        return getRevisions(User.class, USER_FIELDS, id, size, cursor, view,
+                userRepository::existsById, "There is no user with id=" + id + " in database");
+    }
+
+
+
+    private RevisionListDto getRevisions(Class<?> entityClass, List<String> fields, Long id, int size,
+                                         String cursor, RevisionView view, Predicate<Long> exists,
+                                         String notFoundMessage) {
+        size = PageLimits.checkSize(size, MAX_PAGE_SIZE);
+        Integer after = cursor == null ? null : revisionOf(PageCursor.decode(cursor));
+        List<String> projectedFields = view == RevisionView.SUMMARY ? List.of() : fields;
+
+        AuditQuery pageQuery = revisionsQuery(entityClass, id, projectedFields)
+                .addOrder(AuditEntity.revisionNumber().asc())
+                .setMaxResults(size);
+        if (after != null) {
+            pageQuery.add(AuditEntity.revisionNumber().gt(after));
+        }
+        List<Object[]> rows = rows(pageQuery);
+        if (rows.isEmpty() && after == null && !exists.test(id)) {
+            throw new NotFoundException(notFoundMessage);
+        }
+
+        Object[] previous = view == RevisionView.DIFF && after != null && !rows.isEmpty()
+                ? previousRow(entityClass, id, projectedFields, after)
+                : null;
+        List<RevisionDto> revisions = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            revisions.add(toRevisionDto(row, previous, fields, view));
+            previous = row;
+        }
+
+        RevisionListDto revisionListDto = new RevisionListDto(revisions);
+        if (revisions.size() == size) {
+            revisionListDto.setNextCursor(PageCursor.of(revisions.get(size - 1).getRevision().longValue()).encode());
+        }
+        return revisionListDto;
+    }
+
+    /** Revision numbers are int, a larger cursor can't come from a listing. */
+    private Integer revisionOf(PageCursor cursor) {
+        try {
+            return Math.toIntExact(cursor.id());
+        } catch (ArithmeticException e) {
+            throw new UnitedException("Invalid cursor");
+        }
+    }
+
+    /** Rows of: revision number, revision type, revision time, author, then {@code fields}. */
+    private AuditQuery revisionsQuery(Class<?> entityClass, Long id, List<String> fields) {
+        AuditQuery query = AuditReaderFactory.get(entityManager).createQuery()
+                .forRevisionsOfEntity(entityClass, false, true)
+                .add(AuditEntity.id().eq(id))
+                .addProjection(AuditEntity.revisionNumber())
+                .addProjection(AuditEntity.revisionType())
+                .addProjection(AuditEntity.revisionProperty("dateTime"))
+                .addProjection(AuditEntity.revisionProperty("modifiedBy"));
+        fields.forEach(field -> query.addProjection(AuditEntity.property(field)));
+        return query;
+    }
+
+    /** Last revision up to the cursor, the base of diff for the first revision of the page. */
+    private Object[] previousRow(Class<?> entityClass, Long id, List<String> fields, Integer after) {
+        List<Object[]> rows = rows(revisionsQuery(entityClass, id, fields)
+                .add(AuditEntity.revisionNumber().le(after))
+                .addOrder(AuditEntity.revisionNumber().desc())
+                .setMaxResults(1));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> rows(AuditQuery query) {
+        return (List<Object[]>) query.getResultList();
+    }
+
+    private RevisionDto toRevisionDto(Object[] row, Object[] previous, List<String> fields, RevisionView view) {
+        RevisionType type = (RevisionType) row[1];
+        RevisionDto revisionDto = RevisionDto.builder()
+                .revision(((Number) row[0]).intValue())
+                .type(type.name())
+                .dateTime((Instant) row[2])
+                .modifiedBy((String) row[3])
+                .build();
+        if (view == RevisionView.SNAPSHOT) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                values.put(fields.get(i), row[REVISION_COLUMNS + i]);
+            }
+            revisionDto.setFields(values);
+        } else if (view == RevisionView.DIFF) {
+            revisionDto.setChanges(changes(row, previous, fields, type));
+        }
+        return revisionDto;
+    }
+
+    /** Deleted entity has no audited data, so its revision has no changes. */
+    private Map<String, FieldChangeDto> changes(Object[] row, Object[] previous, List<String> fields,
+                                                RevisionType type) {
+        Map<String, FieldChangeDto> changes = new LinkedHashMap<>();
+        if (type == RevisionType.DEL) {
+            return changes;
+        }
+        boolean fromNothing = previous == null || previous[1] == RevisionType.DEL;
+        for (int i = 0; i < fields.size(); i++) {
+            Object from = fromNothing ? null : previous[REVISION_COLUMNS + i];
+            Object to = row[REVISION_COLUMNS + i];
+            if (!Objects.equals(from, to)) {
+                changes.put(fields.get(i), new FieldChangeDto(from, to));
+            }
+        }
+        return changes;
+    }
+
+
+}
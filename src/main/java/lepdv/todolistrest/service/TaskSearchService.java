@@ -0,0 +1,78 @@
+package lepdv.todolistrest.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lepdv.todolistrest.cache.UserIdentity;
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.dto.task.TaskListDto;
+import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.repository.TaskRepository;
+import lepdv.todolistrest.search.TaskSearchEngine;
+import lepdv.todolistrest.util.PageLimits;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Full-text search over tasks of the auth user. The engine gives ranked ids, tasks are read
+ * by one projection query and put in rank order; ids the engine knows but the table doesn't are skipped.
+ * Latency of the engine and of the whole search are measured by {@code task.search} timer.
+ * Page and size are checked before the engine is called, as the engine ranks all hits up to the end of the page.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class TaskSearchService {
+
+    /** Larger page size is lowered to it. */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final TaskSearchEngine searchEngine;
+    private final TaskRepository taskRepository;
+    private final UserService userService;
+    private final MeterRegistry meterRegistry;
+
+
+
+
+    public TaskListDto search(String text, int page, int size) {
+        if (text == null || text.isBlank()) {
+            throw new UnitedException("Search query can't be empty");
+        }
+        size = PageLimits.checkSize(size, MAX_PAGE_SIZE);
+        PageLimits.checkPage(page, size);
+        Timer.Sample total = Timer.start(meterRegistry);
+        UserIdentity authUser = userService.getAuthUserIdentity();
+
+        Timer.Sample engine = Timer.start(meterRegistry);
+        List<Long> ids = searchEngine.search(authUser.id(), text, page * size, size);
+        engine.stop(timer("engine"));
+
+        Map<Long, ResponseTaskDto> tasks = ids.isEmpty()
+                ? Map.of()
+                : taskRepository.findAllDtoByIdInAndUserId(ids, authUser.id()).stream()
+                        .collect(Collectors.toMap(ResponseTaskDto::getId, Function.identity()));
+        List<ResponseTaskDto> taskList = ids.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .toList();
+        total.stop(timer("total"));
+        return new TaskListDto(taskList);
+    }
+
+
+
+    private Timer timer(String phase) {
+        return Timer.builder("task.search")
+                .tag("engine", searchEngine.name())
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+}
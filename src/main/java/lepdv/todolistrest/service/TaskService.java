@@ -1,25 +1,41 @@
 package lepdv.todolistrest.service;
 
+import lepdv.todolistrest.cache.UserIdentity;
 import lepdv.todolistrest.dto.task.*;
 import lepdv.todolistrest.entity.Role;
 import lepdv.todolistrest.entity.Task;
-import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.entity.TaskStatus;
 import lepdv.todolistrest.exception.NotFoundException;
+import lepdv.todolistrest.export.ExportFormat;
+import lepdv.todolistrest.export.TaskExporter;
+import lepdv.todolistrest.export.TaskImporter;
 import lepdv.todolistrest.exception.UnitedException;
 import lepdv.todolistrest.mapper.Mapper;
 import lepdv.todolistrest.repository.TaskRepository;
+import lepdv.todolistrest.repository.TaskSpecifications;
+import lepdv.todolistrest.search.TaskIndexEvent;
+import lepdv.todolistrest.util.PageCursor;
+import lepdv.todolistrest.util.PageLimits;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Optional;
-
-import static lepdv.todolistrest.util.AuthUser.getAuthUsername;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -28,9 +44,15 @@ import static lepdv.todolistrest.util.AuthUser.getAuthUsername;
 @RequiredArgsConstructor
 public class TaskService {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final TaskRepository taskRepository;
     private final UserService userService;
     private final Mapper mapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExporter taskExporter;
+    private final TaskImporter taskImporter;
 
 
 
@@ -38,15 +60,24 @@ public class TaskService {
     @Transactional
     public ResponseTaskDto create(CreateTaskDto createTaskDto) {
 
-        User authUser = userService.getAuthUser();
+        UserIdentity authUser = userService.getAuthUserIdentity();
         Task task = mapper.mapToTask(createTaskDto);
         task.setDateOfCreation(LocalDate.now());
-        task.setIsCompleted("Not completed");
-        task.setUser(authUser);
+        task.setStatus(TaskStatus.OPEN);
+        task.setUser(userService.getUserReference(authUser.id()));
 
         Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskIndexEvent.saved(List.of(savedTask)));
         log.info("New task id={} was created", savedTask.getId());
-        return mapper.mapToResponseTaskDto(savedTask);
+        return mapper.mapToResponseTaskDto(savedTask, authUser.username());
+    }
+
+
+
+    /** Tasks of the file are created for the auth user by {@link TaskImporter}, which commits batch by batch. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportResultDto importTasks(ExportFormat format, InputStream in) throws IOException {
+        return taskImporter.importTasks(userService.getAuthUserIdentity(), format, in);
     }
 
 
@@ -55,30 +86,89 @@ public class TaskService {
         return taskRepository.findAllBy(pageable);
     }
 
+    /**
+     * Seek variant of {@link #getAllByPageable(Pageable)}: tasks which follow the cursor in order (username, id).
+     */
+    public List<Task> getAllAfter(PageCursor cursor, int size) {
+        if (cursor.username() == null) {
+            throw new UnitedException("Invalid cursor");
+        }
+        return taskRepository.findAllAfter(cursor.username(), cursor.id(), PageRequest.ofSize(size));
+    }
 
 
-    public TaskListDto getAllByAuthUser(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        User authUser = userService.getAuthUser();
-        List<Task> taskPage = taskRepository.findAllByUserIdOrderById(authUser.getId(), pageable);
+
+    public TaskListDto getAllByAuthUser(int page, int size, String cursor) {
+        return getAllByAuthUser(page, size, cursor, new TaskFilter());
+    }
+
+    /**
+     * With {@code cursor} the page is read by seek on (task id) or (due date, task id),
+     * so {@code page} is ignored and deep pages cost the same as the first one.
+     * Size above {@link PageLimits#MAX_PAGE_SIZE} is lowered to it.
+     * The unfiltered list by id is read by the static queries, the rest by specifications.
+     */
+    public TaskListDto getAllByAuthUser(int page, int size, String cursor, TaskFilter filter) {
+        size = PageLimits.checkSize(size, PageLimits.MAX_PAGE_SIZE);
+        PageLimits.checkPage(page, size);
+        UserIdentity authUser = userService.getAuthUserIdentity();
+        PageCursor pageCursor = cursor == null ? null : PageCursor.decode(cursor);
+        List<ResponseTaskDto> taskPage;
+        if (!filter.hasConditions() && filter.getSort() == TaskSort.ID) {
+            taskPage = pageCursor == null
+                    ? taskRepository.findAllDtoByUserId(authUser.id(), PageRequest.of(page, size))
+                    : taskRepository.findAllDtoByUserIdAfter(authUser.id(), pageCursor.id(), PageRequest.ofSize(size));
+        } else {
+            Specification<Task> specification = TaskSpecifications.of(authUser.id(), filter);
+            if (pageCursor != null) {
+                specification = specification.and(filter.getSort() == TaskSort.DUE_DATE
+                        ? TaskSpecifications.afterDueDate(pageCursor)
+                        : TaskSpecifications.afterId(pageCursor));
+            }
+            int offset = pageCursor == null ? page * size : 0;
+            taskPage = taskRepository.findAllDto(specification, filter.getSort(), offset, size);
+        }
 
         TaskListDto todoList = new TaskListDto();
-        todoList.setTaskList(taskPage.stream()
-                .map(mapper::mapToResponseTaskDto)
-                .toList());
+        todoList.setTaskList(taskPage);
+        if (taskPage.size() == size) {
+            ResponseTaskDto last = taskPage.get(size - 1);
+            todoList.setNextCursor((filter.getSort() == TaskSort.DUE_DATE
+                    ? PageCursor.of(last.getId(), last.getDueDate())
+                    : PageCursor.of(last.getId())).encode());
+        }
         return todoList;
+    }
+
 
+
+    /**
+     * All tasks of the auth user, written by {@link TaskExporter} when the response body is written.
+     * The user is resolved now, in the request thread.
+     */
+    public StreamingResponseBody exportByAuthUser(ExportFormat format) {
+        Long userId = userService.getAuthUserIdentity().id();
+        return out -> taskExporter.export(userId, format, out);
+    }
+
+    public StreamingResponseBody exportAll(ExportFormat format) {
+        return out -> taskExporter.export(null, format, out);
     }
 
 
 
+    /**
+     * Reads the dto by projection, ownership is a part of the query. Existence is checked
+     * only when the task isn't found, to tell a foreign task from a missing one.
+     */
     public ResponseTaskDto getTaskDtoById(Long id) {
-        Task taskFromDB = getTask(id);
-        User authUser = userService.getAuthUser();
-        if (!authUser.getRole().equals(Role.ADMIN) && !taskFromDB.getUser().getUsername().equals(authUser.getUsername())) {
-            throw new UnitedException("Task with id=" + id + " belongs to another user");
-        }
-        return mapper.mapToResponseTaskDto(taskFromDB);
+        UserIdentity authUser = userService.getAuthUserIdentity();
+        Optional<ResponseTaskDto> task = Role.ADMIN.equals(authUser.role())
+                ? taskRepository.findDtoById(id)
+                : taskRepository.findDtoByIdAndUserId(id, authUser.id());
+        return task.orElseThrow(() -> taskRepository.existsById(id)
+                ? new UnitedException("Task with id=" + id + " belongs to another user")
+                : new NotFoundException("There is no task with id=" + id + " in database"));
     }
 
 
@@ -86,11 +176,10 @@ public class TaskService {
     @Transactional
     public ResponseTaskDto update(Long id, UpdateTaskDto updateTaskDto) {
         Task taskFromDB = getTask(id);
-        if (!taskFromDB.getUser().getUsername().equals(getAuthUsername())) {
-            throw new UnitedException("Task with id=" + id + " belongs to another user");
-        }
+        checkOwner(taskFromDB, userService.getAuthUserIdentity());
         Optional.ofNullable(updateTaskDto.getDescription()).ifPresent(taskFromDB::setDescription);
         Optional.ofNullable(updateTaskDto.getDueDate()).ifPresent(taskFromDB::setDueDate);
+        eventPublisher.publishEvent(TaskIndexEvent.saved(List.of(taskFromDB)));
         log.info("Task id={} was updated", id);
         return mapper.mapToResponseTaskDto(taskFromDB);
     }
@@ -100,10 +189,8 @@ public class TaskService {
     @Transactional
     public void markAsCompleted(Long id) {
         Task task = getTask(id);
-        if (!task.getUser().getUsername().equals(getAuthUsername())) {
-            throw new UnitedException("Task with id=" + id + " belongs to another user");
-        }
-        task.setIsCompleted("Completed");
+        checkOwner(task, userService.getAuthUserIdentity());
+        task.setStatus(TaskStatus.COMPLETED);
         log.info("Task id={} was marked as completed", id);
     }
 
@@ -112,15 +199,116 @@ public class TaskService {
     @Transactional
     public void delete(Long id) {
         Task task = getTask(id);
-        if (!task.getUser().getUsername().equals(getAuthUsername())) {
-            throw new UnitedException("Task with id=" + id + " belongs to another user");
-        }
+        checkOwner(task, userService.getAuthUserIdentity());
         taskRepository.deleteById(id);
+        eventPublisher.publishEvent(TaskIndexEvent.deleted(List.of(id)));
         log.info("Task id={} was deleted", id);
     }
 
 
 
+    /**
+     * Applies all changes in one transaction, so they share one auth user lookup and one audit revision.
+     * Tasks referenced by id are loaded with one query, writes go to jdbc in batches. An item which fails
+     * validation or ownership check gets its error in the result, other items are applied.
+     */
+    @Transactional
+    public BatchResultDto batch(BatchTaskDto batchTaskDto) {
+        List<CreateTaskDto> creates = Objects.requireNonNullElse(batchTaskDto.getCreate(), List.of());
+        List<BatchUpdateTaskDto> updates = Objects.requireNonNullElse(batchTaskDto.getUpdate(), List.of());
+        List<Long> completes = Objects.requireNonNullElse(batchTaskDto.getMarkAsCompleted(), List.of());
+        List<Long> deletes = Objects.requireNonNullElse(batchTaskDto.getDelete(), List.of());
+        int batchSize = creates.size() + updates.size() + completes.size() + deletes.size();
+        if (batchSize > MAX_BATCH_SIZE) {
+            throw new UnitedException("Batch can't contain more than " + MAX_BATCH_SIZE + " items");
+        }
+
+        UserIdentity authUser = userService.getAuthUserIdentity();
+        Set<Long> ids = new HashSet<>(completes);
+        ids.addAll(deletes);
+        updates.stream().filter(Objects::nonNull).forEach(updateTaskDto -> ids.add(updateTaskDto.getId()));
+        ids.remove(null);
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<BatchItemResultDto> results = new ArrayList<>();
+
+        List<Task> newTasks = new ArrayList<>();
+        List<BatchItemResultDto> createResults = new ArrayList<>();
+        for (int i = 0; i < creates.size(); i++) {
+            String error = validate(creates.get(i));
+            if (error != null) {
+                results.add(batchItemResult("create", i, null, HttpStatus.BAD_REQUEST, error));
+                continue;
+            }
+            Task task = mapper.mapToTask(creates.get(i));
+            task.setDateOfCreation(LocalDate.now());
+            task.setStatus(TaskStatus.OPEN);
+            task.setUser(userService.getUserReference(authUser.id()));
+            newTasks.add(task);
+            BatchItemResultDto result = batchItemResult("create", i, null, HttpStatus.CREATED, null);
+            createResults.add(result);
+            results.add(result);
+        }
+        taskRepository.saveAll(newTasks);
+        for (int i = 0; i < newTasks.size(); i++) {
+            Task task = newTasks.get(i);
+            createResults.get(i).setId(task.getId());
+            createResults.get(i).setTask(mapper.mapToResponseTaskDto(task, authUser.username()));
+        }
+
+        List<Task> updatedTasks = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            BatchUpdateTaskDto updateTaskDto = updates.get(i);
+            String error = validate(updateTaskDto);
+            BatchItemResultDto result = error != null
+                    ? batchItemResult("update", i, updateTaskDto == null ? null : updateTaskDto.getId(),
+                            HttpStatus.BAD_REQUEST, error)
+                    : checkBatchItem("update", i, updateTaskDto.getId(), tasks, authUser);
+            if (result == null) {
+                Task task = tasks.get(updateTaskDto.getId());
+                Optional.ofNullable(updateTaskDto.getDescription()).ifPresent(task::setDescription);
+                Optional.ofNullable(updateTaskDto.getDueDate()).ifPresent(task::setDueDate);
+                updatedTasks.add(task);
+                result = batchItemResult("update", i, task.getId(), HttpStatus.OK, null);
+                result.setTask(mapper.mapToResponseTaskDto(task, authUser.username()));
+            }
+            results.add(result);
+        }
+
+        for (int i = 0; i < completes.size(); i++) {
+            BatchItemResultDto result = checkBatchItem("markAsCompleted", i, completes.get(i), tasks, authUser);
+            if (result == null) {
+                tasks.get(completes.get(i)).setStatus(TaskStatus.COMPLETED);
+                result = batchItemResult("markAsCompleted", i, completes.get(i), HttpStatus.OK, null);
+            }
+            results.add(result);
+        }
+
+        List<Task> deletedTasks = new ArrayList<>();
+        for (int i = 0; i < deletes.size(); i++) {
+            BatchItemResultDto result = checkBatchItem("delete", i, deletes.get(i), tasks, authUser);
+            if (result == null) {
+                deletedTasks.add(tasks.remove(deletes.get(i)));
+                result = batchItemResult("delete", i, deletes.get(i), HttpStatus.OK, null);
+            }
+            results.add(result);
+        }
+        taskRepository.deleteAll(deletedTasks);
+
+        List<Long> deletedIds = deletedTasks.stream().map(Task::getId).toList();
+        List<Task> savedTasks = new ArrayList<>(newTasks);
+        updatedTasks.stream().filter(task -> !deletedIds.contains(task.getId())).forEach(savedTasks::add);
+        TaskIndexEvent indexEvent = TaskIndexEvent.of(savedTasks, deletedIds);
+        if (!indexEvent.isEmpty()) {
+            eventPublisher.publishEvent(indexEvent);
+        }
+
+        log.info("Batch of {} items was applied by user id={}", batchSize, authUser.id());
+        return new BatchResultDto(results);
+    }
+
+
+
     public Task getTask(Long id) {
         return taskRepository.findById(id).
                 orElseThrow(() -> new NotFoundException("There is no task with id=" + id + " in database"));
@@ -128,4 +316,57 @@ public class TaskService {
 
 
 
+    private BatchItemResultDto checkBatchItem(String operation, int index, Long id,
+                                              Map<Long, Task> tasks, UserIdentity authUser) {
+        if (id == null) {
+            return batchItemResult(operation, index, null, HttpStatus.BAD_REQUEST, "id - can't be empty; ");
+        }
+        Task task = tasks.get(id);
+        if (task == null) {
+            return batchItemResult(operation, index, id, HttpStatus.NOT_FOUND,
+                    "There is no task with id=" + id + " in database");
+        }
+        if (!task.getUser().getId().equals(authUser.id())) {
+            return batchItemResult(operation, index, id, HttpStatus.BAD_REQUEST,
+                    "Task with id=" + id + " belongs to another user");
+        }
+        return null;
+    }
+
+    private static BatchItemResultDto batchItemResult(String operation, int index, Long id,
+                                                      HttpStatus status, String error) {
+        return BatchItemResultDto.builder()
+                .operation(operation)
+                .index(index)
+                .id(id)
+                .status(status.value())
+                .error(error)
+                .build();
+    }
+
+    /** Violations in the same format as {@link lepdv.todolistrest.exception.ErrorMessage}, null when valid. */
+    private String validate(Object dto) {
+        if (dto == null) {
+            return "item - can't be empty; ";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " - " + violation.getMessage() + "; ")
+                .sorted()
+                .collect(Collectors.joining());
+    }
+
+
+
+    private void checkOwner(Task task, UserIdentity authUser) {
+        if (!task.getUser().getId().equals(authUser.id())) {
+            throw new UnitedException("Task with id=" + task.getId() + " belongs to another user");
+        }
+    }
+
+
+
 }
@@ -1,5 +1,7 @@
 package lepdv.todolistrest.service;
 
+import lepdv.todolistrest.cache.UserIdentity;
+import lepdv.todolistrest.cache.UserIdentityCache;
 import lepdv.todolistrest.dto.auth.CredentialsDto;
 import lepdv.todolistrest.dto.auth.RegisterDto;
 import lepdv.todolistrest.dto.user.EditPasswordDto;
@@ -10,10 +12,13 @@ import lepdv.todolistrest.exception.NotFoundException;
 import lepdv.todolistrest.exception.UnitedException;
 import lepdv.todolistrest.mapper.Mapper;
 import lepdv.todolistrest.repository.UserRepository;
+import lepdv.todolistrest.util.AuthUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,11 +34,13 @@ import static lepdv.todolistrest.util.AuthUser.getAuthUsername;
 @Transactional(readOnly = true)
 @Slf4j
 @RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final Mapper mapper;
+    private final UserIdentityCache userIdentityCache;
+    private final RefreshTokenService refreshTokenService;
 
 
 
@@ -46,8 +53,21 @@ public class UserService implements UserDetailsService {
 
 
 
+    /** Called by login to store the password rehashed with the current cost of the encoder. */
+    @Override
     @Transactional
-    public void register(RegisterDto registerDto) {
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        user.setPassword(newPassword);
+        log.info("User id={} password was rehashed", user.getId());
+        return user;
+    }
+
+
+
+    @Transactional
+    public User register(RegisterDto registerDto) {
 
         User user = mapper.mapToUser(registerDto);
         String encodedPassword = passwordEncoder.encode(user.getPassword());
@@ -55,8 +75,9 @@ public class UserService implements UserDetailsService {
         user.setRole(Role.USER);
         user.setIsNonLocked(true);
 
-        User savedUser = userRepository.save(user);
+        User savedUser = userRepository.saveAndFlush(user);
         log.info("New user was registered id={}, username={}", savedUser.getId(), savedUser.getUsername());
+        return savedUser;
     }
 
 
@@ -65,6 +86,10 @@ public class UserService implements UserDetailsService {
         return userRepository.findAllByOrderByUsername(pageable);
     }
 
+    public List<User> getAllAfter(String username, int size) {
+        return userRepository.findAllByUsernameGreaterThanOrderByUsername(username, PageRequest.ofSize(size));
+    }
+
 
 
     public UserDto getUserDto() {
@@ -87,6 +112,7 @@ public class UserService implements UserDetailsService {
     @Transactional
     public UserDto update(UserDto userDto) {
         User authUser = getAuthUser();
+        userIdentityCache.invalidate(authUser.getUsername());
         Optional.ofNullable(userDto.getUsername()).ifPresent(authUser::setUsername);
         Optional.ofNullable(userDto.getFullName()).ifPresent(authUser::setFullName);
         Optional.ofNullable(userDto.getDateOfBirth()).ifPresent(authUser::setDateOfBirth);
@@ -104,6 +130,8 @@ public class UserService implements UserDetailsService {
 
             String encodedPassword = passwordEncoder.encode(editPasswordDto.getNewPassword());
             authUser.setPassword(encodedPassword);
+            userIdentityCache.invalidate(authUser.getUsername());
+            refreshTokenService.revokeAll(authUser.getId());
             log.info("User id={} password was edited", authUser.getId());
 
         } else {
@@ -120,6 +148,7 @@ public class UserService implements UserDetailsService {
                 passwordEncoder.matches(credentialsDto.getPassword(), authUser.getPassword())) {
 
             userRepository.delete(authUser);
+            userIdentityCache.invalidate(authUser.getUsername());
             log.info("User id={}, username={} was deleted", authUser.getId(), authUser.getUsername());
         } else {
             throw new UnitedException("Incorrect credentials");
@@ -131,6 +160,7 @@ public class UserService implements UserDetailsService {
     public void deleteUserById(Long id) {
         User user = getUser(id);
         userRepository.deleteById(id);
+        userIdentityCache.invalidate(user.getUsername());
         log.info("User id={}, username={} was deleted", id, user.getUsername());
     }
 
@@ -142,4 +172,22 @@ public class UserService implements UserDetailsService {
 
 
 
+    public UserIdentity getAuthUserIdentity() {
+        Optional<UserIdentity> checked = AuthUser.getAuthIdentity();
+        if (checked.isPresent()) {
+            return checked.get();
+        }
+        String username = getAuthUsername();
+        return userIdentityCache.get(username, name -> getByUsername(name).map(UserIdentity::of))
+                .orElseThrow(() -> new NotFoundException("There is no user with username=" + username + " in database"));
+    }
+
+
+
+    public User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
+
+
 }
@@ -1,9 +1,12 @@
 package lepdv.todolistrest.util;
 
+import lepdv.todolistrest.cache.UserIdentity;
 import lombok.experimental.UtilityClass;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.Optional;
+
 
 @UtilityClass
 public class AuthUser {
@@ -12,4 +15,12 @@ public class AuthUser {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication == null ? ""  : authentication.getName();
     }
-}
\ No newline at end of file
+
+    /** Identity which {@link lepdv.todolistrest.security.JWTFilter} checked for the request, empty for other authentications. */
+    public static Optional<UserIdentity> getAuthIdentity() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getDetails() instanceof UserIdentity identity
+                ? Optional.of(identity)
+                : Optional.empty();
+    }
+}
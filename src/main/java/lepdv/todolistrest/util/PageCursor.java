@@ -0,0 +1,57 @@
+package lepdv.todolistrest.util;
+
+import lepdv.todolistrest.exception.UnitedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+
+/**
+ * Position of the last seen row of keyset pagination: id of the row and, for listings ordered
+ * by username or by due date first, its username or due date. Clients get it as an opaque url-safe
+ * string in {@code nextCursor} and send it back as {@code cursor} parameter.
+ */
+public record PageCursor(Long id, String username, LocalDate dueDate) {
+
+    public PageCursor(Long id, String username) {
+        this(id, username, null);
+    }
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(id, null, null);
+    }
+
+    public static PageCursor of(Long id, LocalDate dueDate) {
+        return new PageCursor(id, null, dueDate);
+    }
+
+
+    public String encode() {
+        String raw = username != null ? id + ":" + username
+                : dueDate != null ? id + "@" + dueDate
+                : String.valueOf(id);
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator >= 0) {
+                return new PageCursor(Long.valueOf(raw.substring(0, separator)), raw.substring(separator + 1));
+            }
+            separator = raw.indexOf('@');
+            return separator < 0
+                    ? PageCursor.of(Long.valueOf(raw))
+                    : PageCursor.of(Long.valueOf(raw.substring(0, separator)),
+                            LocalDate.parse(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new UnitedException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package lepdv.todolistrest.util;
+
+import lepdv.todolistrest.exception.UnitedException;
+import lombok.experimental.UtilityClass;
+
+
+/**
+ * Checks of {@code page} and {@code size} parameters of listings: a size below one or a negative page
+ * is rejected, a larger size is lowered to the maximum of the listing.
+ */
+@UtilityClass
+public class PageLimits {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /** @return size, lowered to {@code maxSize} */
+    public static int checkSize(int size, int maxSize) {
+        if (size < 1) {
+            throw new UnitedException("size - should be at least 1");
+        }
+        return Math.min(size, maxSize);
+    }
+
+    /** {@code size} is an already checked one, the end of the page has to fit in int. */
+    public static void checkPage(int page, int size) {
+        if (page < 0) {
+            throw new UnitedException("page - should be at least 0");
+        }
+        if ((long) page * size + size > Integer.MAX_VALUE) {
+            throw new UnitedException("page - is too large");
+        }
+    }
+}
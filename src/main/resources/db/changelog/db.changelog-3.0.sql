@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset lepdv:1
+CREATE INDEX IF NOT EXISTS task_user_id_id_idx ON task (user_id, id);
+
+
+--changeset lepdv:2
+CREATE INDEX IF NOT EXISTS users_aud_id_rev_idx ON users_aud (id, rev);
+
+
+--changeset lepdv:3
+CREATE INDEX IF NOT EXISTS task_aud_id_rev_idx ON task_aud (id, rev);
@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+--changeset lepdv:1
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS task_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS revision_seq INCREMENT BY 50;
+
+
+--changeset lepdv:2 dbms:h2
+ALTER SEQUENCE users_seq RESTART WITH (SELECT coalesce(max(id), 0) + 100 FROM users);
+ALTER SEQUENCE task_seq RESTART WITH (SELECT coalesce(max(id), 0) + 100 FROM task);
+ALTER SEQUENCE revision_seq RESTART WITH (SELECT coalesce(max(id), 0) + 100 FROM revision);
+
+
+--changeset lepdv:3 dbms:postgresql
+SELECT setval('users_seq', (SELECT coalesce(max(id), 0) + 100 FROM users), false);
+SELECT setval('task_seq', (SELECT coalesce(max(id), 0) + 100 FROM task), false);
+SELECT setval('revision_seq', (SELECT coalesce(max(id), 0) + 100 FROM revision), false);
+
+
+--changeset lepdv:4
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE task ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE task ALTER COLUMN id SET DEFAULT nextval('task_seq');
+ALTER TABLE revision ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE revision ALTER COLUMN id SET DEFAULT nextval('revision_seq');
@@ -0,0 +1,20 @@
+--liquibase formatted sql
+
+--changeset lepdv:1
+ALTER TABLE task ADD COLUMN status smallint NOT NULL DEFAULT 0 CHECK (status IN (0, 1));
+UPDATE task SET status = 1 WHERE is_completed = 'Completed';
+ALTER TABLE task DROP COLUMN is_completed;
+
+
+--changeset lepdv:2
+ALTER TABLE task_aud ADD COLUMN status smallint;
+UPDATE task_aud SET status = CASE is_completed WHEN 'Completed' THEN 1 WHEN 'Not completed' THEN 0 END;
+ALTER TABLE task_aud DROP COLUMN is_completed;
+
+
+--changeset lepdv:3 dbms:postgresql
+CREATE INDEX IF NOT EXISTS task_open_user_id_id_idx ON task (user_id, id) WHERE status = 0;
+
+
+--changeset lepdv:4 dbms:h2
+CREATE INDEX IF NOT EXISTS task_user_id_status_id_idx ON task (user_id, status, id);
@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset lepdv:1
+CREATE INDEX IF NOT EXISTS task_user_id_due_date_id_idx ON task (user_id, due_date, id);
+
+
+--changeset lepdv:2
+CREATE INDEX IF NOT EXISTS task_user_id_date_of_creation_id_idx ON task (user_id, date_of_creation, id);
+
+
+--changeset lepdv:3 dbms:postgresql
+CREATE INDEX IF NOT EXISTS task_open_user_id_due_date_id_idx ON task (user_id, due_date, id) WHERE status = 0;
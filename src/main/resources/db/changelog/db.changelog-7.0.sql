@@ -0,0 +1,4 @@
+--liquibase formatted sql
+
+--changeset lepdv:1 dbms:postgresql
+CREATE INDEX IF NOT EXISTS task_description_fts_idx ON task USING gin (to_tsvector('simple', description));
@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset lepdv:1
+CREATE TABLE IF NOT EXISTS refresh_token (
+    token_hash varchar(64) PRIMARY KEY,
+    user_id bigint NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    expires_at timestamp NOT NULL,
+    create_at timestamp NOT NULL
+);
+
+
+--changeset lepdv:2
+CREATE INDEX IF NOT EXISTS refresh_token_expires_at_idx ON refresh_token (expires_at);
+CREATE INDEX IF NOT EXISTS refresh_token_user_id_idx ON refresh_token (user_id);
@@ -0,0 +1,4 @@
+--liquibase formatted sql
+
+--changeset lepdv:1
+ALTER SEQUENCE revision_seq INCREMENT BY 1;
@@ -0,0 +1,28 @@
+package lepdv.todolistrest.reactive;
+
+import lepdv.todolistrest.security.JWTUtil;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+
+/**
+ * Read api of tasks on WebFlux and R2DBC, a separate application next to the MVC one over the same database,
+ * which the MVC application migrates. Its beans belong to {@code reactive} profile, so that the MVC application
+ * skips them when both are on one classpath (load test).
+ */
+@Profile("reactive")
+@SpringBootApplication
+@Import(JWTUtil.class)
+public class ReactiveTodolistApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveTodolistApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.profiles("reactive")
+				.run(args);
+	}
+
+}
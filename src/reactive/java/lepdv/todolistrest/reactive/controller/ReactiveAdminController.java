@@ -0,0 +1,56 @@
+package lepdv.todolistrest.reactive.controller;
+
+import lepdv.todolistrest.dto.admin.UserForAdminDto;
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.reactive.service.ReactiveAdminService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+
+/** Listings of {@link lepdv.todolistrest.controller.AdminController} on the same paths, streamed. */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/api/v2/admin")
+public class ReactiveAdminController {
+
+    private final ReactiveAdminService adminService;
+
+
+
+
+    @GetMapping(value = "/users", produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public Flux<UserForAdminDto> getAllUsers(@RequestParam(required = false, name = "page",
+                                                           defaultValue = "0") int page,
+                                             @RequestParam(required = false, name = "size",
+                                                           defaultValue = "20") int size,
+                                             @RequestParam(required = false, name = "cursor") String cursor) {
+        return adminService.getAllUsers(page, size, cursor);
+    }
+
+
+
+    @GetMapping(value = "/tasks", produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public Flux<ResponseTaskDto> getAllTasks(@RequestParam(required = false, name = "page",
+                                                           defaultValue = "0") int page,
+                                             @RequestParam(required = false, name = "size",
+                                                           defaultValue = "20") int size,
+                                             @RequestParam(required = false, name = "cursor") String cursor) {
+        return adminService.getAllTasks(page, size, cursor);
+    }
+
+
+
+    @GetMapping(value = "/tasks/{id}", produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseTaskDto> getTaskById(@PathVariable("id") Long id) {
+        return adminService.getTaskById(id);
+    }
+
+
+}
@@ -0,0 +1,49 @@
+package lepdv.todolistrest.reactive.controller;
+
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.dto.task.TaskFilter;
+import lepdv.todolistrest.reactive.service.ReactiveTaskService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+
+/**
+ * Reads of {@link lepdv.todolistrest.controller.TaskController} on the same paths. Lists are streamed
+ * as they are read: json array or, with {@code Accept: application/x-ndjson}, a task per line.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/api/v2/tasks")
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService taskService;
+
+
+
+
+    @GetMapping(value = "/todo-list", produces = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    public Flux<ResponseTaskDto> getTodoList(@RequestParam(required = false, name = "page",
+                                                           defaultValue = "0") int page,
+                                             @RequestParam(required = false, name = "size",
+                                                           defaultValue = "20") int size,
+                                             @RequestParam(required = false, name = "cursor") String cursor,
+                                             TaskFilter filter) {
+        return taskService.getAllByAuthUser(page, size, cursor, filter);
+    }
+
+
+
+    @GetMapping(value = "/{id}", produces = APPLICATION_JSON_VALUE)
+    public Mono<ResponseTaskDto> getTaskById(@PathVariable("id") Long id) {
+        return taskService.getTaskDtoById(id);
+    }
+
+
+}
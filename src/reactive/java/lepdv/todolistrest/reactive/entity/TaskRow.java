@@ -0,0 +1,17 @@
+package lepdv.todolistrest.reactive.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+
+/** Row of task table, read-only: tasks are written by the MVC application. */
+@Table("task")
+public record TaskRow(@Id Long id,
+                      String description,
+                      LocalDate dateOfCreation,
+                      LocalDate dueDate,
+                      Short status,
+                      Long userId) {
+}
@@ -0,0 +1,36 @@
+package lepdv.todolistrest.reactive.entity;
+
+import lepdv.todolistrest.cache.UserIdentity;
+import lepdv.todolistrest.dto.admin.UserForAdminDto;
+import lepdv.todolistrest.entity.Role;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+
+/** Row of users table without password, read-only. */
+@Table("users")
+public record UserRow(@Id Long id,
+                      String username,
+                      String fullName,
+                      LocalDate dateOfBirth,
+                      String role,
+                      Boolean isNonLocked) {
+
+    public UserIdentity toUserIdentity() {
+        return new UserIdentity(id, username, role == null ? null : Role.valueOf(role),
+                Boolean.TRUE.equals(isNonLocked));
+    }
+
+    public UserForAdminDto toUserForAdminDto() {
+        return UserForAdminDto.builder()
+                .id(id)
+                .username(username)
+                .fullName(fullName)
+                .dateOfBirth(dateOfBirth)
+                .role(role)
+                .isNonLocked(isNonLocked)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package lepdv.todolistrest.reactive.exception;
+
+import lepdv.todolistrest.exception.ErrorsBody;
+import lepdv.todolistrest.exception.NotFoundException;
+import lepdv.todolistrest.exception.UnitedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.Instant;
+import java.util.List;
+
+
+/** {@link ErrorsBody} responses of the reactive api, as {@code GeneralExceptionHandler} gives them in MVC. */
+@Slf4j
+@Profile("reactive")
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    private static final String INVALID_REQUEST = "Invalid request";
+    private static final String ERRORS_FOR_PATH = "errors: {}, for path: {}, exception: {}";
+
+
+
+    @ExceptionHandler({NotFoundException.class})
+    public ResponseEntity<ErrorsBody> handleNotFound(NotFoundException exception, ServerHttpRequest request) {
+        return getExceptionResponseEntity(exception, HttpStatus.NOT_FOUND, request, exception.getMessage());
+    }
+
+    @ExceptionHandler({UnitedException.class})
+    public ResponseEntity<ErrorsBody> handleUnited(UnitedException exception, ServerHttpRequest request) {
+        return getExceptionResponseEntity(exception, HttpStatus.BAD_REQUEST, request, exception.getMessage());
+    }
+
+    @ExceptionHandler({ServerWebInputException.class})
+    public ResponseEntity<ErrorsBody> handleInput(ServerWebInputException exception, ServerHttpRequest request) {
+        return getExceptionResponseEntity(exception, HttpStatus.BAD_REQUEST, request, exception.getReason());
+    }
+
+
+
+    private ResponseEntity<ErrorsBody> getExceptionResponseEntity(Exception exception, HttpStatus status,
+                                                                  ServerHttpRequest request, String error) {
+        String path = "uri=" + request.getPath().value();
+        ErrorsBody body = ErrorsBody.builder()
+                .timestamp(Instant.now())
+                .status(status.value())
+                .errors(List.of(error))
+                .type(exception.getClass().getSimpleName())
+                .path(path)
+                .message(status == HttpStatus.BAD_REQUEST ? INVALID_REQUEST : status.getReasonPhrase())
+                .build();
+        log.error(ERRORS_FOR_PATH, error, path, exception.getClass().getSimpleName());
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
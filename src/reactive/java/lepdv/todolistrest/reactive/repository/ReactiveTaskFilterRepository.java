@@ -0,0 +1,15 @@
+package lepdv.todolistrest.reactive.repository;
+
+import lepdv.todolistrest.dto.task.TaskFilter;
+import lepdv.todolistrest.util.PageCursor;
+import reactor.core.publisher.Flux;
+
+
+public interface ReactiveTaskFilterRepository {
+
+    /**
+     * Page of tasks of the user which match the filter, in order of {@link TaskFilter#getSort()}.
+     * With {@code cursor} the page starts after it.
+     */
+    Flux<TaskView> findAllView(Long userId, TaskFilter filter, PageCursor cursor, long offset, int limit);
+}
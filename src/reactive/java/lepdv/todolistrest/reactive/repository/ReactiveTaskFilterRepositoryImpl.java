@@ -0,0 +1,82 @@
+package lepdv.todolistrest.reactive.repository;
+
+import lepdv.todolistrest.dto.task.TaskFilter;
+import lepdv.todolistrest.dto.task.TaskSort;
+import lepdv.todolistrest.util.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Sql counterpart of {@link lepdv.todolistrest.repository.TaskSpecifications}: only the conditions which are set
+ * get into the query, so every combination of filters is a query of its own shape.
+ */
+@RequiredArgsConstructor
+public class ReactiveTaskFilterRepositoryImpl implements ReactiveTaskFilterRepository {
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+
+
+    @Override
+    public Flux<TaskView> findAllView(Long userId, TaskFilter filter, PageCursor cursor, long offset, int limit) {
+        StringBuilder sql = new StringBuilder(ReactiveTaskRepository.SELECT_VIEW).append("WHERE t.user_id = :userId");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("userId", userId);
+
+        if (filter.getStatus() != null) {
+            sql.append(" AND t.status = :status");
+            parameters.put("status", filter.getStatus().getCode());
+        }
+        if (filter.getDueBefore() != null) {
+            sql.append(" AND t.due_date < :dueBefore");
+            parameters.put("dueBefore", filter.getDueBefore());
+        }
+        if (filter.getDueAfter() != null) {
+            sql.append(" AND t.due_date > :dueAfter");
+            parameters.put("dueAfter", filter.getDueAfter());
+        }
+        if (filter.getCreatedFrom() != null) {
+            sql.append(" AND t.date_of_creation >= :createdFrom");
+            parameters.put("createdFrom", filter.getCreatedFrom());
+        }
+        if (filter.getCreatedTo() != null) {
+            sql.append(" AND t.date_of_creation <= :createdTo");
+            parameters.put("createdTo", filter.getCreatedTo());
+        }
+
+        if (cursor != null) {
+            parameters.put("cursorId", cursor.id());
+            if (filter.getSort() != TaskSort.DUE_DATE) {
+                sql.append(" AND t.id > :cursorId");
+            } else if (cursor.dueDate() == null) {
+                sql.append(" AND t.due_date IS NULL AND t.id > :cursorId");
+            } else {
+                sql.append(" AND (t.due_date > :cursorDueDate" +
+                        " OR (t.due_date = :cursorDueDate AND t.id > :cursorId)" +
+                        " OR t.due_date IS NULL)");
+                parameters.put("cursorDueDate", cursor.dueDate());
+            }
+        }
+
+        sql.append(filter.getSort() == TaskSort.DUE_DATE
+                ? " ORDER BY t.due_date NULLS LAST, t.id"
+                : " ORDER BY t.id");
+        sql.append(" LIMIT :limit OFFSET :offset");
+        parameters.put("limit", limit);
+        parameters.put("offset", offset);
+
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql(sql.toString());
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            query = query.bind(parameter.getKey(), parameter.getValue());
+        }
+        return query.map((row, metadata) -> converter.read(TaskView.class, row, metadata))
+                .all();
+    }
+}
@@ -0,0 +1,56 @@
+package lepdv.todolistrest.reactive.repository;
+
+import lepdv.todolistrest.reactive.entity.TaskRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Queries of {@link lepdv.todolistrest.repository.TaskRepository} which the reactive api serves,
+ * rows are read as {@link TaskView}s.
+ */
+public interface ReactiveTaskRepository extends R2dbcRepository<TaskRow, Long>, ReactiveTaskFilterRepository {
+
+    String SELECT_VIEW = "SELECT t.id, t.description, t.date_of_creation, t.due_date, t.status, u.username " +
+            "FROM task t JOIN users u ON u.id = t.user_id ";
+
+
+    @Query(SELECT_VIEW +
+            "ORDER BY u.username, t.id " +
+            "LIMIT :limit OFFSET :offset")
+    Flux<TaskView> findAllView(@Param("offset") long offset, @Param("limit") int limit);
+
+    @Query(SELECT_VIEW +
+            "WHERE u.username > :username OR (u.username = :username AND t.id > :id) " +
+            "ORDER BY u.username, t.id " +
+            "LIMIT :limit")
+    Flux<TaskView> findAllViewAfter(@Param("username") String username, @Param("id") Long id,
+                                    @Param("limit") int limit);
+
+    @Query(SELECT_VIEW +
+            "WHERE t.user_id = :userId " +
+            "ORDER BY t.id " +
+            "LIMIT :limit OFFSET :offset")
+    Flux<TaskView> findAllViewByUserId(@Param("userId") Long userId, @Param("offset") long offset,
+                                       @Param("limit") int limit);
+
+    @Query(SELECT_VIEW +
+            "WHERE t.user_id = :userId AND t.id > :id " +
+            "ORDER BY t.id " +
+            "LIMIT :limit")
+    Flux<TaskView> findAllViewByUserIdAfter(@Param("userId") Long userId, @Param("id") Long id,
+                                            @Param("limit") int limit);
+
+    @Query(SELECT_VIEW +
+            "WHERE t.id = :id")
+    Mono<TaskView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW +
+            "WHERE t.id = :id AND t.user_id = :userId")
+    Mono<TaskView> findViewByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+
+}
@@ -0,0 +1,19 @@
+package lepdv.todolistrest.reactive.repository;
+
+import lepdv.todolistrest.reactive.entity.UserRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+public interface ReactiveUserRepository extends R2dbcRepository<UserRow, Long> {
+
+    Mono<UserRow> findByUsername(String username);
+
+    Flux<UserRow> findAllByOrderByUsername(Pageable pageable);
+
+    Flux<UserRow> findAllByUsernameGreaterThanOrderByUsername(String username, Pageable pageable);
+
+
+}
@@ -0,0 +1,21 @@
+package lepdv.todolistrest.reactive.repository;
+
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.entity.TaskStatus;
+
+import java.time.LocalDate;
+
+
+/** Task joined with the username of its owner, the row of every task query. */
+public record TaskView(Long id,
+                       String description,
+                       LocalDate dateOfCreation,
+                       LocalDate dueDate,
+                       Short status,
+                       String username) {
+
+    public ResponseTaskDto toResponseTaskDto() {
+        return new ResponseTaskDto(id, description, dateOfCreation, dueDate,
+                status == null ? null : TaskStatus.ofCode(status), username);
+    }
+}
@@ -0,0 +1,71 @@
+package lepdv.todolistrest.reactive.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.security.AuthPrincipal;
+import lepdv.todolistrest.security.JWTUtil;
+import lepdv.todolistrest.security.JwtClaims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+
+/**
+ * {@link lepdv.todolistrest.security.JWTFilter} of the reactive api: the same validation by {@link JWTUtil},
+ * authentication goes to the reactor context instead of the thread. Added to the security chain only,
+ * so it is not a bean, otherwise WebFlux would run it once more outside the chain.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JWTWebFilter implements WebFilter {
+
+    private final JWTUtil jwtUtil;
+
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.validateAndDecode(authHeader.substring(7));
+        } catch (ExpiredJwtException e) {
+            log.info("Lifetime of jwt token is expired");
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lifetime of jwt token is expired"));
+        } catch (SignatureException | MalformedJwtException | UnsupportedJwtException e) {
+            log.info("Invalid jwt token");
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid jwt token"));
+        }
+
+        List<String> roleList = claims.roles();
+        List<SimpleGrantedAuthority> roles = roleList.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        AuthPrincipal principal = new AuthPrincipal(claims.userId(), claims.username(),
+                roleList.isEmpty() ? null : Role.valueOf(roleList.get(0)));
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal, null, roles);
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authToken));
+    }
+
+
+}
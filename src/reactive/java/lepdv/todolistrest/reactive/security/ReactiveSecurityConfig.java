@@ -0,0 +1,51 @@
+package lepdv.todolistrest.reactive.security;
+
+import lepdv.todolistrest.security.JWTUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import static lepdv.todolistrest.entity.Role.ADMIN;
+import static lepdv.todolistrest.entity.Role.USER;
+
+
+/**
+ * Stateless jwt security of the reactive api. Admin paths are restricted here, in the MVC api
+ * it's done by method security of {@link lepdv.todolistrest.service.AdminService}.
+ */
+@Profile("reactive")
+@Configuration
+@EnableWebFluxSecurity
+@RequiredArgsConstructor
+public class ReactiveSecurityConfig {
+
+    private final JWTUtil jwtUtil;
+
+
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/api/v2/admin/**").hasAuthority(ADMIN.getAuthority())
+                        .anyExchange().hasAnyAuthority(USER.getAuthority(), ADMIN.getAuthority()))
+                .exceptionHandling(exceptionHandling -> exceptionHandling
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .addFilterAt(new JWTWebFilter(jwtUtil), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+}
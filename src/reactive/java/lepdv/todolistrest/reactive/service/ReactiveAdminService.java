@@ -0,0 +1,47 @@
+package lepdv.todolistrest.reactive.service;
+
+import lepdv.todolistrest.dto.admin.UserForAdminDto;
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.reactive.entity.UserRow;
+import lepdv.todolistrest.reactive.repository.ReactiveUserRepository;
+import lepdv.todolistrest.util.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+/** Admin listings of the reactive api, access is restricted to admins by the security chain. */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAdminService {
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveTaskService taskService;
+
+
+
+    public Flux<UserForAdminDto> getAllUsers(int page, int size, String cursor) {
+        Flux<UserRow> users = cursor == null
+                ? userRepository.findAllByOrderByUsername(PageRequest.of(page, size))
+                : userRepository.findAllByUsernameGreaterThanOrderByUsername(PageCursor.decode(cursor).username(),
+                        PageRequest.ofSize(size));
+        return users.map(UserRow::toUserForAdminDto);
+    }
+
+
+
+    public Flux<ResponseTaskDto> getAllTasks(int page, int size, String cursor) {
+        return taskService.getAll(page, size, cursor);
+    }
+
+
+    public Mono<ResponseTaskDto> getTaskById(Long id) {
+        return taskService.getTaskDtoById(id);
+    }
+
+
+}
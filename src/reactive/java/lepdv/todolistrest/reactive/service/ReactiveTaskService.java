@@ -0,0 +1,105 @@
+package lepdv.todolistrest.reactive.service;
+
+import lepdv.todolistrest.cache.UserIdentity;
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.dto.task.TaskFilter;
+import lepdv.todolistrest.dto.task.TaskSort;
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.exception.NotFoundException;
+import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.reactive.entity.UserRow;
+import lepdv.todolistrest.reactive.repository.ReactiveTaskRepository;
+import lepdv.todolistrest.reactive.repository.ReactiveUserRepository;
+import lepdv.todolistrest.reactive.repository.TaskView;
+import lepdv.todolistrest.util.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+
+/**
+ * Reactive counterpart of the reads of {@link lepdv.todolistrest.service.TaskService}, with the same
+ * paging, cursors and access rules.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveTaskService {
+
+    private final ReactiveTaskRepository taskRepository;
+    private final ReactiveUserRepository userRepository;
+
+
+
+    /**
+     * With {@code cursor} the page is read by seek on (task id) or (due date, task id), so {@code page} is ignored.
+     * Streamed pages carry no next cursor: it is the cursor of the last task, encoded as by the MVC api.
+     */
+    public Flux<ResponseTaskDto> getAllByAuthUser(int page, int size, String cursor, TaskFilter filter) {
+        PageCursor pageCursor = cursor == null ? null : PageCursor.decode(cursor);
+        return getAuthUserIdentity()
+                .flatMapMany(authUser -> {
+                    if (!filter.hasConditions() && filter.getSort() == TaskSort.ID) {
+                        return pageCursor == null
+                                ? taskRepository.findAllViewByUserId(authUser.id(), (long) page * size, size)
+                                : taskRepository.findAllViewByUserIdAfter(authUser.id(), pageCursor.id(), size);
+                    }
+                    long offset = pageCursor == null ? (long) page * size : 0;
+                    return taskRepository.findAllView(authUser.id(), filter, pageCursor, offset, size);
+                })
+                .map(TaskView::toResponseTaskDto);
+    }
+
+
+
+    public Flux<ResponseTaskDto> getAll(int page, int size, String cursor) {
+        Flux<TaskView> tasks;
+        if (cursor == null) {
+            tasks = taskRepository.findAllView((long) page * size, size);
+        } else {
+            PageCursor pageCursor = PageCursor.decode(cursor);
+            if (pageCursor.username() == null) {
+                throw new UnitedException("Invalid cursor");
+            }
+            tasks = taskRepository.findAllViewAfter(pageCursor.username(), pageCursor.id(), size);
+        }
+        return tasks.map(TaskView::toResponseTaskDto);
+    }
+
+
+
+    public Mono<ResponseTaskDto> getTaskDtoById(Long id) {
+        return getAuthUserIdentity()
+                .flatMap(authUser -> Role.ADMIN.equals(authUser.role())
+                        ? taskRepository.findViewById(id)
+                        : taskRepository.findViewByIdAndUserId(id, authUser.id()))
+                .map(TaskView::toResponseTaskDto)
+                .switchIfEmpty(Mono.defer(() -> taskRepository.existsById(id)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new UnitedException("Task with id=" + id + " belongs to another user")
+                                : new NotFoundException("There is no task with id=" + id + " in database")))));
+    }
+
+
+
+    /**
+     * Identity of the user read by the username of jwt token, not built from the other claims,
+     * the same way as {@link lepdv.todolistrest.service.UserService#getAuthUserIdentity()}.
+     */
+    private Mono<UserIdentity> getAuthUserIdentity() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getName)
+                .flatMap(username -> userRepository.findByUsername(username)
+                        .map(UserRow::toUserIdentity)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException(
+                                "There is no user with username=" + username + " in database"))));
+    }
+
+
+}
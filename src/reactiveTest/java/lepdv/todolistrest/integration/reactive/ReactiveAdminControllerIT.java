@@ -0,0 +1,99 @@
+package lepdv.todolistrest.integration.reactive;
+
+import lepdv.todolistrest.dto.admin.UserForAdminDto;
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.security.JWTUtil;
+import lepdv.todolistrest.util.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+@ReactiveIT
+@RequiredArgsConstructor
+class ReactiveAdminControllerIT {
+
+    private final WebTestClient webTestClient;
+    private final JWTUtil jwtUtil;
+
+
+
+    @Test
+    void getAllTasks_shouldStreamTasksOrderedByUsername() {
+        List<ResponseTaskDto> tasks = webTestClient.get()
+                .uri("/api/v2/admin/tasks?size=5")
+                .header(HttpHeaders.AUTHORIZATION, bearer(1L, "Admin", Role.ADMIN))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResponseTaskDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), tasks.stream().map(ResponseTaskDto::getId).toList());
+    }
+
+    @Test
+    void getAllTasks_shouldStartAfterCursor_whenCursorIsGiven() {
+        webTestClient.get()
+                .uri("/api/v2/admin/tasks?cursor=" + new PageCursor(4L, "Ivan").encode())
+                .header(HttpHeaders.AUTHORIZATION, bearer(1L, "Admin", Role.ADMIN))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].user").isEqualTo("Katya");
+    }
+
+    @Test
+    void getAllTasks_shouldBeForbidden_whenUserIsNotAdmin() {
+        webTestClient.get()
+                .uri("/api/v2/admin/tasks")
+                .header(HttpHeaders.AUTHORIZATION, bearer(2L, "Ivan", Role.USER))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+
+
+    @Test
+    void getAllUsers_shouldStreamUsersOrderedByUsername() {
+        List<UserForAdminDto> users = webTestClient.get()
+                .uri("/api/v2/admin/users?cursor=" + new PageCursor(1L, "Admin").encode())
+                .header(HttpHeaders.AUTHORIZATION, bearer(1L, "Admin", Role.ADMIN))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(UserForAdminDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(List.of("Ivan", "Katya"), users.stream().map(UserForAdminDto::getUsername).toList());
+        assertEquals("USER", users.get(0).getRole());
+    }
+
+
+
+    @Test
+    void getTaskById_shouldGetForeignTask_whenUserIsAdmin() {
+        webTestClient.get()
+                .uri("/api/v2/admin/tasks/5")
+                .header(HttpHeaders.AUTHORIZATION, bearer(1L, "Admin", Role.ADMIN))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.description").isEqualTo("Katya task1")
+                .jsonPath("$.user").isEqualTo("Katya");
+    }
+
+
+
+    private String bearer(Long id, String username, Role role) {
+        return "Bearer " + jwtUtil.generateToken(User.builder().id(id).username(username).role(role).build());
+    }
+}
@@ -0,0 +1,25 @@
+package lepdv.todolistrest.integration.reactive;
+
+import lepdv.todolistrest.reactive.ReactiveTodolistApplication;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestConstructor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test of the reactive api over the read-only data of {@code schema.sql} and {@code data.sql}.
+ * The application is given explicitly, the search from the test package would find the MVC one.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ActiveProfiles({"reactive", "test"})
+@TestConstructor(autowireMode = TestConstructor.AutowireMode.ALL)
+@AutoConfigureWebTestClient
+@SpringBootTest(classes = ReactiveTodolistApplication.class)
+public @interface ReactiveIT {
+}
@@ -0,0 +1,158 @@
+package lepdv.todolistrest.integration.reactive;
+
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.security.JWTUtil;
+import lepdv.todolistrest.util.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+@ReactiveIT
+@RequiredArgsConstructor
+class ReactiveTaskControllerIT {
+
+    private final WebTestClient webTestClient;
+    private final JWTUtil jwtUtil;
+
+
+
+    @Test
+    void getTodoList_shouldStreamOwnTasksOrderedById() {
+        List<ResponseTaskDto> tasks = getTodoList("/api/v2/tasks/todo-list", MediaType.APPLICATION_JSON);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(tasks));
+        assertEquals(new ResponseTaskDto(1L, "Ivan task1", LocalDate.of(2023, 5, 1), LocalDate.of(2025, 5, 30),
+                "Not completed", "Ivan"), tasks.get(0));
+        assertEquals("Completed", tasks.get(1).getIsCompleted());
+    }
+
+    @Test
+    void getTodoList_shouldStreamNdjson_whenAcceptIsNdjson() {
+        webTestClient.get()
+                .uri("/api/v2/tasks/todo-list?size=2")
+                .header(HttpHeaders.AUTHORIZATION, bearer(2L, "Ivan", Role.USER))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> assertEquals(2, body.lines().count()));
+    }
+
+    @Test
+    void getTodoList_shouldStartAfterCursor_whenCursorIsGiven() {
+        List<ResponseTaskDto> tasks = getTodoList("/api/v2/tasks/todo-list?size=2&cursor="
+                + PageCursor.of(2L).encode(), MediaType.APPLICATION_JSON);
+
+        assertEquals(List.of(3L, 4L), ids(tasks));
+    }
+
+    @Test
+    void getTodoList_shouldFilterAndSortByDueDateWithNullsLast_whenFilterIsGiven() {
+        assertEquals(List.of(4L, 1L, 3L), ids(getTodoList("/api/v2/tasks/todo-list?status=OPEN&sort=DUE_DATE",
+                MediaType.APPLICATION_JSON)));
+        assertEquals(List.of(2L), ids(getTodoList("/api/v2/tasks/todo-list?dueBefore=2025-05-30&dueAfter=2025-05-11",
+                MediaType.APPLICATION_JSON)));
+        assertEquals(List.of(1L, 3L), ids(getTodoList("/api/v2/tasks/todo-list?sort=DUE_DATE&cursor="
+                + PageCursor.of(2L, LocalDate.of(2025, 5, 20)).encode(), MediaType.APPLICATION_JSON)));
+    }
+
+    @Test
+    void getTodoList_shouldGetErrorsBody_whenCursorIsInvalid() {
+        webTestClient.get()
+                .uri("/api/v2/tasks/todo-list?cursor=!")
+                .header(HttpHeaders.AUTHORIZATION, bearer(2L, "Ivan", Role.USER))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[0]").isEqualTo("Invalid cursor");
+    }
+
+    @Test
+    void getTodoList_shouldBeForbidden_whenTokenIsAbsent() {
+        webTestClient.get()
+                .uri("/api/v2/tasks/todo-list")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    void getTodoList_shouldGetBadRequest_whenTokenIsInvalid() {
+        webTestClient.get()
+                .uri("/api/v2/tasks/todo-list")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer invalid.jwt.token")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+
+
+    @Test
+    void getTaskById_shouldGetResponseTaskDto_whenTaskIsOwn() {
+        webTestClient.get()
+                .uri("/api/v2/tasks/2")
+                .header(HttpHeaders.AUTHORIZATION, bearer(2L, "Ivan", Role.USER))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ResponseTaskDto.class)
+                .isEqualTo(new ResponseTaskDto(2L, "Ivan task2", LocalDate.of(2023, 5, 10),
+                        LocalDate.of(2025, 5, 20), "Completed", "Ivan"));
+    }
+
+    @Test
+    void getTaskById_shouldGetErrorsBody_whenTaskIsForeign() {
+        webTestClient.get()
+                .uri("/api/v2/tasks/5")
+                .header(HttpHeaders.AUTHORIZATION, bearer(2L, "Ivan", Role.USER))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[0]").isEqualTo("Task with id=5 belongs to another user")
+                .jsonPath("$.path").isEqualTo("uri=/api/v2/tasks/5");
+    }
+
+    @Test
+    void getTaskById_shouldGetErrorsBody_whenNotExist() {
+        webTestClient.get()
+                .uri("/api/v2/tasks/100")
+                .header(HttpHeaders.AUTHORIZATION, bearer(2L, "Ivan", Role.USER))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errors[0]").isEqualTo("There is no task with id=100 in database");
+    }
+
+
+
+    private List<ResponseTaskDto> getTodoList(String uri, MediaType mediaType) {
+        return webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.AUTHORIZATION, bearer(2L, "Ivan", Role.USER))
+                .accept(mediaType)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResponseTaskDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private String bearer(Long id, String username, Role role) {
+        return "Bearer " + jwtUtil.generateToken(User.builder().id(id).username(username).role(role).build());
+    }
+
+    private static List<Long> ids(List<ResponseTaskDto> tasks) {
+        return tasks.stream()
+                .map(ResponseTaskDto::getId)
+                .toList();
+    }
+}
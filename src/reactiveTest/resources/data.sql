@@ -0,0 +1,17 @@
+DELETE FROM users;
+INSERT INTO users (id, username, password, full_name, date_of_birth, role, is_non_locked)
+VALUES
+(1, 'Admin', '$2a$10$QqbD8Up32CATm2DSVVjIDea08KuxC/RL9.9SFVcMP6FW5nHGl5PIG', 'Admin', '1990-01-01', 'ADMIN', true),
+(2, 'Ivan', '$2a$10$JfoL9fN.fl4DtP.mUQAF0..OzWxIE2ffAq7nWY4XtXKazpYCd5HSK', 'Ivanov Ivan', '2000-01-01', 'USER', true),
+(3, 'Katya', '$2a$10$f0A/1pjXviu82xuuG5AKreDlb0tiAoWzBMnbphJz1oPNkzaZ2omRe', 'Petrova Katya', '2010-01-01', 'USER', true);
+
+
+DELETE FROM task;
+INSERT INTO task (id, description, date_of_creation, due_date, status, user_id)
+VALUES
+(1, 'Ivan task1', '2023-05-01', '2025-05-30', 0, 2),
+(2, 'Ivan task2', '2023-05-10', '2025-05-20', 1, 2),
+(3, 'Ivan task3', '2023-05-20', NULL, 0, 2),
+(4, 'Ivan task4', '2023-05-30', '2025-05-11', 0, 2),
+(5, 'Katya task1', '2023-07-01', '2025-05-11', 0, 3),
+(6, 'Katya task2', '2023-07-10', '2025-05-20', 0, 3);
@@ -0,0 +1,25 @@
+-- Tables of task api as of db.changelog-6.0.sql
+CREATE TABLE IF NOT EXISTS users (
+    id bigint PRIMARY KEY,
+    username varchar(128) UNIQUE NOT NULL,
+    password varchar(128) NOT NULL,
+    full_name varchar(128),
+    date_of_birth date,
+    role varchar(20) NOT NULL,
+    is_non_locked boolean NOT NULL,
+    create_at timestamp,
+    modified_at timestamp
+);
+
+CREATE TABLE IF NOT EXISTS task (
+    id bigint PRIMARY KEY,
+    description text NOT NULL,
+    date_of_creation date NOT NULL,
+    due_date date,
+    status smallint NOT NULL DEFAULT 0 CHECK (status IN (0, 1)),
+    user_id int REFERENCES users(id) ON DELETE CASCADE,
+    create_at timestamp,
+    modified_at timestamp,
+    created_by varchar(64),
+    modified_by varchar(64)
+);
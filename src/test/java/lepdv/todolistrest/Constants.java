@@ -1,6 +1,7 @@
 package lepdv.todolistrest;
 
 
+import lepdv.todolistrest.cache.UserIdentity;
 import lepdv.todolistrest.dto.admin.UserForAdminDto;
 import lepdv.todolistrest.dto.auth.RegisterDto;
 import lepdv.todolistrest.dto.task.CreateTaskDto;
@@ -9,6 +10,7 @@ import lepdv.todolistrest.dto.task.UpdateTaskDto;
 import lepdv.todolistrest.dto.user.UserDto;
 import lepdv.todolistrest.entity.Role;
 import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.TaskStatus;
 import lepdv.todolistrest.entity.User;
 import lombok.experimental.UtilityClass;
 
@@ -50,13 +52,16 @@ public class Constants {
 
     public static final List<User> USER_LIST = List.of(ADMIN, USER, KATYA);
 
+    public static final UserIdentity USER_IDENTITY = UserIdentity.of(USER);
+    public static final UserIdentity ADMIN_IDENTITY = UserIdentity.of(ADMIN);
+
 
     public static final Task TASK = Task.builder()
             .id(1L)
             .description("Ivan task1")
             .dateOfCreation(LocalDate.of(2023, Month.MAY, 1))
             .dueDate(LocalDate.of(2025, Month.MAY, 11))
-            .isCompleted("Not completed")
+            .status(TaskStatus.OPEN)
             .user(USER)
             .build();
     public static final Task TASK_2 = Task.builder()
@@ -64,7 +69,7 @@ public class Constants {
             .description("Ivan task2")
             .dateOfCreation(LocalDate.of(2023, Month.MAY, 10))
             .dueDate(LocalDate.of(2025, Month.MAY, 20))
-            .isCompleted("Not completed")
+            .status(TaskStatus.OPEN)
             .user(USER)
             .build();
     public static final Task TASK_3 = Task.builder()
@@ -72,7 +77,7 @@ public class Constants {
             .description("Ivan task3")
             .dateOfCreation(LocalDate.of(2023, Month.MAY, 20))
             .dueDate(LocalDate.of(2025, Month.MAY, 30))
-            .isCompleted("Not completed")
+            .status(TaskStatus.OPEN)
             .user(USER)
             .build();
     public static final Task TASK_4 = Task.builder()
@@ -80,7 +85,7 @@ public class Constants {
             .description("Katya task1")
             .dateOfCreation(LocalDate.of(2023, Month.JULY, 1))
             .dueDate(LocalDate.of(2025, Month.MAY, 11))
-            .isCompleted("Not completed")
+            .status(TaskStatus.OPEN)
             .user(KATYA)
             .build();
     public static final Task TASK_5 = Task.builder()
@@ -88,7 +93,7 @@ public class Constants {
             .description("Katya task2")
             .dateOfCreation(LocalDate.of(2023, Month.JULY, 10))
             .dueDate(LocalDate.of(2025, Month.MAY, 20))
-            .isCompleted("Not completed")
+            .status(TaskStatus.OPEN)
             .user(KATYA)
             .build();
     public static final Task TASK_6 = Task.builder()
@@ -96,7 +101,7 @@ public class Constants {
             .description("Katya task3")
             .dateOfCreation(LocalDate.of(2023, Month.JULY, 20))
             .dueDate(LocalDate.of(2025, Month.MAY, 30))
-            .isCompleted("Not completed")
+            .status(TaskStatus.OPEN)
             .user(KATYA)
             .build();
 
@@ -0,0 +1,100 @@
+package lepdv.todolistrest.integration.audit;
+
+import lepdv.todolistrest.audit.AsyncAuditWriter;
+import lepdv.todolistrest.dto.task.BatchResultDto;
+import lepdv.todolistrest.dto.task.BatchTaskDto;
+import lepdv.todolistrest.dto.task.CreateTaskDto;
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.entity.Revision;
+import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.TaskStatus;
+import lepdv.todolistrest.integration.IT;
+import lepdv.todolistrest.repository.TaskRepository;
+import lepdv.todolistrest.service.TaskService;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.history.Revisions;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.data.history.RevisionMetadata.RevisionType.INSERT;
+import static org.springframework.data.history.RevisionMetadata.RevisionType.UPDATE;
+
+
+/**
+ * Transactions of these tests commit, otherwise nothing is submitted to the audit writer.
+ */
+@IT
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"audit.mode=async",
+                                  "audit.async.durability=wal",
+                                  "audit.async.wal-file=build/tmp/audit-it.wal"})
+@WithMockUser(username = "Ivan", authorities = "USER")
+@RequiredArgsConstructor
+class AsyncAuditIT {
+
+    private final TaskService taskService;
+    private final TaskRepository taskRepository;
+    private final AsyncAuditWriter auditWriter;
+
+
+
+
+    @Test
+    void create_shouldWriteRevisionInBackground() throws InterruptedException {
+        ResponseTaskDto createdTask = taskService.create(new CreateTaskDto("Ivan task4", LocalDate.now()));
+
+        Revisions<Integer, Task> revisions = awaitRevisions(createdTask.getId(), 1);
+
+        assertEquals(INSERT, revisions.getLatestRevision().getMetadata().getRevisionType());
+        Task audited = revisions.getLatestRevision().getEntity();
+        Task saved = taskService.getTask(createdTask.getId());
+        assertEquals("Ivan task4", audited.getDescription());
+        assertEquals(saved.getModifiedAt().truncatedTo(ChronoUnit.MILLIS),
+                audited.getModifiedAt().truncatedTo(ChronoUnit.MILLIS));
+        Revision revision = revisions.getLatestRevision().getMetadata().getDelegate();
+        assertEquals("Ivan", revision.getModifiedBy());
+    }
+
+    @Test
+    void batch_shouldWriteOneRevisionPerTransaction() throws InterruptedException {
+        Long completedId = taskService.create(new CreateTaskDto("Ivan task4", LocalDate.now())).getId();
+        awaitRevisions(completedId, 1);
+        final BatchTaskDto batchTaskDto = BatchTaskDto.builder()
+                .create(List.of(new CreateTaskDto("Ivan task5", LocalDate.now())))
+                .markAsCompleted(List.of(completedId))
+                .build();
+
+        BatchResultDto batchResult = taskService.batch(batchTaskDto);
+
+        Long createdId = batchResult.getResults().get(0).getId();
+        Revisions<Integer, Task> createdRevisions = awaitRevisions(createdId, 1);
+        Revisions<Integer, Task> completedRevisions = awaitRevisions(completedId, 2);
+        assertEquals(UPDATE, completedRevisions.getLatestRevision().getMetadata().getRevisionType());
+        assertEquals(TaskStatus.COMPLETED, completedRevisions.getLatestRevision().getEntity().getStatus());
+        assertEquals(createdRevisions.getLatestRevision().getRequiredRevisionNumber(),
+                completedRevisions.getLatestRevision().getRequiredRevisionNumber());
+    }
+
+
+
+    private Revisions<Integer, Task> awaitRevisions(Long taskId, int count) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Revisions<Integer, Task> revisions = taskRepository.findRevisions(taskId);
+            if (revisions.getContent().size() >= count && auditWriter.queueSize() == 0) {
+                return revisions;
+            }
+            Thread.sleep(50);
+        }
+        return fail("Revisions of task with id=" + taskId + " weren't written");
+    }
+
+
+}
@@ -0,0 +1,129 @@
+package lepdv.todolistrest.integration.audit;
+
+import lepdv.todolistrest.audit.AuditRetentionJob;
+import lepdv.todolistrest.audit.AuditRetentionJob.RetentionResult;
+import lepdv.todolistrest.integration.IT;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+@IT
+@TestPropertySource(properties = {"audit.retention.enabled=true",
+                                  "audit.retention.keep-last=1",
+                                  "audit.retention.keep-days=30",
+                                  "audit.retention.chunk-size=1",
+                                  "audit.retention.archive-dir=build/tmp/audit-archive-it"})
+@RequiredArgsConstructor
+class AuditRetentionJobIT {
+
+    private static final Path ARCHIVE_DIR = Path.of("build/tmp/audit-archive-it");
+
+    private final AuditRetentionJob auditRetentionJob;
+    private final JdbcTemplate jdbcTemplate;
+
+
+
+
+    /**
+     * Task 1 has two old revisions and a fresh one, task 2 has one old revision,
+     * user 2 has one old revision which shares revision 9002 with task 1.
+     */
+    @BeforeEach
+    void insertRevisions() throws IOException {
+        long old = System.currentTimeMillis() - Duration.ofDays(60).toMillis();
+        insertRevision(9001, old);
+        insertRevision(9002, old);
+        insertRevision(9003, System.currentTimeMillis());
+        insertRevision(9004, old);
+        insertTaskAud(1, 9001);
+        insertTaskAud(1, 9002);
+        insertTaskAud(1, 9003);
+        insertTaskAud(2, 9004);
+        jdbcTemplate.update("INSERT INTO users_aud (id, rev, revtype, username) VALUES (2, 9002, 1, 'Ivan')");
+        try (Stream<Path> files = Files.exists(ARCHIVE_DIR) ? Files.list(ARCHIVE_DIR) : Stream.empty()) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+
+
+    @Test
+    void run_shouldDeleteRowsOutsideRetentionInChunks() {
+        RetentionResult actualResult = auditRetentionJob.run();
+
+        assertEquals(new RetentionResult(2, 0, 1), actualResult);
+        assertEquals(List.of(9003, 9004), jdbcTemplate.queryForList(
+                "SELECT rev FROM task_aud WHERE rev > 9000 ORDER BY rev", Integer.class));
+        assertEquals(List.of(9002, 9003, 9004), jdbcTemplate.queryForList(
+                "SELECT id FROM revision WHERE id > 9000 ORDER BY id", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users_aud WHERE rev = 9002", Integer.class));
+    }
+
+    @Test
+    void run_shouldArchivePrunedRows() throws IOException {
+        auditRetentionJob.run();
+
+        List<String> lines;
+        try (Stream<Path> files = Files.list(ARCHIVE_DIR)) {
+            Path archive = files.findFirst().orElseThrow();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+                lines = reader.lines().toList();
+            }
+        }
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("\"table\":\"task_aud\""));
+        assertTrue(lines.get(0).contains("\"rev\":9001"));
+        assertTrue(lines.get(2).contains("\"table\":\"revision\""));
+    }
+
+    @Test
+    void run_shouldNotOverwriteArchiveOfPreviousRun() throws IOException {
+        auditRetentionJob.run();
+        auditRetentionJob.run();
+
+        List<Long> lineCounts = new ArrayList<>();
+        try (Stream<Path> files = Files.list(ARCHIVE_DIR)) {
+            for (Path archive : files.toList()) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+                    lineCounts.add(reader.lines().count());
+                }
+            }
+        }
+        lineCounts.sort(null);
+        assertEquals(List.of(0L, 3L), lineCounts);
+    }
+
+
+
+    private void insertRevision(int id, long timestamp) {
+        jdbcTemplate.update("INSERT INTO revision (id, timestamp, modified_by) VALUES (?, ?, 'Admin')", id, timestamp);
+    }
+
+    private void insertTaskAud(int id, int rev) {
+        jdbcTemplate.update("INSERT INTO task_aud (id, rev, revtype, description) VALUES (?, ?, 1, 'Task')", id, rev);
+    }
+
+
+}
@@ -0,0 +1,60 @@
+package lepdv.todolistrest.integration.config;
+
+import lepdv.todolistrest.integration.IT;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+@IT
+@TestPropertySource(properties = "virtual-threads.enabled=true")
+@RequiredArgsConstructor
+class VirtualThreadsConfigIT {
+
+    @Qualifier("applicationTaskExecutor")
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final ObjectProvider<TomcatProtocolHandlerCustomizer<?>> protocolHandlerCustomizers;
+
+
+
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void applicationTaskExecutor_shouldRunTasksOnVirtualThreads() throws Exception {
+        assertTrue(applicationTaskExecutor.submit(VirtualThreadsConfigIT::isVirtualThread).get());
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void protocolHandlerCustomizer_shouldBeRegistered() {
+        assertEquals(1, protocolHandlerCustomizers.stream().count());
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void applicationTaskExecutor_shouldRunTasksOnPlatformThreads_whenRuntimeIsOlderThanJava21() throws Exception {
+        assertFalse(applicationTaskExecutor.submit(VirtualThreadsConfigIT::isVirtualThread).get());
+        assertEquals(0, protocolHandlerCustomizers.stream().count());
+    }
+
+
+
+    /** {@code Thread.isVirtual()}, which isn't in the Java 17 api the tests compile against. */
+    private static boolean isVirtualThread() throws ReflectiveOperationException {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -17,7 +17,6 @@ import lepdv.todolistrest.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -45,7 +44,7 @@ class AdminControllerIT /*extends IntegrationTestBase*/ {
     private final MockMvc mockMvc;
     private final AdminService adminService;
     private final UserService userService;
-    private final Mapper mapper = new Mapper(new ModelMapper());
+    private final Mapper mapper = new Mapper();
     private final ObjectMapper jsonMapper = JsonMapper.builder()
             .findAndAddModules()
             .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
@@ -403,6 +402,37 @@ class AdminControllerIT /*extends IntegrationTestBase*/ {
     }
 
 
+    @Test
+    void getTaskRevisions_shouldGetREWithRevisionListDto() throws Exception {
+        final RequestBuilder request = get("/api/v2/admin/tasks/" + TASK.getId() + "/revisions")
+                .param("view", "DIFF");
+
+        mockMvc.perform(request)
+                .andExpectAll(
+                        openApi().isValid("static/openapi.yaml"),
+                        status().isOk(),
+                        content().contentType(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                {
+                                  "revisionList": []
+                                }""")
+                );
+    }
+
+    @Test
+    void getUserRevisions_shouldGetREWithErrorsBody_whenNotExist() throws Exception {
+        final RequestBuilder request = get("/api/v2/admin/users/999/revisions");
+
+        mockMvc.perform(request)
+                .andExpectAll(
+                        openApi().isValid("static/openapi.yaml"),
+                        status().isNotFound(),
+                        content().contentType(MediaType.APPLICATION_JSON),
+                        content().json(getUserNotFoundErrorsBody())
+                );
+    }
+
+
 
     @NotNull
     private String getUserNotFoundErrorsBody() {
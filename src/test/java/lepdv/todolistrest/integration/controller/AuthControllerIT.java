@@ -3,20 +3,31 @@ package lepdv.todolistrest.integration.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.persistence.EntityManagerFactory;
 import lepdv.todolistrest.dto.auth.CredentialsDto;
+import lepdv.todolistrest.dto.auth.JwtDto;
+import lepdv.todolistrest.dto.auth.RefreshTokenDto;
 import lepdv.todolistrest.dto.auth.RegisterDto;
 import lepdv.todolistrest.integration.IT;
 import lepdv.todolistrest.service.AdminService;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.List;
 
 import static com.atlassian.oai.validator.OpenApiInteractionValidator.createFor;
 import static com.atlassian.oai.validator.mockmvc.OpenApiValidationMatchers.openApi;
@@ -24,6 +35,9 @@ import static com.atlassian.oai.validator.whitelist.ValidationErrorsWhitelist.cr
 import static com.atlassian.oai.validator.whitelist.rule.WhitelistRules.messageHasKey;
 import static lepdv.todolistrest.Constants.REGISTER_DTO;
 import static lepdv.todolistrest.Constants.USER;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,8 +47,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @RequiredArgsConstructor
 class AuthControllerIT /*extends IntegrationTestBase*/ {
 
+    private static final String COUNT_REFRESH_TOKENS = "SELECT count(*) FROM refresh_token";
+
     private final MockMvc mockMvc;
     private final AdminService adminService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper jsonMapper = JsonMapper.builder()
             .findAndAddModules()
             .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
@@ -60,6 +78,25 @@ class AuthControllerIT /*extends IntegrationTestBase*/ {
                 );
     }
 
+    /** Counts statements of JPA only: the refresh token is inserted by plain jdbc, Hibernate doesn't see it. */
+    @Test
+    void performLogin_shouldExecuteOneJpaStatementAndInsertRefreshToken_whenCorrectCredentials() throws Exception {
+        final CredentialsDto credentialsDto = new CredentialsDto("Ivan", "Ivan");
+        final String jsonCredentialsDto = jsonMapper.writeValueAsString(credentialsDto);
+        final RequestBuilder request = post("/api/v2/authenticate/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonCredentialsDto);
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        final Long refreshTokensBefore = jdbcTemplate.queryForObject(COUNT_REFRESH_TOKENS, Long.class);
+        statistics.clear();
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(refreshTokensBefore + 1, jdbcTemplate.queryForObject(COUNT_REFRESH_TOKENS, Long.class));
+    }
+
     @Test
     void performLogin_shouldGetREWithErrorsBody_whenIncorrectCredentials() throws Exception {
         final CredentialsDto credentialsDto = new CredentialsDto("Ivan", "dummy");
@@ -112,6 +149,18 @@ class AuthControllerIT /*extends IntegrationTestBase*/ {
 
 
 
+    @Test
+    void performRequest_shouldGetForbidden_whenUserIsLockedAfterLogin() throws Exception {
+        final String authorization = "Bearer " + login().getJwt();
+        mockMvc.perform(get("/api/v2/tasks/todo-list").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isOk());
+
+        lockUserAsAdmin(USER.getId());
+
+        mockMvc.perform(get("/api/v2/tasks/todo-list").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void register_shouldGetREWithJwtDto_whenDataIsValid() throws Exception {
         final String jsonRegisterDto = jsonMapper.writeValueAsString(REGISTER_DTO);
@@ -161,18 +210,66 @@ class AuthControllerIT /*extends IntegrationTestBase*/ {
     }
 
 
-}
-
-
-
-
-
+    @Test
+    void refresh_shouldGetREWithNewTokens_whenRefreshTokenIsValid() throws Exception {
+        final String refreshToken = loginAndGetRefreshToken();
+        final RequestBuilder request = post("/api/v2/authenticate/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonMapper.writeValueAsString(new RefreshTokenDto(refreshToken)));
 
+        mockMvc.perform(request)
+                .andExpectAll(
+                        openApi().isValid("static/openapi.yaml"),
+                        status().isOk(),
+                        content().contentType(MediaType.APPLICATION_JSON),
+                        jsonPath("$.jwt").exists(),
+                        jsonPath("$.refreshToken").value(not(refreshToken))
+                );
+    }
 
+    @Test
+    void refresh_shouldGetREWithErrorsBody_whenRefreshTokenIsUsedTwice() throws Exception {
+        final String jsonRefreshTokenDto = jsonMapper.writeValueAsString(
+                new RefreshTokenDto(loginAndGetRefreshToken()));
+        mockMvc.perform(post("/api/v2/authenticate/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRefreshTokenDto))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v2/authenticate/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRefreshTokenDto))
+                .andExpectAll(
+                        openApi().isValid("static/openapi.yaml"),
+                        status().isBadRequest(),
+                        jsonPath("$.errors[0]").value("Invalid refresh token")
+                );
+    }
 
 
 
+    private String loginAndGetRefreshToken() throws Exception {
+        return login().getRefreshToken();
+    }
 
+    private JwtDto login() throws Exception {
+        final String response = mockMvc.perform(post("/api/v2/authenticate/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(new CredentialsDto("Ivan", "Ivan"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return jsonMapper.readValue(response, JwtDto.class);
+    }
 
+    private void lockUserAsAdmin(Long id) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "Admin", null, List.of(new SimpleGrantedAuthority("ADMIN"))));
+        try {
+            adminService.lockUser(id);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
 
 
+}
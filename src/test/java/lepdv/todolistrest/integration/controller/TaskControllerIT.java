@@ -3,6 +3,7 @@ package lepdv.todolistrest.integration.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import lepdv.todolistrest.dto.task.BatchTaskDto;
 import lepdv.todolistrest.dto.task.CreateTaskDto;
 import lepdv.todolistrest.dto.task.ResponseTaskDto;
 import lepdv.todolistrest.dto.task.TaskListDto;
@@ -10,16 +11,20 @@ import lepdv.todolistrest.dto.task.UpdateTaskDto;
 import lepdv.todolistrest.entity.Task;
 import lepdv.todolistrest.integration.IT;
 import lepdv.todolistrest.mapper.Mapper;
+import lepdv.todolistrest.search.LuceneTaskSearchEngine;
 import lepdv.todolistrest.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.Month;
@@ -33,6 +38,8 @@ import static org.junit.Assert.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -43,8 +50,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class TaskControllerIT /*extends IntegrationTestBase*/ {
 
     private final TaskService taskService;
+    private final LuceneTaskSearchEngine searchEngine;
     private final MockMvc mockMvc;
-    private final Mapper mapper = new Mapper(new ModelMapper());
+    private final Mapper mapper = new Mapper();
     private final ObjectMapper jsonMapper = JsonMapper.builder()
             .findAndAddModules()
             .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
@@ -60,25 +68,85 @@ class TaskControllerIT /*extends IntegrationTestBase*/ {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(jsonCreateTaskDto);
 
-        mockMvc.perform(request)
+        MvcResult result = mockMvc.perform(request)
                 .andExpectAll(
                         openApi().isValid("static/oldOpenapi.yaml"),
                         status().isCreated(),
                         content().contentType(MediaType.APPLICATION_JSON),
                         content().json("""
                                 {
-                                  "id": 7,
                                   "description": "Ivan task4",
                                   "dueDate": "2026-05-11",
                                   "isCompleted": "Not completed",
                                   "user": "Ivan"
                                 }
                                 """)
-                );
-        Task createdTask = taskService.getTask(7L);
+                )
+                .andReturn();
+        Long id = jsonMapper.readValue(result.getResponse().getContentAsString(), ResponseTaskDto.class).getId();
+        Task createdTask = taskService.getTask(id);
         assertNotNull(createdTask);
     }
 
+    @Test
+    void batchTasks_shouldGetREWithBatchResultDto() throws Exception {
+        final BatchTaskDto batchTaskDto = BatchTaskDto.builder()
+                .create(List.of(new CreateTaskDto("Ivan task4", LocalDate.now().plusDays(1))))
+                .markAsCompleted(List.of(TASK.getId(), TASK_4.getId()))
+                .delete(List.of(999L))
+                .build();
+        final String jsonBatchTaskDto = jsonMapper.writeValueAsString(batchTaskDto);
+        final RequestBuilder request = post("/api/v2/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(jsonBatchTaskDto);
+
+        mockMvc.perform(request)
+                .andExpectAll(
+                        openApi().isValid("static/openapi.yaml"),
+                        status().isOk(),
+                        content().contentType(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                {
+                                  "results": [
+                                    {"operation": "create", "index": 0, "status": 201,
+                                     "task": {"description": "Ivan task4", "user": "Ivan"}},
+                                    {"operation": "markAsCompleted", "index": 0, "id": 1, "status": 200},
+                                    {"operation": "markAsCompleted", "index": 1, "id": 4, "status": 400,
+                                     "error": "Task with id=4 belongs to another user"},
+                                    {"operation": "delete", "index": 0, "id": 999, "status": 404,
+                                     "error": "There is no task with id=999 in database"}
+                                  ]
+                                }
+                                """)
+                );
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void importTasks_shouldGetREWithImportResultDto() throws Exception {
+        final RequestBuilder request = post("/api/v2/tasks/import?format=CSV")
+                .contentType("text/csv")
+                .content("""
+                        description,dueDate
+                        Ivan task4,%1$s
+                        ,%1$s
+                        """.formatted(LocalDate.now()));
+
+        mockMvc.perform(request)
+                .andExpectAll(
+                        openApi().isValid("static/openapi.yaml"),
+                        status().isOk(),
+                        content().contentType(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                {
+                                  "imported": 1,
+                                  "rejected": 1,
+                                  "errors": [{"line": 3, "error": "description - can't be empty; "}]
+                                }
+                                """, true)
+                );
+    }
+
     @Test
     void createTask_shouldGetREWithErrorsBody_whenDataIsInvalid() throws Exception {
         final CreateTaskDto createTaskDto = CreateTaskDto.builder()
@@ -146,6 +214,64 @@ class TaskControllerIT /*extends IntegrationTestBase*/ {
                 );
     }
 
+    @Test
+    void getTodoList_shouldGetREWithFilteredTaskListDtoOfAuthUser_whenFilterParams() throws Exception {
+        final List<ResponseTaskDto> responseTaskDtoList = Stream.of(TASK_2, TASK_3)
+                .map(mapper::mapToResponseTaskDto)
+                .toList();
+        final TaskListDto taskListDto = new TaskListDto(responseTaskDtoList);
+        final String jsonTaskListDto = jsonMapper.writeValueAsString(taskListDto);
+        final RequestBuilder request = get("/api/v2/tasks/todo-list" +
+                "?status=OPEN&dueAfter=2025-05-11&createdTo=2023-05-31&sort=DUE_DATE");
+
+        mockMvc.perform(request)
+                .andExpectAll(
+                        openApi().isValid("static/openapi.yaml"),
+                        status().isOk(),
+                        content().contentType(MediaType.APPLICATION_JSON),
+                        content().json(jsonTaskListDto)
+                );
+    }
+
+    @Test
+    void searchTasks_shouldGetREWithFoundTaskListDtoOfAuthUser() throws Exception {
+        searchEngine.reindex();
+        final TaskListDto taskListDto = new TaskListDto(List.of(mapper.mapToResponseTaskDto(TASK_2)));
+        final String jsonTaskListDto = jsonMapper.writeValueAsString(taskListDto);
+        final RequestBuilder request = get("/api/v2/tasks/search?q=task2");
+
+        mockMvc.perform(request)
+                .andExpectAll(
+                        openApi().isValid("static/openapi.yaml"),
+                        status().isOk(),
+                        content().contentType(MediaType.APPLICATION_JSON),
+                        content().json(jsonTaskListDto, true)
+                );
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void exportTasks_shouldStreamCsvOfAuthUserTasks() throws Exception {
+        final RequestBuilder request = get("/api/v2/tasks/export?format=CSV");
+
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpectAll(
+                        openApi().isValid("static/openapi.yaml"),
+                        status().isOk(),
+                        content().contentType("text/csv"),
+                        header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\""),
+                        content().string("""
+                                id,description,dateOfCreation,dueDate,isCompleted,user
+                                1,Ivan task1,2023-05-01,2025-05-11,Not completed,Ivan
+                                2,Ivan task2,2023-05-10,2025-05-20,Not completed,Ivan
+                                3,Ivan task3,2023-05-20,2025-05-30,Not completed,Ivan
+                                """)
+                );
+    }
+
     @Test
     void getTodoList_shouldGetREWithEmptyTaskListDtoOfAuthUser_whenNoTasksByCustomParams() throws Exception {
         final TaskListDto taskListDto = new TaskListDto(emptyList());
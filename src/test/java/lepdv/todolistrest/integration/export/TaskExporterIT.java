@@ -0,0 +1,64 @@
+package lepdv.todolistrest.integration.export;
+
+import lepdv.todolistrest.export.ExportFormat;
+import lepdv.todolistrest.export.TaskExporter;
+import lepdv.todolistrest.integration.IT;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static lepdv.todolistrest.Constants.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+@IT
+@RequiredArgsConstructor
+class TaskExporterIT {
+
+    private final TaskExporter taskExporter;
+    private final JdbcTemplate jdbcTemplate;
+
+
+
+
+    @Test
+    void export_shouldWriteTasksOfUserAsJsonLines() throws IOException {
+        String actualResult = export(USER.getId(), ExportFormat.NDJSON);
+
+        assertEquals("""
+                {"id":1,"description":"Ivan task1","dateOfCreation":"2023-05-01","dueDate":"2025-05-11","isCompleted":"Not completed","user":"Ivan"}
+                {"id":2,"description":"Ivan task2","dateOfCreation":"2023-05-10","dueDate":"2025-05-20","isCompleted":"Not completed","user":"Ivan"}
+                {"id":3,"description":"Ivan task3","dateOfCreation":"2023-05-20","dueDate":"2025-05-30","isCompleted":"Not completed","user":"Ivan"}
+                """, actualResult);
+    }
+
+    @Test
+    void export_shouldWriteTasksOfAllUsersAsCsv() throws IOException {
+        jdbcTemplate.update("UPDATE task SET description = ?, due_date = NULL, status = 1 WHERE id = 4",
+                "Katya \"task\", first");
+
+        String actualResult = export(null, ExportFormat.CSV);
+
+        assertEquals("""
+                id,description,dateOfCreation,dueDate,isCompleted,user
+                1,Ivan task1,2023-05-01,2025-05-11,Not completed,Ivan
+                2,Ivan task2,2023-05-10,2025-05-20,Not completed,Ivan
+                3,Ivan task3,2023-05-20,2025-05-30,Not completed,Ivan
+                4,"Katya ""task"", first",2023-07-01,,Completed,Katya
+                5,Katya task2,2023-07-10,2025-05-20,Not completed,Katya
+                6,Katya task3,2023-07-20,2025-05-30,Not completed,Katya
+                """, actualResult);
+    }
+
+
+
+    private String export(Long userId, ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskExporter.export(userId, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,193 @@
+package lepdv.todolistrest.integration.export;
+
+import lepdv.todolistrest.dto.revision.RevisionDto;
+import lepdv.todolistrest.dto.revision.RevisionView;
+import lepdv.todolistrest.dto.task.CreateTaskDto;
+import lepdv.todolistrest.dto.task.ImportErrorDto;
+import lepdv.todolistrest.dto.task.ImportResultDto;
+import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.export.ExportFormat;
+import lepdv.todolistrest.integration.IT;
+import lepdv.todolistrest.service.RevisionService;
+import lepdv.todolistrest.service.TaskSearchService;
+import lepdv.todolistrest.service.TaskService;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static lepdv.todolistrest.Constants.USER;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Transactions of these tests commit: the importer inserts and indexes tasks batch by batch.
+ */
+@IT
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"import.batch-size=2", "import.max-line-length=200"})
+@WithMockUser(username = "Ivan", authorities = "USER")
+@RequiredArgsConstructor
+class TaskImporterIT {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final TaskService taskService;
+    private final TaskSearchService taskSearchService;
+    private final RevisionService revisionService;
+    private final JdbcTemplate jdbcTemplate;
+
+
+
+
+    @Test
+    void importTasks_shouldInsertValidJsonLinesAndReportInvalid() throws IOException {
+        String json = """
+                {"description":"Imported task1","dueDate":"%1$s"}
+                {"description":"","dueDate":"%1$s"}
+
+                {"description":"Imported task2"}
+                {"description":"Imported task3","dueDate":"2020-01-01"}
+                {"description":"Imported task4","dueDate":"not a date"}
+                {"description":"Imported task5","dueDate":"%1$s","isCompleted":"Completed","user":"Katya"}
+                """.formatted(TODAY);
+
+        ImportResultDto actualResult = taskService.importTasks(ExportFormat.NDJSON, stream(json));
+
+        assertEquals(3, actualResult.getImported());
+        assertEquals(3, actualResult.getRejected());
+        assertEquals(List.of(2, 5, 6), actualResult.getErrors().stream().map(ImportErrorDto::getLine).toList());
+        assertEquals("description - can't be empty; ", actualResult.getErrors().get(0).getError());
+        assertEquals("dueDate - can't be in Past; ", actualResult.getErrors().get(1).getError());
+        assertTrue(actualResult.getErrors().get(2).getError().startsWith("json - "));
+        assertEquals(List.of("Imported task1", "Imported task2", "Imported task5"), importedDescriptions());
+        assertEquals(3, taskSearchService.search("imported", 0, 20).getTaskList().size());
+    }
+
+    @Test
+    void importTasks_shouldRejectJsonLinesWhichAreNotObjects() throws IOException {
+        String json = """
+                null
+                ["Imported task1"]
+                "Imported task2"
+                5
+                {"description":"Imported task3"}
+                """;
+
+        ImportResultDto actualResult = taskService.importTasks(ExportFormat.NDJSON, stream(json));
+
+        assertEquals(1, actualResult.getImported());
+        assertEquals(List.of(1, 2, 3, 4), actualResult.getErrors().stream().map(ImportErrorDto::getLine).toList());
+        assertEquals("json - must be an object; ", actualResult.getErrors().get(0).getError());
+        assertEquals(List.of("Imported task3"), importedDescriptions());
+    }
+
+    @Test
+    void importTasks_shouldRejectJsonLinesWhichAreTooLong() throws IOException {
+        String json = """
+                {"description":"Imported task1"}
+                {"description":"%s"}
+                {"description":"Imported task2"}
+                """.formatted("x".repeat(300));
+
+        ImportResultDto actualResult = taskService.importTasks(ExportFormat.NDJSON, stream(json));
+
+        assertEquals(List.of(new ImportErrorDto(2, "line - can't be longer than 200 characters; ")),
+                actualResult.getErrors());
+        assertEquals(List.of("Imported task1", "Imported task2"), importedDescriptions());
+    }
+
+    @Test
+    void importTasks_shouldRejectCsvRecordsWhichAreTooLong() throws IOException {
+        String csv = """
+                description
+                "%1$s
+                %1$s"
+                Imported task1
+                %2$s
+                Imported task2
+                """.formatted("x".repeat(150), "x".repeat(300));
+
+        ImportResultDto actualResult = taskService.importTasks(ExportFormat.CSV, stream(csv));
+
+        assertEquals(List.of(new ImportErrorDto(2, "record - can't be longer than 200 characters; "),
+                new ImportErrorDto(5, "record - can't be longer than 200 characters; ")), actualResult.getErrors());
+        assertEquals(List.of("Imported task1", "Imported task2"), importedDescriptions());
+    }
+
+    @Test
+    void importTasks_shouldInsertCsvRowsByHeader() throws IOException {
+        String csv = """
+                id,dueDate,description,user
+                1,%1$s,"Imported, ""quoted""
+                task",Katya
+                2,,Imported task2,Katya
+                3,%1$s,,Katya
+                """.formatted(TODAY);
+
+        ImportResultDto actualResult = taskService.importTasks(ExportFormat.CSV, stream(csv));
+
+        assertEquals(2, actualResult.getImported());
+        assertEquals(List.of(new ImportErrorDto(5, "description - can't be empty; ")), actualResult.getErrors());
+        assertEquals(List.of("Imported, \"quoted\"\ntask", "Imported task2"), importedDescriptions());
+    }
+
+    @Test
+    void importTasks_shouldThrowUnitedException_whenCsvHasNoDescriptionColumn() {
+        assertThrows(UnitedException.class,
+                () -> taskService.importTasks(ExportFormat.CSV, stream("id,dueDate\n1,2030-01-01\n")));
+    }
+
+    @Test
+    void importTasks_shouldWriteAddRevisionOfImportedTasks() throws IOException {
+        taskService.importTasks(ExportFormat.NDJSON, stream("""
+                {"description":"Imported task1","dueDate":"%s"}
+                """.formatted(TODAY)));
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM task WHERE description = 'Imported task1'", Long.class);
+
+        List<RevisionDto> revisions = revisionService.getTaskRevisions(id, 10, null, RevisionView.SNAPSHOT)
+                .getRevisionList();
+
+        assertEquals(1, revisions.size());
+        assertEquals("ADD", revisions.get(0).getType());
+        assertEquals("Ivan", revisions.get(0).getModifiedBy());
+        assertEquals("Imported task1", revisions.get(0).getFields().get("description"));
+        assertEquals(TODAY, revisions.get(0).getFields().get("dueDate"));
+    }
+
+    @Test
+    void importTasks_shouldNotTakeIdsOfTasksCreatedByHibernate() throws IOException {
+        taskService.create(new CreateTaskDto("Created task1", TODAY));
+
+        taskService.importTasks(ExportFormat.NDJSON, stream("""
+                {"description":"Imported task1"}
+                {"description":"Imported task2"}
+                {"description":"Imported task3"}
+                """));
+        taskService.create(new CreateTaskDto("Created task2", TODAY));
+
+        assertEquals(List.of("Created task1", "Imported task1", "Imported task2", "Imported task3", "Created task2"),
+                jdbcTemplate.queryForList("SELECT description FROM task WHERE user_id = ? " +
+                        "AND description NOT LIKE 'Ivan%' ORDER BY modified_at, id", String.class, USER.getId()));
+    }
+
+
+
+    private ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> importedDescriptions() {
+        return jdbcTemplate.queryForList("SELECT description FROM task WHERE user_id = ? " +
+                "AND description LIKE 'Imported%' ORDER BY id", String.class, USER.getId());
+    }
+}
@@ -0,0 +1,124 @@
+package lepdv.todolistrest.integration.repository;
+
+import lepdv.todolistrest.integration.IT;
+import lepdv.todolistrest.integration.IntegrationTestBase;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static lepdv.todolistrest.Constants.TASK;
+import static lepdv.todolistrest.Constants.USER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Plans of the hot queries on PostgreSQL. The few rows of test data are topped up with generated users, tasks
+ * and revisions (rolled back with the test transaction) and analyzed, so the planner costs the queries
+ * against statistics of a realistic volume.
+ */
+@IT
+@Testcontainers(disabledWithoutDocker = true)
+@RequiredArgsConstructor
+class QueryPlanIT extends IntegrationTestBase {
+
+    private final JdbcTemplate jdbcTemplate;
+
+
+
+
+    @BeforeEach
+    void generateDataAndAnalyze() {
+        jdbcTemplate.update("INSERT INTO users (username, password, full_name, role, is_non_locked) " +
+                "SELECT 'user' || lpad(g::text, 5, '0'), 'password', 'full name', 'USER', true " +
+                "FROM generate_series(1, 2000) g");
+        jdbcTemplate.update("INSERT INTO task (description, date_of_creation, due_date, user_id) " +
+                "SELECT 'task ' || g, current_date, current_date + g, u.id " +
+                "FROM users u CROSS JOIN generate_series(1, 25) g WHERE u.username LIKE 'user%'");
+        jdbcTemplate.update("INSERT INTO revision (timestamp, date_time, modified_by) " +
+                "SELECT g, now(), 'user' FROM generate_series(1, 25) g");
+        jdbcTemplate.update("INSERT INTO task_aud (id, rev, revtype, description, date_of_creation) " +
+                "SELECT t.id, r.id, 1, t.description, t.date_of_creation FROM task t CROSS JOIN " +
+                "(SELECT id FROM revision ORDER BY id DESC LIMIT 2) r");
+        jdbcTemplate.update("INSERT INTO users_aud (id, rev, revtype, username, role, is_non_locked) " +
+                "SELECT u.id, r.id, 1, u.username, u.role, u.is_non_locked FROM users u CROSS JOIN " +
+                "(SELECT id FROM revision ORDER BY id DESC LIMIT 25) r");
+        jdbcTemplate.execute("ANALYZE users, task, revision, users_aud, task_aud");
+    }
+
+
+
+    @Test
+    void todoList_shouldUseUserIdIdIndex() {
+        List<String> plan = explain("SELECT * FROM task WHERE user_id = ? ORDER BY id LIMIT 20", USER.getId());
+
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(plan).anyMatch(line -> line.contains("task_user_id_id_idx"));
+    }
+
+    @Test
+    void todoListAfterCursor_shouldUseUserIdIdIndex() {
+        List<String> plan = explain("SELECT * FROM task WHERE user_id = ? AND id > ? ORDER BY id LIMIT 20",
+                USER.getId(), TASK.getId());
+
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(plan).anyMatch(line -> line.contains("task_user_id_id_idx"));
+    }
+
+    @Test
+    void allTasks_shouldUseUsernameAndUserIdIdIndexes() {
+        List<String> plan = explain("SELECT t.* FROM task t JOIN users u ON t.user_id = u.id " +
+                "ORDER BY u.username, t.id LIMIT 20");
+
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(plan).anyMatch(line -> line.contains("users_username_key"));
+        assertThat(plan).anyMatch(line -> line.contains("task_user_id_id_idx"));
+    }
+
+    @Test
+    void allTasksAfterCursor_shouldUseUsernameAndUserIdIdIndexes() {
+        List<String> plan = explain("SELECT t.* FROM task t JOIN users u ON t.user_id = u.id " +
+                "WHERE u.username > ? OR (u.username = ? AND t.id > ?) " +
+                "ORDER BY u.username, t.id LIMIT 20", USER.getUsername(), USER.getUsername(), TASK.getId());
+
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(plan).anyMatch(line -> line.contains("users_username_key"));
+        assertThat(plan).anyMatch(line -> line.contains("task_user_id_id_idx"));
+    }
+
+    @Test
+    void allUsersAfterCursor_shouldUseUsernameIndex() {
+        List<String> plan = explain("SELECT * FROM users WHERE username > ? ORDER BY username LIMIT 20",
+                USER.getUsername());
+
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(plan).anyMatch(line -> line.contains("users_username_key"));
+    }
+
+    @Test
+    void taskRevisions_shouldUseIdRevIndex() {
+        List<String> plan = explain("SELECT * FROM task_aud WHERE id = ? ORDER BY rev", TASK.getId());
+
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(plan).anyMatch(line -> line.contains("task_aud_id_rev_idx"));
+    }
+
+    @Test
+    void userRevisions_shouldUseIdRevIndex() {
+        List<String> plan = explain("SELECT * FROM users_aud WHERE id = ? ORDER BY rev", USER.getId());
+
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(plan).anyMatch(line -> line.contains("users_aud_id_rev_idx"));
+    }
+
+
+
+    private List<String> explain(String sql, Object... args) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args);
+    }
+
+
+}
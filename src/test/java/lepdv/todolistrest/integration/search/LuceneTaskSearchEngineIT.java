@@ -0,0 +1,74 @@
+package lepdv.todolistrest.integration.search;
+
+import lepdv.todolistrest.dto.task.CreateTaskDto;
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.dto.task.UpdateTaskDto;
+import lepdv.todolistrest.integration.IT;
+import lepdv.todolistrest.search.LuceneTaskSearchEngine;
+import lepdv.todolistrest.service.TaskSearchService;
+import lepdv.todolistrest.service.TaskService;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static lepdv.todolistrest.Constants.USER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Transactions of these tests commit, otherwise the index doesn't follow the changes.
+ */
+@IT
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@WithMockUser(username = "Ivan", authorities = "USER")
+@RequiredArgsConstructor
+class LuceneTaskSearchEngineIT {
+
+    private final TaskService taskService;
+    private final TaskSearchService taskSearchService;
+    private final LuceneTaskSearchEngine searchEngine;
+
+
+
+
+    @Test
+    void search_shouldFollowCommittedChanges() {
+        Long milk = taskService.create(new CreateTaskDto("Buy milk and bread", LocalDate.now())).getId();
+        Long bread = taskService.create(new CreateTaskDto("Bread, bread and more bread", LocalDate.now())).getId();
+
+        assertEquals(List.of(bread, milk), ids(taskSearchService.search("bread", 0, 20).getTaskList()));
+        assertEquals(List.of(milk), ids(taskSearchService.search("MILK", 0, 20).getTaskList()));
+
+        taskService.update(milk, new UpdateTaskDto("Buy cheese", LocalDate.now()));
+        taskService.delete(bread);
+
+        assertEquals(List.of(), taskSearchService.search("bread", 0, 20).getTaskList());
+        assertEquals(List.of(milk), ids(taskSearchService.search("cheese", 0, 20).getTaskList()));
+        taskService.delete(milk);
+    }
+
+    @Test
+    void reindex_shouldIndexTasksFromTable() throws IOException {
+        searchEngine.reindex();
+
+        assertEquals(List.of(1L, 2L, 3L), searchEngine.search(USER.getId(), "Ivan task", 0, 20).stream()
+                .sorted()
+                .toList());
+        assertEquals(List.of(2L), searchEngine.search(USER.getId(), "task2", 0, 20));
+        assertEquals(List.of(), searchEngine.search(USER.getId(), "Katya", 0, 20));
+    }
+
+
+
+    private List<Long> ids(List<ResponseTaskDto> tasks) {
+        return tasks.stream()
+                .map(ResponseTaskDto::getId)
+                .toList();
+    }
+}
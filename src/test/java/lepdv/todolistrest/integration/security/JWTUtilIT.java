@@ -1,14 +1,19 @@
 package lepdv.todolistrest.integration.security;
 
 import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureException;
+import lepdv.todolistrest.entity.Role;
+import lepdv.todolistrest.entity.User;
 import lepdv.todolistrest.integration.IT;
 import lepdv.todolistrest.security.JWTUtil;
+import lepdv.todolistrest.security.JwtClaims;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
 
 import static lepdv.todolistrest.Constants.USER;
@@ -27,21 +32,67 @@ class JWTUtilIT {
 
     @Test
     void generateToken_shouldGetJwt_whenDataIsValid() {
-        String actualResult = jwtUtil.generateToken(USER.getUsername());
+        String actualResult = jwtUtil.generateToken(USER);
 
         assertNotNull(actualResult);
     }
 
     @Test
-    void generateToken_shouldThrowException_whenDataIsInvalid() {
-        assertThrows(UsernameNotFoundException.class, () -> jwtUtil.generateToken("dummy"));
+    void generateToken_shouldUseGivenUserWithoutLoadingIt() {
+        final User notSavedUser = User.builder()
+                .id(100L)
+                .username("dummy")
+                .role(Role.USER)
+                .build();
+
+        JwtClaims actualResult = jwtUtil.validateAndDecode(jwtUtil.generateToken(notSavedUser));
+
+        assertEquals("dummy", actualResult.username());
+        assertEquals(100L, actualResult.userId());
+    }
+
+
+
+    @Test
+    void validateAndDecode_shouldGetAllClaims_whenJwtIsValid() {
+        final String jwt = jwtUtil.generateToken(USER);
+
+        JwtClaims actualResult = jwtUtil.validateAndDecode(jwt);
+
+        assertEquals(USER.getUsername(), actualResult.username());
+        assertEquals(USER.getId(), actualResult.userId());
+        assertEquals(List.of(USER.getRole().name()), actualResult.roles());
+        assertTrue(actualResult.expiration().isAfter(Instant.now()));
+    }
+
+    @Test
+    void validateAndDecode_shouldReturnCachedClaims_whenJwtIsVerifiedAgain() {
+        final String jwt = jwtUtil.generateToken(USER);
+
+        JwtClaims first = jwtUtil.validateAndDecode(jwt);
+        JwtClaims second = jwtUtil.validateAndDecode(jwt);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void validateAndDecode_shouldThrowException_whenJwtIsTampered() {
+        final String jwt = jwtUtil.generateToken(USER);
+        jwtUtil.validateAndDecode(jwt);
+        final int signatureStart = jwt.lastIndexOf('.') + 1;
+        final byte[] signature = Base64.getUrlDecoder().decode(jwt.substring(signatureStart));
+        signature[0] ^= 1;
+        final String tamperedJwt = jwt.substring(0, signatureStart)
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+
+        assertThrows(SignatureException.class, () -> jwtUtil.validateAndDecode(tamperedJwt));
     }
 
 
 
     @Test
     void validateAndRetrieveUsername_shouldGetUsername_whenJwtIsValid() {
-        final String jwt = jwtUtil.generateToken(USER.getUsername());
+        final String jwt = jwtUtil.generateToken(USER);
 
         String actualResult = jwtUtil.validateAndRetrieveUsername(jwt);
 
@@ -57,9 +108,27 @@ class JWTUtilIT {
 
 
 
+    @Test
+    void validateAndRetrieveUserId_shouldGetUserId_whenJwtIsValid() {
+        final String jwt = jwtUtil.generateToken(USER);
+
+        Long actualResult = jwtUtil.validateAndRetrieveUserId(jwt);
+
+        assertEquals(USER.getId(), actualResult);
+    }
+
+    @Test
+    void validateAndRetrieveUserId_shouldThrowException_whenJwtIsInvalid() {
+        final String jwt = "dummy";
+
+        assertThrows(MalformedJwtException.class, () -> jwtUtil.validateAndRetrieveUserId(jwt));
+    }
+
+
+
     @Test
     void validateAndRetrieveRoles_shouldGetRoleList_whenJwtIsValid() {
-        final String jwt = jwtUtil.generateToken(USER.getUsername());
+        final String jwt = jwtUtil.generateToken(USER);
         final List<String> expectedResult = USER.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .toList();
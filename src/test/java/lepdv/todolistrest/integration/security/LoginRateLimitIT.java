@@ -0,0 +1,59 @@
+package lepdv.todolistrest.integration.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lepdv.todolistrest.dto.auth.CredentialsDto;
+import lepdv.todolistrest.integration.IT;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+@IT
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {"login.rate-limit.enabled=true", "login.rate-limit.username.capacity=2"})
+@RequiredArgsConstructor
+class LoginRateLimitIT {
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+
+
+
+
+    @Test
+    void performLogin_shouldGetTooManyRequests_whenFailedAttemptsExceedLimit() throws Exception {
+        mockMvc.perform(login("Katya", "dummy")).andExpect(status().isBadRequest());
+        mockMvc.perform(login("Katya", "dummy")).andExpect(status().isBadRequest());
+
+        mockMvc.perform(login("Katya", "Katya"))
+                .andExpectAll(
+                        status().isTooManyRequests(),
+                        jsonPath("$.type").value("TooManyLoginAttemptsException"),
+                        jsonPath("$.errors[0]", startsWith("Too many login attempts, try again in "))
+                );
+    }
+
+    @Test
+    void performLogin_shouldNotBeLimited_whenAttemptsSucceed() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(login("Ivan", "Ivan")).andExpect(status().isOk());
+        }
+    }
+
+
+
+    private RequestBuilder login(String username, String password) throws Exception {
+        return post("/api/v2/authenticate/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CredentialsDto(username, password)));
+    }
+}
@@ -0,0 +1,35 @@
+package lepdv.todolistrest.integration.security;
+
+import lepdv.todolistrest.integration.IT;
+import lepdv.todolistrest.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+@IT
+@TestPropertySource(properties = "password.hashing.cost=11")
+@RequiredArgsConstructor
+class PasswordRehashIT {
+
+    private final AuthenticationManager authenticationManager;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+
+
+
+    @Test
+    void authenticate_shouldRehashPassword_whenItHasLowerCost() {
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("Ivan", "Ivan"));
+
+        String password = userRepository.findByUsername("Ivan").orElseThrow().getPassword();
+        assertTrue(password.startsWith("$2a$11$"));
+        assertTrue(passwordEncoder.matches("Ivan", password));
+    }
+}
@@ -1,5 +1,6 @@
 package lepdv.todolistrest.integration.service;
 
+import jakarta.persistence.EntityManagerFactory;
 import lepdv.todolistrest.integration.IT;
 import lepdv.todolistrest.dto.admin.UserForAdminDto;
 import lepdv.todolistrest.dto.admin.UserListDto;
@@ -13,6 +14,8 @@ import lepdv.todolistrest.mapper.Mapper;
 import lepdv.todolistrest.service.AdminService;
 import lepdv.todolistrest.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.test.context.support.WithMockUser;
 
@@ -32,6 +35,7 @@ class AdminServiceIT /*extends IntegrationTestBase*/ {
     private final UserService userService;
     private final Mapper mapper;
     private final AdminService adminService;
+    private final EntityManagerFactory entityManagerFactory;
 
 
 
@@ -42,20 +46,34 @@ class AdminServiceIT /*extends IntegrationTestBase*/ {
                 .map(mapper::mapToUserForAdminDto)
                 .toList();
 
-        UserListDto actualResult = adminService.getAllUsers(0, 20);
+        UserListDto actualResult = adminService.getAllUsers(0, 20, null);
 
         assertFalse(actualResult.getUserList().isEmpty());
         assertThat(actualResult.getUserList()).hasSize(3);
         assertEquals(expectedResult, actualResult.getUserList());
     }
 
+    @Test
+    void getAllUsers_shouldGetNextPage_whenCursorIsPresent() {
+        final List<UserForAdminDto> expectedResult = Stream.of(KATYA)
+                .map(mapper::mapToUserForAdminDto)
+                .toList();
+
+        UserListDto firstPage = adminService.getAllUsers(0, 2, null);
+        UserListDto actualResult = adminService.getAllUsers(0, 2, firstPage.getNextCursor());
+
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(expectedResult, actualResult.getUserList());
+        assertNull(actualResult.getNextCursor());
+    }
+
     @Test
     void getAllUsers_shouldGetPaginatedUserList_whenCustomArguments() {
         final List<UserForAdminDto> expectedResult = Stream.of(KATYA)
                 .map(mapper::mapToUserForAdminDto)
                 .toList();
 
-        UserListDto actualResult = adminService.getAllUsers(1, 2);
+        UserListDto actualResult = adminService.getAllUsers(1, 2, null);
 
         assertFalse(actualResult.getUserList().isEmpty());
         assertThat(actualResult.getUserList()).hasSize(1);
@@ -64,7 +82,7 @@ class AdminServiceIT /*extends IntegrationTestBase*/ {
 
     @Test
     void getAllUsers_shouldGetEmptyUserList_whenNoUsersByCustomArguments() {
-        UserListDto actualResult = adminService.getAllUsers(999, 999);
+        UserListDto actualResult = adminService.getAllUsers(999, 999, null);
 
         assertTrue(actualResult.getUserList().isEmpty());
     }
@@ -128,7 +146,7 @@ class AdminServiceIT /*extends IntegrationTestBase*/ {
 
         adminService.deleteUser(credentialsDto, USER.getId());
 
-        final UserListDto allUsers = adminService.getAllUsers(0, 20);
+        final UserListDto allUsers = adminService.getAllUsers(0, 20, null);
         assertThat(allUsers.getUserList()).hasSize(2);
         assertThrows(NotFoundException.class, () -> userService.getUser(USER.getId()));
     }
@@ -162,7 +180,7 @@ class AdminServiceIT /*extends IntegrationTestBase*/ {
                 .map(mapper::mapToResponseTaskDto)
                 .toList();
 
-        TaskListDto actualResult = adminService.getAllTasks(0, 20);
+        TaskListDto actualResult = adminService.getAllTasks(0, 20, null);
 
         assertFalse(actualResult.getTaskList().isEmpty());
         assertThat(actualResult.getTaskList()).hasSize(6);
@@ -175,16 +193,41 @@ class AdminServiceIT /*extends IntegrationTestBase*/ {
                 .map(mapper::mapToResponseTaskDto)
                 .toList();
 
-        TaskListDto actualResult = adminService.getAllTasks(1, 2);
+        TaskListDto actualResult = adminService.getAllTasks(1, 2, null);
 
         assertFalse(actualResult.getTaskList().isEmpty());
         assertThat(actualResult.getTaskList()).hasSize(2);
         assertEquals(expectedResult, actualResult.getTaskList());
     }
 
+    @Test
+    void getAllTasks_shouldExecuteOneSqlStatementPerPage() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TaskListDto firstPage = adminService.getAllTasks(0, 4, null);
+        adminService.getAllTasks(0, 4, firstPage.getNextCursor());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllTasks_shouldGetNextPage_whenCursorIsPresent() {
+        final List<ResponseTaskDto> expectedResult = Stream.of(TASK_5, TASK_6)
+                .map(mapper::mapToResponseTaskDto)
+                .toList();
+
+        TaskListDto firstPage = adminService.getAllTasks(0, 4, null);
+        TaskListDto actualResult = adminService.getAllTasks(0, 4, firstPage.getNextCursor());
+
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(expectedResult, actualResult.getTaskList());
+        assertNull(actualResult.getNextCursor());
+    }
+
     @Test
     void getAllTasks_shouldGetEmptyTaskList_whenNoTasksByCustomArguments() {
-        TaskListDto actualResult = adminService.getAllTasks(999, 999);
+        TaskListDto actualResult = adminService.getAllTasks(999, 999, null);
 
         assertTrue(actualResult.getTaskList().isEmpty());
     }
@@ -194,7 +237,7 @@ class AdminServiceIT /*extends IntegrationTestBase*/ {
         userService.deleteUserById(USER.getId());
         userService.deleteUserById(KATYA.getId());
 
-        TaskListDto actualResult = adminService.getAllTasks(0, 20);
+        TaskListDto actualResult = adminService.getAllTasks(0, 20, null);
 
         assertTrue(actualResult.getTaskList().isEmpty());
     }
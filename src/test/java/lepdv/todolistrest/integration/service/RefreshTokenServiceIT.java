@@ -0,0 +1,77 @@
+package lepdv.todolistrest.integration.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lepdv.todolistrest.entity.User;
+import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.integration.IT;
+import lepdv.todolistrest.repository.RefreshTokenRepository;
+import lepdv.todolistrest.repository.UserRepository;
+import lepdv.todolistrest.service.RefreshTokenService;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+@IT
+@RequiredArgsConstructor
+class RefreshTokenServiceIT {
+
+    private final RefreshTokenService refreshTokenService;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+
+
+
+    @Test
+    void rotate_shouldGetUserAndNewToken_whenTokenIsValid() {
+        User ivan = userRepository.findByUsername("Ivan").orElseThrow();
+        String token = refreshTokenService.issue(ivan);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(token);
+
+        assertEquals(ivan.getId(), rotation.user().getId());
+        assertEquals("Ivan", rotation.user().getUsername());
+        assertEquals(ivan.getRole(), rotation.user().getRole());
+        assertNotEquals(token, rotation.refreshToken());
+        assertDoesNotThrow(() -> refreshTokenService.rotate(rotation.refreshToken()));
+    }
+
+    @Test
+    void rotate_shouldThrowException_whenTokenIsUsedTwice() {
+        String token = refreshTokenService.issue(userRepository.findByUsername("Ivan").orElseThrow());
+        refreshTokenService.rotate(token);
+
+        UnitedException exception = assertThrows(UnitedException.class, () -> refreshTokenService.rotate(token));
+        assertEquals("Invalid refresh token", exception.getMessage());
+    }
+
+    @Test
+    void rotate_shouldThrowException_whenTokenIsRevoked() {
+        User ivan = userRepository.findByUsername("Ivan").orElseThrow();
+        String token = refreshTokenService.issue(ivan);
+
+        refreshTokenService.revokeAll(ivan.getId());
+
+        assertThrows(UnitedException.class, () -> refreshTokenService.rotate(token));
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteOnlyExpiredTokens() {
+        User ivan = userRepository.findByUsername("Ivan").orElseThrow();
+        String expired = refreshTokenService.issue(ivan);
+        RefreshTokenService later = new RefreshTokenService(refreshTokenRepository, new SimpleMeterRegistry(),
+                Duration.ofDays(30), Clock.fixed(Instant.now().plus(Duration.ofDays(31)), ZoneOffset.UTC));
+        String valid = later.issue(ivan);
+
+        assertThrows(UnitedException.class, () -> later.rotate(expired));
+        assertTrue(later.purgeExpired() >= 1);
+        assertDoesNotThrow(() -> later.rotate(valid));
+    }
+}
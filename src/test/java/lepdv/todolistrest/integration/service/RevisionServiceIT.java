@@ -0,0 +1,138 @@
+package lepdv.todolistrest.integration.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lepdv.todolistrest.dto.revision.FieldChangeDto;
+import lepdv.todolistrest.dto.revision.RevisionDto;
+import lepdv.todolistrest.dto.revision.RevisionListDto;
+import lepdv.todolistrest.dto.revision.RevisionView;
+import lepdv.todolistrest.dto.task.CreateTaskDto;
+import lepdv.todolistrest.dto.task.UpdateTaskDto;
+import lepdv.todolistrest.entity.TaskStatus;
+import lepdv.todolistrest.exception.NotFoundException;
+import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.integration.IT;
+import lepdv.todolistrest.service.RevisionService;
+import lepdv.todolistrest.service.TaskService;
+import lepdv.todolistrest.util.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static lepdv.todolistrest.Constants.TASK;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Envers writes revisions on commit, so transactions of these tests commit.
+ */
+@IT
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@WithMockUser(username = "Admin", authorities = "ADMIN")
+@RequiredArgsConstructor
+class RevisionServiceIT {
+
+    private final RevisionService revisionService;
+    private final TaskService taskService;
+    private final EntityManagerFactory entityManagerFactory;
+    private Long taskId;
+
+
+
+
+    @BeforeEach
+    void createTaskWithThreeRevisions() {
+        taskId = taskService.create(new CreateTaskDto("Admin task1", LocalDate.now())).getId();
+        taskService.update(taskId, new UpdateTaskDto("Admin task1 updated", LocalDate.now()));
+        taskService.update(taskId, new UpdateTaskDto("Admin task1 updated twice", LocalDate.now()));
+    }
+
+
+
+    @Test
+    void getTaskRevisions_shouldPageByRevisionNumberWithoutLoadingEntities() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        RevisionListDto firstPage = revisionService.getTaskRevisions(taskId, 2, null, RevisionView.SUMMARY);
+        RevisionListDto lastPage = revisionService.getTaskRevisions(taskId, 2, firstPage.getNextCursor(),
+                RevisionView.SUMMARY);
+
+        assertEquals(List.of("ADD", "MOD"), firstPage.getRevisionList().stream().map(RevisionDto::getType).toList());
+        assertEquals(List.of("MOD"), lastPage.getRevisionList().stream().map(RevisionDto::getType).toList());
+        assertNull(lastPage.getNextCursor());
+        assertTrue(firstPage.getRevisionList().get(1).getRevision() < lastPage.getRevisionList().get(0).getRevision());
+        RevisionDto revision = firstPage.getRevisionList().get(0);
+        assertEquals("Admin", revision.getModifiedBy());
+        assertNotNull(revision.getDateTime());
+        assertNull(revision.getFields());
+        assertNull(revision.getChanges());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getTaskRevisions_shouldGetAuditedFields_whenSnapshotView() {
+        RevisionListDto actualResult = revisionService.getTaskRevisions(taskId, 20, null, RevisionView.SNAPSHOT);
+
+        assertEquals(3, actualResult.getRevisionList().size());
+        assertEquals("Admin task1", actualResult.getRevisionList().get(0).getFields().get("description"));
+        assertEquals("Admin task1 updated twice", actualResult.getRevisionList().get(2).getFields().get("description"));
+        assertEquals(TaskStatus.OPEN, actualResult.getRevisionList().get(2).getFields().get("status"));
+    }
+
+    @Test
+    void getTaskRevisions_shouldGetOnlyChangedFields_whenDiffView() {
+        RevisionListDto firstPage = revisionService.getTaskRevisions(taskId, 1, null, RevisionView.DIFF);
+        RevisionListDto secondPage = revisionService.getTaskRevisions(taskId, 1, firstPage.getNextCursor(),
+                RevisionView.DIFF);
+
+        RevisionDto added = firstPage.getRevisionList().get(0);
+        assertEquals(new FieldChangeDto(null, "Admin task1"), added.getChanges().get("description"));
+        RevisionDto updated = secondPage.getRevisionList().get(0);
+        assertEquals(new FieldChangeDto("Admin task1", "Admin task1 updated"), updated.getChanges().get("description"));
+        assertFalse(updated.getChanges().containsKey("status"));
+        assertFalse(updated.getChanges().containsKey("dateOfCreation"));
+    }
+
+
+
+    @Test
+    void getTaskRevisions_shouldGetEmptyList_whenTaskHasNoRevisions() {
+        RevisionListDto actualResult = revisionService.getTaskRevisions(TASK.getId(), 20, null, RevisionView.SUMMARY);
+
+        assertTrue(actualResult.getRevisionList().isEmpty());
+        assertNull(actualResult.getNextCursor());
+    }
+
+    @Test
+    void getTaskRevisions_shouldThrowException_whenSizeIsNotPositive() {
+        assertThrows(UnitedException.class,
+                () -> revisionService.getTaskRevisions(taskId, 0, null, RevisionView.SUMMARY));
+        assertThrows(UnitedException.class,
+                () -> revisionService.getTaskRevisions(taskId, -1, null, RevisionView.SUMMARY));
+    }
+
+    @Test
+    void getTaskRevisions_shouldThrowException_whenCursorIsAboveRevisionNumbers() {
+        final String cursor = PageCursor.of(Integer.MAX_VALUE + 1L).encode();
+
+        UnitedException exception = assertThrows(UnitedException.class,
+                () -> revisionService.getTaskRevisions(taskId, 2, cursor, RevisionView.SUMMARY));
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    void getUserRevisions_shouldThrowException_whenUserNotExist() {
+        assertThrows(NotFoundException.class,
+                () -> revisionService.getUserRevisions(999L, 20, null, RevisionView.SUMMARY));
+    }
+
+
+}
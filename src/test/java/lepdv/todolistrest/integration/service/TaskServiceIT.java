@@ -1,15 +1,19 @@
 package lepdv.todolistrest.integration.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import lepdv.todolistrest.integration.IT;
-import lepdv.todolistrest.dto.task.ResponseTaskDto;
-import lepdv.todolistrest.dto.task.TaskListDto;
+import lepdv.todolistrest.dto.task.*;
 import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.TaskStatus;
 import lepdv.todolistrest.exception.NotFoundException;
 import lepdv.todolistrest.exception.UnitedException;
 import lepdv.todolistrest.mapper.Mapper;
 import lepdv.todolistrest.service.TaskService;
 import lepdv.todolistrest.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -18,6 +22,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.List;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static lepdv.todolistrest.Constants.*;
@@ -32,6 +37,8 @@ class TaskServiceIT /*extends IntegrationTestBase*/ {
     private final UserService userService;
     private final Mapper mapper;
     private final TaskService taskService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
 
 
 
@@ -45,7 +52,7 @@ class TaskServiceIT /*extends IntegrationTestBase*/ {
 
         ResponseTaskDto actualResult = taskService.create(CREATE_TASK_DTO);
 
-        assertEquals(7L, actualResult.getId());
+        assertTrue(actualResult.getId() > TASK_LIST.size());
         assertEquals(expectedResult.getDescription(), actualResult.getDescription());
         assertEquals(expectedResult.getDueDate(), actualResult.getDueDate());
     }
@@ -99,7 +106,7 @@ class TaskServiceIT /*extends IntegrationTestBase*/ {
                 .map(mapper::mapToResponseTaskDto)
                 .toList();
 
-        TaskListDto actualResult = taskService.getAllByAuthUser(0, 20);
+        TaskListDto actualResult = taskService.getAllByAuthUser(0, 20, null);
 
         assertFalse(actualResult.getTaskList().isEmpty());
         assertThat(actualResult.getTaskList()).hasSize(3);
@@ -112,16 +119,100 @@ class TaskServiceIT /*extends IntegrationTestBase*/ {
                 .map(mapper::mapToResponseTaskDto)
                 .toList();
 
-        TaskListDto actualResult = taskService.getAllByAuthUser(1, 2);
+        TaskListDto actualResult = taskService.getAllByAuthUser(1, 2, null);
 
         assertFalse(actualResult.getTaskList().isEmpty());
         assertThat(actualResult.getTaskList()).hasSize(1);
         assertEquals(expectedResult, actualResult.getTaskList());
     }
 
+    @Test
+    void getAllByAuthUser_shouldExecuteOneSqlStatementPerPage_whenAuthUserIsCached() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TaskListDto firstPage = taskService.getAllByAuthUser(0, 2, null);
+        statistics.clear();
+
+        taskService.getAllByAuthUser(0, 2, firstPage.getNextCursor());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllByAuthUser_shouldNotLoadEntities() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        taskService.getAllByAuthUser(0, 20, null);
+        statistics.clear();
+
+        taskService.getAllByAuthUser(0, 20, null);
+        taskService.getTaskDtoById(TASK.getId());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getAllByAuthUser_shouldGetNextPage_whenCursorIsPresent() {
+        final List<ResponseTaskDto> expectedResult = Stream.of(TASK_3)
+                .map(mapper::mapToResponseTaskDto)
+                .toList();
+
+        TaskListDto firstPage = taskService.getAllByAuthUser(0, 2, null);
+        TaskListDto actualResult = taskService.getAllByAuthUser(0, 2, firstPage.getNextCursor());
+
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(expectedResult, actualResult.getTaskList());
+        assertNull(actualResult.getNextCursor());
+    }
+
+    @Test
+    void getAllByAuthUser_shouldGetOnlyTasksWithStatus_whenStatusFilter() {
+        final Long completed = taskService.create(new CreateTaskDto("Ivan task4", LocalDate.now())).getId();
+        taskService.markAsCompleted(completed);
+        final TaskFilter filter = TaskFilter.builder().status(TaskStatus.COMPLETED).build();
+
+        TaskListDto actualResult = taskService.getAllByAuthUser(0, 20, null, filter);
+
+        assertEquals(List.of(completed), actualResult.getTaskList().stream().map(ResponseTaskDto::getId).toList());
+        assertEquals("Completed", actualResult.getTaskList().get(0).getIsCompleted());
+    }
+
+    @Test
+    void getAllByAuthUser_shouldGetTasksInDateRanges_whenDateFilters() {
+        final TaskFilter filter = TaskFilter.builder()
+                .dueAfter(TASK.getDueDate())
+                .createdFrom(TASK.getDateOfCreation())
+                .createdTo(TASK_3.getDateOfCreation())
+                .build();
+
+        TaskListDto actualResult = taskService.getAllByAuthUser(0, 20, null, filter);
+
+        assertEquals(List.of(TASK_2.getId(), TASK_3.getId()),
+                actualResult.getTaskList().stream().map(ResponseTaskDto::getId).toList());
+    }
+
+    @Test
+    void getAllByAuthUser_shouldPageByDueDateWithTasksWithoutDueDateLast_whenSortByDueDate() {
+        final Long withoutDueDate = taskService.create(new CreateTaskDto("Ivan task4", null)).getId();
+        final Long dueToday = taskService.create(new CreateTaskDto("Ivan task5", LocalDate.now())).getId();
+        final TaskFilter filter = TaskFilter.builder().sort(TaskSort.DUE_DATE).build();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TaskListDto firstPage = taskService.getAllByAuthUser(0, 2, null, filter);
+        TaskListDto secondPage = taskService.getAllByAuthUser(0, 2, firstPage.getNextCursor(), filter);
+        TaskListDto lastPage = taskService.getAllByAuthUser(0, 2, secondPage.getNextCursor(), filter);
+
+        assertEquals(List.of(TASK.getId(), TASK_2.getId()),
+                firstPage.getTaskList().stream().map(ResponseTaskDto::getId).toList());
+        assertEquals(List.of(TASK_3.getId(), dueToday),
+                secondPage.getTaskList().stream().map(ResponseTaskDto::getId).toList());
+        assertEquals(List.of(withoutDueDate), lastPage.getTaskList().stream().map(ResponseTaskDto::getId).toList());
+        assertNull(lastPage.getNextCursor());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
     @Test
     void getAllByAuthUser_shouldGetEmptyTaskListDtoOfAuthUser_whenNoTasksByCustomArguments() {
-        TaskListDto actualResult = taskService.getAllByAuthUser(999, 999);
+        TaskListDto actualResult = taskService.getAllByAuthUser(999, 999, null);
 
         assertTrue(actualResult.getTaskList().isEmpty());
     }
@@ -132,7 +223,7 @@ class TaskServiceIT /*extends IntegrationTestBase*/ {
         taskService.delete(2L);
         taskService.delete(3L);
 
-        TaskListDto actualResult = taskService.getAllByAuthUser(0, 20);
+        TaskListDto actualResult = taskService.getAllByAuthUser(0, 20, null);
 
         assertTrue(actualResult.getTaskList().isEmpty());
     }
@@ -199,7 +290,7 @@ class TaskServiceIT /*extends IntegrationTestBase*/ {
         taskService.markAsCompleted(TASK.getId());
 
         final Task markedTask = taskService.getTask(TASK.getId());
-        assertEquals("Completed", markedTask.getIsCompleted());
+        assertEquals(TaskStatus.COMPLETED, markedTask.getStatus());
     }
 
     @Test
@@ -233,6 +324,48 @@ class TaskServiceIT /*extends IntegrationTestBase*/ {
 
 
 
+    @Test
+    void batch_shouldApplyValidItemsInOneTransaction() {
+        final BatchTaskDto batchTaskDto = BatchTaskDto.builder()
+                .create(List.of(
+                        new CreateTaskDto("Ivan task4", LocalDate.now().plusDays(1)),
+                        new CreateTaskDto("", null)))
+                .update(List.of(new BatchUpdateTaskDto(TASK.getId(), "Updated Ivan task1", null)))
+                .markAsCompleted(List.of(TASK_2.getId(), TASK_4.getId()))
+                .delete(List.of(TASK_3.getId(), 999L))
+                .build();
+
+        BatchResultDto actualResult = taskService.batch(batchTaskDto);
+
+        assertEquals(List.of(201, 400, 200, 200, 400, 200, 404), actualResult.getResults().stream()
+                .map(BatchItemResultDto::getStatus)
+                .toList());
+        final Long createdId = actualResult.getResults().get(0).getId();
+        assertEquals("Ivan task4", taskService.getTask(createdId).getDescription());
+        assertEquals("Updated Ivan task1", taskService.getTask(TASK.getId()).getDescription());
+        assertEquals(TaskStatus.COMPLETED, taskService.getTask(TASK_2.getId()).getStatus());
+        assertEquals(TaskStatus.OPEN, taskService.getTask(TASK_4.getId()).getStatus());
+        assertThrows(NotFoundException.class, () -> taskService.getTask(TASK_3.getId()));
+    }
+
+
+    @Test
+    void batch_shouldInsertCreatedTasksInJdbcBatches() {
+        final List<CreateTaskDto> createTaskDtoList = IntStream.range(0, 50)
+                .mapToObj(i -> new CreateTaskDto("Ivan task" + (i + 4), LocalDate.now().plusDays(1)))
+                .toList();
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        taskService.batch(BatchTaskDto.builder().create(createTaskDtoList).build());
+        entityManager.flush();
+
+        assertEquals(50, statistics.getEntityInsertCount());
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+    }
+
+
+
     @Test
     void getTask_shouldGetTask_whenExist() {
         Task actualResult = taskService.getTask(TASK.getId());
@@ -53,11 +53,12 @@ class UserServiceIT /*extends IntegrationTestBase*/ {
 
     @Test
     void register_shouldRegisterNewUser() {
-        userService.register(REGISTER_DTO);
+        User savedUser = userService.register(REGISTER_DTO);
 
         final Optional<User> optionalUser = userService.getByUsername(REGISTER_DTO.getUsername());
         optionalUser.ifPresent(actual -> assertAll(
-                () -> assertEquals(SAVED_USER.getId(), actual.getId()),
+                () -> assertEquals(savedUser.getId(), actual.getId()),
+                () -> assertTrue(actual.getId() > USER_LIST.size()),
                 () -> assertEquals(SAVED_USER.getUsername(), actual.getUsername()),
                 () -> assertEquals(SAVED_USER.getFullName(), actual.getFullName()),
                 () -> assertEquals(SAVED_USER.getDateOfBirth(), actual.getDateOfBirth())
@@ -42,4 +42,11 @@ class AuthUserIT {
     }
 
 
+
+    @Test
+    void getAuthIdentity_shouldGetEmpty_whenAuthenticationIsNotFromJwt() {
+        assertTrue(AuthUser.getAuthIdentity().isEmpty());
+    }
+
+
 }
\ No newline at end of file
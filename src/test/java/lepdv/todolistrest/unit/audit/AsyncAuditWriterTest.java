@@ -0,0 +1,114 @@
+package lepdv.todolistrest.unit.audit;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lepdv.todolistrest.audit.AsyncAuditWriter;
+import lepdv.todolistrest.audit.AuditWal;
+import lepdv.todolistrest.entity.Revision;
+import lepdv.todolistrest.exception.AuditQueueFullException;
+import lepdv.todolistrest.exception.AuditUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+
+@ExtendWith(MockitoExtension.class)
+class AsyncAuditWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private AuditWal wal;
+    @TempDir
+    private Path directory;
+
+
+
+
+    @Test
+    void reserve_shouldThrowException_whenQueueIsFull() {
+        AsyncAuditWriter writer = new AsyncAuditWriter(jdbcTemplate, transactionTemplate, null,
+                new SimpleMeterRegistry(), 1, 10, Duration.ZERO);
+        writer.reserve();
+        writer.submit(new Revision(), List.of(), List.of());
+
+        assertThrows(AuditQueueFullException.class, writer::reserve);
+        assertEquals(1, writer.queueSize());
+    }
+
+    @Test
+    void release_shouldFreePlace_whenTransactionIsRolledBack() {
+        AsyncAuditWriter writer = new AsyncAuditWriter(jdbcTemplate, transactionTemplate, null,
+                new SimpleMeterRegistry(), 1, 10, Duration.ZERO);
+        writer.reserve();
+
+        writer.release();
+
+        assertDoesNotThrow(writer::reserve);
+    }
+
+    @Test
+    void reserve_shouldThrowException_whenRecordWasNotAppendedToWal() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        doThrow(new IOException("No space left on device")).when(wal).append(any());
+        AsyncAuditWriter writer = new AsyncAuditWriter(jdbcTemplate, transactionTemplate, wal, meterRegistry,
+                10, 10, Duration.ZERO);
+        writer.reserve();
+        writer.submit(new Revision(), List.of(), List.of());
+
+        assertThrows(AuditUnavailableException.class, writer::reserve);
+        assertEquals(1, writer.queueSize());
+        assertEquals(1.0, meterRegistry.get("audit.async.wal.failures").counter().count());
+    }
+
+    @Test
+    void reserve_shouldSucceed_whenWalIsWritableAgain() throws IOException {
+        doThrow(new IOException("No space left on device")).when(wal).append(any());
+        AsyncAuditWriter writer = new AsyncAuditWriter(jdbcTemplate, transactionTemplate, wal,
+                new SimpleMeterRegistry(), 10, 10, Duration.ZERO);
+        writer.start();
+        writer.reserve();
+        writer.submit(new Revision(null, 1L, Instant.now(), "Ivan"), List.of(), List.of());
+
+        verify(wal, timeout(5000).times(2)).truncate();
+        writer.stop();
+
+        assertDoesNotThrow(writer::reserve);
+    }
+
+    @Test
+    void stop_shouldKeepRecordInWal_whenItWasNotWritten() throws IOException {
+        JsonMapper jsonMapper = JsonMapper.builder().findAndAddModules().build();
+        Path path = directory.resolve("audit.wal");
+        doThrow(new IllegalStateException("database is down")).when(transactionTemplate).executeWithoutResult(any());
+        AsyncAuditWriter writer = new AsyncAuditWriter(jdbcTemplate, transactionTemplate,
+                new AuditWal(path, jsonMapper), new SimpleMeterRegistry(), 1, 10, Duration.ZERO);
+        writer.start();
+        writer.reserve();
+        writer.submit(new Revision(null, 1L, Instant.now(), "Ivan"), List.of(), List.of());
+
+        writer.stop();
+
+        try (AuditWal wal = new AuditWal(path, jsonMapper)) {
+            assertEquals(1, wal.recover().size());
+        }
+    }
+
+
+}
@@ -0,0 +1,86 @@
+package lepdv.todolistrest.unit.audit;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lepdv.todolistrest.audit.AuditRecord;
+import lepdv.todolistrest.audit.AuditWal;
+import lepdv.todolistrest.audit.TaskAudit;
+import lepdv.todolistrest.audit.UserAudit;
+import org.hibernate.envers.RevisionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static lepdv.todolistrest.Constants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class AuditWalTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .build();
+
+    @TempDir
+    private Path directory;
+
+
+
+
+    @Test
+    void recover_shouldGetRecordsAfterLastCheckpoint() throws IOException {
+        Path path = directory.resolve("audit.wal");
+        try (AuditWal wal = new AuditWal(path, jsonMapper)) {
+            wal.append(auditRecord(1));
+            wal.append(auditRecord(2));
+            wal.checkpoint(1);
+            wal.append(auditRecord(3));
+        }
+
+        try (AuditWal wal = new AuditWal(path, jsonMapper)) {
+            assertEquals(List.of(auditRecord(2), auditRecord(3)), wal.recover());
+        }
+    }
+
+    @Test
+    void recover_shouldSkipTornLastLine() throws IOException {
+        Path path = directory.resolve("audit.wal");
+        try (AuditWal wal = new AuditWal(path, jsonMapper)) {
+            wal.append(auditRecord(1));
+        }
+        Files.writeString(path, "{\"seq\":2,\"times", StandardOpenOption.APPEND);
+
+        try (AuditWal wal = new AuditWal(path, jsonMapper)) {
+            assertEquals(List.of(auditRecord(1)), wal.recover());
+        }
+    }
+
+    @Test
+    void truncate_shouldLeaveNothingToRecover() throws IOException {
+        Path path = directory.resolve("audit.wal");
+        try (AuditWal wal = new AuditWal(path, jsonMapper)) {
+            wal.append(auditRecord(1));
+            wal.truncate();
+            wal.append(auditRecord(2));
+            wal.checkpoint(2);
+
+            assertTrue(wal.recover().isEmpty());
+        }
+    }
+
+
+
+    private AuditRecord auditRecord(long seq) {
+        Instant dateTime = Instant.parse("2023-07-01T10:15:30Z").plusSeconds(seq);
+        return new AuditRecord(seq, dateTime.toEpochMilli(), dateTime, USER.getUsername(),
+                List.of(TaskAudit.of(TASK, RevisionType.MOD), TaskAudit.of(TASK_2, RevisionType.DEL)),
+                List.of(UserAudit.of(USER, RevisionType.ADD)));
+    }
+
+
+}
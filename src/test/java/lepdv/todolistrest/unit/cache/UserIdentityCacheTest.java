@@ -0,0 +1,113 @@
+package lepdv.todolistrest.unit.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lepdv.todolistrest.cache.UserIdentity;
+import lepdv.todolistrest.cache.UserIdentityCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static lepdv.todolistrest.Constants.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class UserIdentityCacheTest {
+
+    private final AtomicLong nanoClock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private UserIdentityCache cache;
+
+
+
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserIdentityCache(2, Duration.ofSeconds(60), new SimpleMeterRegistry(), nanoClock::get);
+    }
+
+
+
+    @Test
+    void get_shouldLoadOnceAndCountHitsAndMisses() {
+        Optional<UserIdentity> first = cache.get(USER.getUsername(), this::load);
+        Optional<UserIdentity> second = cache.get(USER.getUsername(), this::load);
+
+        assertEquals(Optional.of(USER_IDENTITY), first);
+        assertEquals(Optional.of(USER_IDENTITY), second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void get_shouldNotCacheAbsentUser() {
+        cache.get("dummy", this::load);
+        cache.get("dummy", this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_shouldReload_whenTtlIsExpired() {
+        cache.get(USER.getUsername(), this::load);
+        nanoClock.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        cache.get(USER.getUsername(), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+
+
+    @Test
+    void invalidate_shouldRemoveEntry() {
+        cache.get(USER.getUsername(), this::load);
+
+        cache.invalidate(USER.getUsername());
+        cache.get(USER.getUsername(), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_shouldNotCacheValueLoadedDuringInvalidation() {
+        cache.get(USER.getUsername(), username -> {
+            cache.invalidate(username);
+            return load(username);
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+
+
+    @Test
+    void put_shouldKeepSizeBounded() {
+        cache.get(USER.getUsername(), this::load);
+        nanoClock.incrementAndGet();
+        cache.get(ADMIN.getUsername(), this::load);
+        nanoClock.incrementAndGet();
+        cache.get(KATYA.getUsername(), this::load);
+
+        assertEquals(2, cache.size());
+        cache.get(KATYA.getUsername(), this::load);
+        assertEquals(3, loads.get());
+    }
+
+
+
+    private Optional<UserIdentity> load(String username) {
+        loads.incrementAndGet();
+        return USER_LIST.stream()
+                .filter(user -> user.getUsername().equals(username))
+                .findFirst()
+                .map(UserIdentity::of);
+    }
+
+
+}
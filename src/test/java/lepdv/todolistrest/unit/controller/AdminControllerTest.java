@@ -4,6 +4,9 @@ import lepdv.todolistrest.controller.AdminController;
 import lepdv.todolistrest.dto.admin.UserForAdminDto;
 import lepdv.todolistrest.dto.admin.UserListDto;
 import lepdv.todolistrest.dto.auth.CredentialsDto;
+import lepdv.todolistrest.dto.revision.RevisionDto;
+import lepdv.todolistrest.dto.revision.RevisionListDto;
+import lepdv.todolistrest.dto.revision.RevisionView;
 import lepdv.todolistrest.dto.task.ResponseTaskDto;
 import lepdv.todolistrest.dto.task.TaskListDto;
 import lepdv.todolistrest.mapper.Mapper;
@@ -13,7 +16,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -34,7 +36,7 @@ class AdminControllerTest {
     private AdminService adminService;
     @InjectMocks
     private AdminController adminController;
-    private final Mapper mapper = new Mapper(new ModelMapper());
+    private final Mapper mapper = new Mapper();
 
 
 
@@ -43,11 +45,11 @@ class AdminControllerTest {
     void getAllUsers_shouldGetREWithUserListDto_whenDefaultParams() {
         final List<UserForAdminDto> userList = USER_LIST.stream().map(mapper::mapToUserForAdminDto).toList();
         final UserListDto userListDto = new UserListDto(userList);
-        doReturn(userListDto).when(adminService).getAllUsers(0, 20);
+        doReturn(userListDto).when(adminService).getAllUsers(0, 20, null);
 
-        ResponseEntity<UserListDto> actualResult = adminController.getAllUsers(0, 20);
+        ResponseEntity<UserListDto> actualResult = adminController.getAllUsers(0, 20, null);
 
-        verify(adminService).getAllUsers(0, 20);
+        verify(adminService).getAllUsers(0, 20, null);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -58,11 +60,11 @@ class AdminControllerTest {
     void getAllUsers_shouldGetREWithPaginatedUserListDto_whenCustomParams() {
         final List<UserForAdminDto> userList = Stream.of(KATYA).map(mapper::mapToUserForAdminDto).toList();
         final UserListDto userListDto = new UserListDto(userList);
-        doReturn(userListDto).when(adminService).getAllUsers(1, 2);
+        doReturn(userListDto).when(adminService).getAllUsers(1, 2, null);
 
-        ResponseEntity<UserListDto> actualResult = adminController.getAllUsers(1, 2);
+        ResponseEntity<UserListDto> actualResult = adminController.getAllUsers(1, 2, null);
 
-        verify(adminService).getAllUsers(1, 2);
+        verify(adminService).getAllUsers(1, 2, null);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -72,11 +74,11 @@ class AdminControllerTest {
     @Test
     void getAllUsers_shouldGetREWithEmptyUserListDto_whenNoUsersByCustomParams() {
         final UserListDto userListDto = new UserListDto(emptyList());
-        doReturn(userListDto).when(adminService).getAllUsers(999, 999);
+        doReturn(userListDto).when(adminService).getAllUsers(999, 999, null);
 
-        ResponseEntity<UserListDto> actualResult = adminController.getAllUsers(999, 999);
+        ResponseEntity<UserListDto> actualResult = adminController.getAllUsers(999, 999, null);
 
-        verify(adminService).getAllUsers(999, 999);
+        verify(adminService).getAllUsers(999, 999, null);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -154,11 +156,11 @@ class AdminControllerTest {
     void getAllTasks_shouldGetREWithTaskListDto_whenDefaultParams() {
         final List<ResponseTaskDto> responseTaskDtoList = TASK_LIST.stream().map(mapper::mapToResponseTaskDto).toList();
         final TaskListDto taskListDto = new TaskListDto(responseTaskDtoList);
-        doReturn(taskListDto).when(adminService).getAllTasks(0, 20);
+        doReturn(taskListDto).when(adminService).getAllTasks(0, 20, null);
 
-        ResponseEntity<TaskListDto> actualResult = adminController.getAllTasks(0, 20);
+        ResponseEntity<TaskListDto> actualResult = adminController.getAllTasks(0, 20, null);
 
-        verify(adminService).getAllTasks(0, 20);
+        verify(adminService).getAllTasks(0, 20, null);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -169,11 +171,11 @@ class AdminControllerTest {
     void getAllTasks_shouldGetREWithPaginatedTaskListDto_whenCustomParams() {
         final List<ResponseTaskDto> responseTaskDtoList = Stream.of(TASK_3, TASK_4).map(mapper::mapToResponseTaskDto).toList();
         final TaskListDto taskListDto = new TaskListDto(responseTaskDtoList);
-        doReturn(taskListDto).when(adminService).getAllTasks(1, 2);
+        doReturn(taskListDto).when(adminService).getAllTasks(1, 2, null);
 
-        ResponseEntity<TaskListDto> actualResult = adminController.getAllTasks(1, 2);
+        ResponseEntity<TaskListDto> actualResult = adminController.getAllTasks(1, 2, null);
 
-        verify(adminService).getAllTasks(1, 2);
+        verify(adminService).getAllTasks(1, 2, null);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -183,11 +185,11 @@ class AdminControllerTest {
     @Test
     void getAllTasks_shouldGetREWithEmptyTaskListDto_whenNoTasksByCustomParams() {
         final TaskListDto taskListDto = new TaskListDto(emptyList());
-        doReturn(taskListDto).when(adminService).getAllTasks(999, 999);
+        doReturn(taskListDto).when(adminService).getAllTasks(999, 999, null);
 
-        ResponseEntity<TaskListDto> actualResult = adminController.getAllTasks(999, 999);
+        ResponseEntity<TaskListDto> actualResult = adminController.getAllTasks(999, 999, null);
 
-        verify(adminService).getAllTasks(999, 999);
+        verify(adminService).getAllTasks(999, 999, null);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -198,11 +200,11 @@ class AdminControllerTest {
     @Test
     void getAllTasks_shouldGetREWithEmptyTaskListDto_whenNotExist() {
         final TaskListDto taskListDto = new TaskListDto(emptyList());
-        doReturn(taskListDto).when(adminService).getAllTasks(0, 20);
+        doReturn(taskListDto).when(adminService).getAllTasks(0, 20, null);
 
-        ResponseEntity<TaskListDto> actualResult = adminController.getAllTasks(0, 20);
+        ResponseEntity<TaskListDto> actualResult = adminController.getAllTasks(0, 20, null);
 
-        verify(adminService).getAllTasks(0, 20);
+        verify(adminService).getAllTasks(0, 20, null);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -227,6 +229,25 @@ class AdminControllerTest {
     }
 
 
+    @Test
+    void getTaskRevisions_shouldGetREWithRevisionListDto() {
+        final RevisionListDto revisionListDto = new RevisionListDto(List.of(RevisionDto.builder()
+                .revision(1)
+                .type("ADD")
+                .modifiedBy(ADMIN.getUsername())
+                .build()));
+        doReturn(revisionListDto).when(adminService).getTaskRevisions(TASK.getId(), 20, null, RevisionView.SUMMARY);
+
+        ResponseEntity<RevisionListDto> actualResult = adminController.getTaskRevisions(TASK.getId(), 20, null,
+                RevisionView.SUMMARY);
+
+        verify(adminService).getTaskRevisions(TASK.getId(), 20, null, RevisionView.SUMMARY);
+        assertEquals(HttpStatus.OK, actualResult.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
+        assertEquals(revisionListDto, actualResult.getBody());
+    }
+
+
 
 }
 
@@ -3,8 +3,12 @@ package lepdv.todolistrest.unit.controller;
 import lepdv.todolistrest.controller.AuthController;
 import lepdv.todolistrest.dto.auth.CredentialsDto;
 import lepdv.todolistrest.dto.auth.JwtDto;
+import lepdv.todolistrest.dto.auth.RefreshTokenDto;
+import lepdv.todolistrest.exception.TooManyLoginAttemptsException;
 import lepdv.todolistrest.exception.UnitedException;
 import lepdv.todolistrest.security.JWTUtil;
+import lepdv.todolistrest.security.LoginRateLimiter;
+import lepdv.todolistrest.service.RefreshTokenService;
 import lepdv.todolistrest.service.UserService;
 import lepdv.todolistrest.util.RegisterDtoValidator;
 import org.junit.jupiter.api.Test;
@@ -15,6 +19,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.LockedException;
@@ -22,6 +27,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.validation.BindingResult;
 
 import static lepdv.todolistrest.Constants.REGISTER_DTO;
+import static lepdv.todolistrest.Constants.SAVED_USER;
 import static lepdv.todolistrest.Constants.USER;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -38,8 +44,13 @@ class AuthControllerTest {
     private JWTUtil jwtUtil;
     @Mock
     private AuthenticationManager authenticationManager;
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+    @Mock
+    private RefreshTokenService refreshTokenService;
     @InjectMocks
     private AuthController authController;
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
 
 
 
@@ -52,14 +63,17 @@ class AuthControllerTest {
         final UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                 USER, USER.getPassword(), USER.getAuthorities());
         final String jwt = "some token";
-        JwtDto expectedBody = new JwtDto(jwt);
+        JwtDto expectedBody = new JwtDto(jwt, "refresh token");
         doReturn(authentication).when(authenticationManager).authenticate(authToken);
-        doReturn(jwt).when(jwtUtil).generateToken(credentialsDto.getUsername());
+        doReturn(jwt).when(jwtUtil).generateToken(USER);
+        doReturn("refresh token").when(refreshTokenService).issue(USER);
 
-        ResponseEntity<JwtDto> actualResult = authController.performLogin(credentialsDto);
+        ResponseEntity<JwtDto> actualResult = authController.performLogin(credentialsDto, request);
 
         verify(authenticationManager).authenticate(authToken);
-        verify(jwtUtil).generateToken(credentialsDto.getUsername());
+        verify(loginRateLimiter).onSuccess("Ivan", request.getRemoteAddr());
+        verify(jwtUtil).generateToken(USER);
+        verifyNoInteractions(userService);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -73,7 +87,7 @@ class AuthControllerTest {
                 credentialsDto.getUsername(), credentialsDto.getPassword());
         doThrow(BadCredentialsException.class).when(authenticationManager).authenticate(authToken);
 
-        assertThrows(UnitedException.class, () -> authController.performLogin(credentialsDto));
+        assertThrows(UnitedException.class, () -> authController.performLogin(credentialsDto, request));
 
         verify(authenticationManager).authenticate(authToken);
     }
@@ -85,27 +99,39 @@ class AuthControllerTest {
                 credentialsDto.getUsername(), credentialsDto.getPassword());
         doThrow(LockedException.class).when(authenticationManager).authenticate(authToken);
 
-        assertThrows(UnitedException.class, () -> authController.performLogin(credentialsDto));
+        assertThrows(UnitedException.class, () -> authController.performLogin(credentialsDto, request));
 
         verify(authenticationManager).authenticate(authToken);
     }
 
+    @Test
+    void performLogin_shouldThrowExceptionBeforeAuthentication_whenAttemptsAreLimited() {
+        final CredentialsDto credentialsDto = new CredentialsDto("Ivan", "dummy");
+        doThrow(TooManyLoginAttemptsException.class).when(loginRateLimiter)
+                .acquire("Ivan", request.getRemoteAddr());
+
+        assertThrows(TooManyLoginAttemptsException.class, () -> authController.performLogin(credentialsDto, request));
+
+        verifyNoInteractions(authenticationManager, jwtUtil);
+    }
+
 
 
     @Test
     void register_shouldGetREWithTokenMap_whenDataIsValid() {
         final BindingResult bindingResultMock = mock(BindingResult.class);
         final String jwt = "some token";
-        JwtDto expectedBody = new JwtDto(jwt);
+        JwtDto expectedBody = new JwtDto(jwt, "refresh token");
         doNothing().when(registerDtoValidator).validate(REGISTER_DTO, bindingResultMock);
-        doNothing().when(userService).register(REGISTER_DTO);
-        doReturn(jwt).when(jwtUtil).generateToken(REGISTER_DTO.getUsername());
+        doReturn(SAVED_USER).when(userService).register(REGISTER_DTO);
+        doReturn(jwt).when(jwtUtil).generateToken(SAVED_USER);
+        doReturn("refresh token").when(refreshTokenService).issue(SAVED_USER);
 
         ResponseEntity<JwtDto> actualResult = authController.register(REGISTER_DTO, bindingResultMock);
 
         verify(registerDtoValidator).validate(REGISTER_DTO, bindingResultMock);
         verify(userService).register(REGISTER_DTO);
-        verify(jwtUtil).generateToken(REGISTER_DTO.getUsername());
+        verify(jwtUtil).generateToken(SAVED_USER);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.CREATED, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -125,4 +151,28 @@ class AuthControllerTest {
 
 
 
+    @Test
+    void refresh_shouldGetREWithNewTokens_whenRefreshTokenIsValid() {
+        doReturn(new RefreshTokenService.Rotation(USER, "new refresh token"))
+                .when(refreshTokenService).rotate("refresh token");
+        doReturn("some token").when(jwtUtil).generateToken(USER);
+
+        ResponseEntity<JwtDto> actualResult = authController.refresh(new RefreshTokenDto("refresh token"));
+
+        verifyNoInteractions(authenticationManager, userService);
+        assertEquals(HttpStatus.OK, actualResult.getStatusCode());
+        assertEquals(new JwtDto("some token", "new refresh token"), actualResult.getBody());
+    }
+
+    @Test
+    void refresh_shouldThrowException_whenRefreshTokenIsInvalid() {
+        doThrow(UnitedException.class).when(refreshTokenService).rotate("dummy");
+
+        assertThrows(UnitedException.class, () -> authController.refresh(new RefreshTokenDto("dummy")));
+
+        verifyNoInteractions(jwtUtil);
+    }
+
+
+
 }
\ No newline at end of file
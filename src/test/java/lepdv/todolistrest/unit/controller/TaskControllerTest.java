@@ -1,24 +1,30 @@
 package lepdv.todolistrest.unit.controller;
 
 import lepdv.todolistrest.controller.TaskController;
-import lepdv.todolistrest.dto.task.ResponseTaskDto;
-import lepdv.todolistrest.dto.task.TaskListDto;
+import lepdv.todolistrest.dto.task.*;
+import lepdv.todolistrest.export.ExportFormat;
 import lepdv.todolistrest.mapper.Mapper;
+import lepdv.todolistrest.service.TaskSearchService;
 import lepdv.todolistrest.service.TaskService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.List;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static java.util.Collections.emptyList;
 import static lepdv.todolistrest.Constants.*;
@@ -31,9 +37,12 @@ class TaskControllerTest {
 
     @Mock
     private TaskService taskService;
+    @Mock
+    private TaskSearchService taskSearchService;
     @InjectMocks
     private TaskController taskController;
-    private final Mapper mapper = new Mapper(new ModelMapper());
+    private final Mapper mapper = new Mapper();
+    private final TaskFilter filter = new TaskFilter();
 
 
 
@@ -53,17 +62,41 @@ class TaskControllerTest {
 
 
 
+    @Test
+    void batchTasks_shouldGetREWithBatchResultDto() {
+        final BatchTaskDto batchTaskDto = BatchTaskDto.builder()
+                .create(List.of(CREATE_TASK_DTO))
+                .build();
+        final BatchResultDto batchResultDto = new BatchResultDto(List.of(BatchItemResultDto.builder()
+                .operation("create")
+                .index(0)
+                .id(7L)
+                .status(201)
+                .task(RESPONSE_TASK_DTO)
+                .build()));
+        doReturn(batchResultDto).when(taskService).batch(batchTaskDto);
+
+        ResponseEntity<BatchResultDto> actualResult = taskController.batchTasks(batchTaskDto);
+
+        verify(taskService).batch(batchTaskDto);
+        assertEquals(HttpStatus.OK, actualResult.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
+        assertEquals(batchResultDto, actualResult.getBody());
+    }
+
+
+
     @Test
     void getTodoList_shouldGetREWithTaskListDtoOfAuthUser_whenDefaultParams() {
         final List<ResponseTaskDto> responseTaskDtoList = Stream.of(TASK, TASK_2, TASK_3)
                 .map(mapper::mapToResponseTaskDto)
                 .toList();
         final TaskListDto taskListDto = new TaskListDto(responseTaskDtoList);
-        doReturn(taskListDto).when(taskService).getAllByAuthUser(0, 20);
+        doReturn(taskListDto).when(taskService).getAllByAuthUser(0, 20, null, filter);
 
-        ResponseEntity<TaskListDto> actualResult = taskController.getTodoList(0, 20);
+        ResponseEntity<TaskListDto> actualResult = taskController.getTodoList(0, 20, null, filter);
 
-        verify(taskService).getAllByAuthUser(0, 20);
+        verify(taskService).getAllByAuthUser(0, 20, null, filter);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -76,11 +109,11 @@ class TaskControllerTest {
                 .map(mapper::mapToResponseTaskDto)
                 .toList();
         final TaskListDto taskListDto = new TaskListDto(responseTaskDtoList);
-        doReturn(taskListDto).when(taskService).getAllByAuthUser(1, 2);
+        doReturn(taskListDto).when(taskService).getAllByAuthUser(1, 2, null, filter);
 
-        ResponseEntity<TaskListDto> actualResult = taskController.getTodoList(1, 2);
+        ResponseEntity<TaskListDto> actualResult = taskController.getTodoList(1, 2, null, filter);
 
-        verify(taskService).getAllByAuthUser(1, 2);
+        verify(taskService).getAllByAuthUser(1, 2, null, filter);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -90,11 +123,11 @@ class TaskControllerTest {
     @Test
     void getTodoList_shouldGetREWithEmptyTaskListDtoOfAuthUser_whenNoTasksByCustomParams() {
         final TaskListDto taskListDto = new TaskListDto(emptyList());
-        doReturn(taskListDto).when(taskService).getAllByAuthUser(999, 999);
+        doReturn(taskListDto).when(taskService).getAllByAuthUser(999, 999, null, filter);
 
-        ResponseEntity<TaskListDto> actualResult = taskController.getTodoList(999, 999);
+        ResponseEntity<TaskListDto> actualResult = taskController.getTodoList(999, 999, null, filter);
 
-        verify(taskService).getAllByAuthUser(999, 999);
+        verify(taskService).getAllByAuthUser(999, 999, null, filter);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -104,11 +137,11 @@ class TaskControllerTest {
     @Test
     void getTodoList_shouldGetREWithEmptyTaskListDtoOfAuthUser_whenNotExist() {
         final TaskListDto taskListDto = new TaskListDto(emptyList());
-        doReturn(taskListDto).when(taskService).getAllByAuthUser(0, 20);
+        doReturn(taskListDto).when(taskService).getAllByAuthUser(0, 20, null, filter);
 
-        ResponseEntity<TaskListDto> actualResult = taskController.getTodoList(0, 20);
+        ResponseEntity<TaskListDto> actualResult = taskController.getTodoList(0, 20, null, filter);
 
-        verify(taskService).getAllByAuthUser(0, 20);
+        verify(taskService).getAllByAuthUser(0, 20, null, filter);
         assertNotNull(actualResult);
         assertEquals(HttpStatus.OK, actualResult.getStatusCode());
         assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
@@ -200,6 +233,51 @@ class TaskControllerTest {
 
 
 
+    @Test
+    void searchTasks_shouldGetREWithFoundTaskListDto() {
+        final TaskListDto taskListDto = new TaskListDto(List.of(RESPONSE_TASK_DTO));
+        doReturn(taskListDto).when(taskSearchService).search("task1", 0, 20);
+
+        ResponseEntity<TaskListDto> actualResult = taskController.searchTasks("task1", 0, 20);
+
+        verify(taskSearchService).search("task1", 0, 20);
+        assertEquals(HttpStatus.OK, actualResult.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
+        assertEquals(taskListDto, actualResult.getBody());
+    }
+
+    @Test
+    void exportTasks_shouldGetREWithGzippedAttachment_whenGzip() throws IOException {
+        doReturn((StreamingResponseBody) out -> out.write("{}\n".getBytes(StandardCharsets.UTF_8)))
+                .when(taskService).exportByAuthUser(ExportFormat.NDJSON);
+
+        ResponseEntity<StreamingResponseBody> actualResult = taskController.exportTasks(ExportFormat.NDJSON, true);
+
+        verify(taskService).exportByAuthUser(ExportFormat.NDJSON);
+        assertEquals(HttpStatus.OK, actualResult.getStatusCode());
+        assertEquals(MediaType.parseMediaType("application/gzip"), actualResult.getHeaders().getContentType());
+        assertEquals("tasks.ndjson.gz", actualResult.getHeaders().getContentDisposition().getFilename());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        actualResult.getBody().writeTo(out);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("{}\n", new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void importTasks_shouldGetREWithImportResultDto() throws IOException {
+        final ByteArrayInputStream body = new ByteArrayInputStream("description\nIvan task4\n".getBytes());
+        final ImportResultDto importResult = new ImportResultDto(1, 0, emptyList());
+        doReturn(importResult).when(taskService).importTasks(ExportFormat.CSV, body);
+
+        ResponseEntity<ImportResultDto> actualResult = taskController.importTasks(ExportFormat.CSV, false, body);
+
+        verify(taskService).importTasks(ExportFormat.CSV, body);
+        assertEquals(HttpStatus.OK, actualResult.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, actualResult.getHeaders().getContentType());
+        assertEquals(importResult, actualResult.getBody());
+    }
+
 }
 
 
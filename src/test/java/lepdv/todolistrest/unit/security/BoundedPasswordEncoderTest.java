@@ -0,0 +1,85 @@
+package lepdv.todolistrest.unit.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lepdv.todolistrest.exception.PasswordHashingBusyException;
+import lepdv.todolistrest.security.BoundedPasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+
+
+
+    @Test
+    void encode_shouldGetHashWhichMatches() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1,
+                meterRegistry);
+
+        String hash = encoder.encode("password");
+
+        assertTrue(encoder.matches("password", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(3, meterRegistry.get("password.hashing").timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum());
+        encoder.destroy();
+    }
+
+    @Test
+    void encode_shouldThrowException_whenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (encoder.queueSize() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("third"));
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        String first = running.get(5, TimeUnit.SECONDS);
+        String second = queued.get(5, TimeUnit.SECONDS);
+        assertTrue(encoder.matches("first", first));
+        assertTrue(encoder.matches("second", second));
+        encoder.destroy();
+    }
+
+    @Test
+    void upgradeEncoding_shouldBeTrue_whenHashHasLowerCost() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1,
+                meterRegistry);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password")));
+        encoder.destroy();
+    }
+
+
+}
@@ -5,8 +5,13 @@ import io.jsonwebtoken.SignatureException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletResponse;
+import lepdv.todolistrest.cache.UserIdentity;
+import lepdv.todolistrest.cache.UserIdentityCache;
+import lepdv.todolistrest.repository.UserRepository;
+import lepdv.todolistrest.security.AuthPrincipal;
 import lepdv.todolistrest.security.JWTFilter;
 import lepdv.todolistrest.security.JWTUtil;
+import lepdv.todolistrest.security.JwtClaims;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -21,9 +26,15 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import static lepdv.todolistrest.Constants.USER;
+import static lepdv.todolistrest.Constants.USER_IDENTITY;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -32,6 +43,10 @@ class JWTFilterTest {
 
     @Mock
     private JWTUtil jwtUtil;
+    @Mock
+    private UserIdentityCache userIdentityCache;
+    @Mock
+    private UserRepository userRepository;
     @InjectMocks
     private JWTFilter jwtFilter;
 
@@ -47,11 +62,14 @@ class JWTFilterTest {
         final String jwt = "'some jwt'";
         final String username = USER.getUsername();
         final List<String> roleList = USER.getAuthorities().stream().map(String::valueOf).toList();
+        final AuthPrincipal principal = new AuthPrincipal(USER.getId(), username, USER.getRole());
         final UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                username, null, roleList.stream().map(SimpleGrantedAuthority::new).toList());
+                principal, null, roleList.stream().map(SimpleGrantedAuthority::new).toList());
+        authToken.setDetails(USER_IDENTITY);
         final SecurityContext mockSecurityContext = mock(SecurityContext.class);
-        doReturn(username).when(jwtUtil).validateAndRetrieveUsername(jwt);
-        doReturn(roleList).when(jwtUtil).validateAndRetrieveRoles(jwt);
+        final JwtClaims claims = new JwtClaims(username, USER.getId(), roleList, Instant.now().plusSeconds(60));
+        doReturn(claims).when(jwtUtil).validateAndDecode(jwt);
+        doReturn(Optional.of(USER_IDENTITY)).when(userIdentityCache).get(eq(username), any());
         doReturn(null).when(mockSecurityContext).getAuthentication();
         doNothing().when(mockSecurityContext).setAuthentication(authToken);
         doNothing().when(filterChainMock).doFilter(requestMock, responseMock);
@@ -63,13 +81,33 @@ class JWTFilterTest {
             contextHolder.verify(SecurityContextHolder::getContext, times(2));
         }
 
-        verify(jwtUtil).validateAndRetrieveUsername(jwt);
-        verify(jwtUtil).validateAndRetrieveRoles(jwt);
+        verify(jwtUtil).validateAndDecode(jwt);
+        verifyNoMoreInteractions(jwtUtil);
         verify(mockSecurityContext).getAuthentication();
         verify(mockSecurityContext).setAuthentication(authToken);
         verify(filterChainMock).doFilter(requestMock, responseMock);
     }
 
+    @Test
+    void doFilterInternal_shouldSendForbidden_whenUserIsLocked() throws ServletException, IOException {
+        final MockHttpServletRequest requestMock = new MockHttpServletRequest();
+        requestMock.addHeader(HttpHeaders.AUTHORIZATION, "Bearer 'some jwt'");
+        final HttpServletResponse responseMock = mock(HttpServletResponse.class);
+        final FilterChain filterChainMock = mock(FilterChain.class);
+        final String username = USER.getUsername();
+        final List<String> roleList = USER.getAuthorities().stream().map(String::valueOf).toList();
+        final JwtClaims claims = new JwtClaims(username, USER.getId(), roleList, Instant.now().plusSeconds(60));
+        final UserIdentity lockedIdentity = new UserIdentity(USER.getId(), username, USER.getRole(), false);
+        doReturn(claims).when(jwtUtil).validateAndDecode("'some jwt'");
+        doReturn(Optional.of(lockedIdentity)).when(userIdentityCache).get(eq(username), any());
+
+        jwtFilter.doFilterInternal(requestMock, responseMock, filterChainMock);
+
+        verify(responseMock).sendError(HttpServletResponse.SC_FORBIDDEN, "User is locked");
+        verifyNoInteractions(filterChainMock);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
     @Test
     void doFilterInternal_shouldThrowException_whenJwtIsExpired() throws ServletException, IOException {
         final MockHttpServletRequest requestMock = new MockHttpServletRequest();
@@ -77,12 +115,12 @@ class JWTFilterTest {
         final HttpServletResponse responseMock = mock(HttpServletResponse.class);
         final FilterChain filterChainMock = mock(FilterChain.class);
         final String expiredJwt = "'ExpiredJwtException jwt'";
-        doThrow(ExpiredJwtException.class).when(jwtUtil).validateAndRetrieveUsername(expiredJwt);
+        doThrow(ExpiredJwtException.class).when(jwtUtil).validateAndDecode(expiredJwt);
         doNothing().when(responseMock).sendError(HttpServletResponse.SC_BAD_REQUEST, "Lifetime of jwt token is expired");
 
         jwtFilter.doFilterInternal(requestMock, responseMock, filterChainMock);
 
-        verify(jwtUtil).validateAndRetrieveUsername(expiredJwt);
+        verify(jwtUtil).validateAndDecode(expiredJwt);
         verify(responseMock).sendError(HttpServletResponse.SC_BAD_REQUEST, "Lifetime of jwt token is expired");
         verify(filterChainMock).doFilter(requestMock, responseMock);
     }
@@ -94,12 +132,12 @@ class JWTFilterTest {
         final HttpServletResponse responseMock = mock(HttpServletResponse.class);
         final FilterChain filterChainMock = mock(FilterChain.class);
         final String invalidJwt = "'SignatureException jwt'";
-        doThrow(SignatureException.class).when(jwtUtil).validateAndRetrieveUsername(invalidJwt);
+        doThrow(SignatureException.class).when(jwtUtil).validateAndDecode(invalidJwt);
         doNothing().when(responseMock).sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid jwt token");
 
         jwtFilter.doFilterInternal(requestMock, responseMock, filterChainMock);
 
-        verify(jwtUtil).validateAndRetrieveUsername(invalidJwt);
+        verify(jwtUtil).validateAndDecode(invalidJwt);
         verify(responseMock).sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid jwt token");
         verify(filterChainMock).doFilter(requestMock, responseMock);
     }
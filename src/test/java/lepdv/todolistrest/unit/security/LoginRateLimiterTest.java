@@ -0,0 +1,118 @@
+package lepdv.todolistrest.unit.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lepdv.todolistrest.exception.TooManyLoginAttemptsException;
+import lepdv.todolistrest.security.LoginRateLimiter;
+import lepdv.todolistrest.security.LoginRateLimiter.Limit;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class LoginRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private final LoginRateLimiter limiter = new LoginRateLimiter(true,
+            new Limit("username", 2, Duration.ofMinutes(1)), new Limit("ip", 3, Duration.ofSeconds(10)),
+            Duration.ofMinutes(10), 100, 4, meterRegistry, clock::get);
+
+
+
+
+    @Test
+    void acquire_shouldThrowException_whenUsernameHasNoTokens() {
+        limiter.acquire("Ivan", "10.0.0.1");
+        limiter.acquire("Ivan", "10.0.0.2");
+
+        TooManyLoginAttemptsException exception = assertThrows(TooManyLoginAttemptsException.class,
+                () -> limiter.acquire("Ivan", "10.0.0.3"));
+        assertEquals("Too many login attempts, try again in 60 s", exception.getMessage());
+        assertDoesNotThrow(() -> limiter.acquire("Katya", "10.0.0.3"));
+        assertEquals(1.0, meterRegistry.get("login.rate-limit.attempts")
+                .tags("key", "username", "result", "rejected").counter().count());
+    }
+
+    @Test
+    void acquire_shouldThrowException_whenIpHasNoTokens() {
+        limiter.acquire("a", "10.0.0.1");
+        limiter.acquire("b", "10.0.0.1");
+        limiter.acquire("c", "10.0.0.1");
+
+        assertThrows(TooManyLoginAttemptsException.class, () -> limiter.acquire("d", "10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.acquire("d", "10.0.0.2"));
+    }
+
+    @Test
+    void acquire_shouldAllowAgain_whenTokenIsRefilled() {
+        limiter.acquire("Ivan", "10.0.0.1");
+        limiter.acquire("Ivan", "10.0.0.1");
+        assertThrows(TooManyLoginAttemptsException.class, () -> limiter.acquire("Ivan", "10.0.0.1"));
+
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertDoesNotThrow(() -> limiter.acquire("Ivan", "10.0.0.1"));
+    }
+
+    @Test
+    void onSuccess_shouldGiveTokensBack() {
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire("Ivan", "10.0.0.1");
+            limiter.onSuccess("Ivan", "10.0.0.1");
+        }
+
+        assertDoesNotThrow(() -> limiter.acquire("Ivan", "10.0.0.1"));
+    }
+
+    @Test
+    void acquire_shouldDropIdleBuckets_whenMaxBucketsAreTracked() {
+        LoginRateLimiter small = new LoginRateLimiter(true,
+                new Limit("username", 1, Duration.ofSeconds(1)), new Limit("ip", 1, Duration.ofSeconds(1)),
+                Duration.ofMinutes(1), 1, 4, meterRegistry, clock::get);
+        small.acquire("Ivan", "10.0.0.1");
+
+        small.acquire("Katya", "10.0.0.2");
+        assertEquals(2, small.size());
+        assertEquals(1.0, meterRegistry.get("login.rate-limit.attempts")
+                .tags("key", "username", "result", "untracked").counter().count());
+        assertEquals(1.0, meterRegistry.get("login.rate-limit.attempts")
+                .tags("key", "ip", "result", "untracked").counter().count());
+
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        small.acquire("Katya", "10.0.0.2");
+        assertEquals(2, small.size());
+        assertThrows(TooManyLoginAttemptsException.class, () -> small.acquire("Katya", "10.0.0.2"));
+        assertDoesNotThrow(() -> small.acquire("Ivan", "10.0.0.1"));
+    }
+
+    @Test
+    void acquire_shouldLimitIp_whenUsernameBucketsAreNotTracked() {
+        LoginRateLimiter small = new LoginRateLimiter(true,
+                new Limit("username", 2, Duration.ofMinutes(1)), new Limit("ip", 3, Duration.ofSeconds(10)),
+                Duration.ofMinutes(10), 1, 4, meterRegistry, clock::get);
+        small.acquire("a", "10.0.0.1");
+        small.acquire("b", "10.0.0.1");
+        small.acquire("c", "10.0.0.1");
+
+        assertThrows(TooManyLoginAttemptsException.class, () -> small.acquire("d", "10.0.0.1"));
+        assertEquals(2.0, meterRegistry.get("login.rate-limit.attempts")
+                .tags("key", "username", "result", "untracked").counter().count());
+    }
+
+    @Test
+    void acquire_shouldAllowAll_whenDisabled() {
+        LoginRateLimiter disabled = new LoginRateLimiter(false,
+                new Limit("username", 1, Duration.ofMinutes(1)), new Limit("ip", 1, Duration.ofMinutes(1)),
+                Duration.ofMinutes(10), 100, 4, meterRegistry, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            disabled.acquire("Ivan", "10.0.0.1");
+        }
+        assertEquals(0, disabled.size());
+    }
+
+
+}
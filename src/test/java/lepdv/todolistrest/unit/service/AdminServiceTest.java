@@ -1,18 +1,24 @@
 package lepdv.todolistrest.unit.service;
 
+import lepdv.todolistrest.cache.UserIdentityCache;
 import lepdv.todolistrest.dto.admin.UserForAdminDto;
 import lepdv.todolistrest.dto.admin.UserListDto;
 import lepdv.todolistrest.dto.auth.CredentialsDto;
+import lepdv.todolistrest.dto.revision.RevisionListDto;
+import lepdv.todolistrest.dto.revision.RevisionView;
 import lepdv.todolistrest.dto.task.ResponseTaskDto;
 import lepdv.todolistrest.dto.task.TaskListDto;
 import lepdv.todolistrest.entity.Task;
 import lepdv.todolistrest.entity.User;
 import lepdv.todolistrest.exception.NotFoundException;
 import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.export.ExportFormat;
 import lepdv.todolistrest.mapper.Mapper;
 import lepdv.todolistrest.service.AdminService;
+import lepdv.todolistrest.service.RevisionService;
 import lepdv.todolistrest.service.TaskService;
 import lepdv.todolistrest.service.UserService;
+import lepdv.todolistrest.util.PageCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -21,6 +27,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -40,9 +47,13 @@ class AdminServiceTest {
     @Mock
     private TaskService taskService;
     @Mock
+    private RevisionService revisionService;
+    @Mock
     private Mapper mapper;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private UserIdentityCache userIdentityCache;
     @InjectMocks
     private AdminService adminService;
 
@@ -55,7 +66,7 @@ class AdminServiceTest {
         doReturn(USER_LIST).when(userService).getAllByPageable(pageable);
         doReturn(USER_FOR_ADMIN_DTO).when(mapper).mapToUserForAdminDto(any(User.class));
 
-        UserListDto actualResult = adminService.getAllUsers(0, 20);
+        UserListDto actualResult = adminService.getAllUsers(0, 20, null);
 
         verify(userService).getAllByPageable(pageable);
         verify(mapper, times(3)).mapToUserForAdminDto(any(User.class));
@@ -69,7 +80,7 @@ class AdminServiceTest {
         doReturn(List.of(KATYA)).when(userService).getAllByPageable(pageable);
         doReturn(USER_FOR_ADMIN_DTO).when(mapper).mapToUserForAdminDto(any(User.class));
 
-        UserListDto actualResult = adminService.getAllUsers(1, 2);
+        UserListDto actualResult = adminService.getAllUsers(1, 2, null);
 
         verify(userService).getAllByPageable(pageable);
         verify(mapper).mapToUserForAdminDto(any(User.class));
@@ -77,12 +88,20 @@ class AdminServiceTest {
         assertThat(actualResult.getUserList()).hasSize(1);
     }
 
+    @Test
+    void getAllUsers_shouldThrowException_whenCursorHasNoUsername() {
+        assertThrows(UnitedException.class,
+                () -> adminService.getAllUsers(0, 2, PageCursor.of(USER.getId()).encode()));
+
+        verifyNoInteractions(userService);
+    }
+
     @Test
     void getAllUsers_shouldGetEmptyUserListDto_whenNoUsersByCustomArguments() {
         final Pageable pageable = PageRequest.of(999, 999);
         doReturn(emptyList()).when(userService).getAllByPageable(pageable);
 
-        UserListDto actualResult = adminService.getAllUsers(999, 999);
+        UserListDto actualResult = adminService.getAllUsers(999, 999, null);
 
         verify(userService).getAllByPageable(pageable);
         verifyNoInteractions(mapper);
@@ -122,6 +141,8 @@ class AdminServiceTest {
         adminService.lockUser(user.getId());
 
         verify(userService).getUser(user.getId());
+        verify(userIdentityCache).invalidate(user.getUsername());
+        assertFalse(user.getIsNonLocked());
     }
 
     @Test
@@ -149,6 +170,7 @@ class AdminServiceTest {
         adminService.unlockUser(USER.getId());
 
         verify(userService).getUser(USER.getId());
+        verify(userIdentityCache).invalidate(USER.getUsername());
     }
 
     @Test
@@ -222,7 +244,7 @@ class AdminServiceTest {
         doReturn(TASK_LIST).when(taskService).getAllByPageable(pageable);
         doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(any(Task.class));
 
-        TaskListDto actualResult = adminService.getAllTasks(0, 20);
+        TaskListDto actualResult = adminService.getAllTasks(0, 20, null);
 
         verify(taskService).getAllByPageable(pageable);
         verify(mapper, times(6)).mapToResponseTaskDto(any(Task.class));
@@ -236,7 +258,7 @@ class AdminServiceTest {
         doReturn(List.of(TASK_3, TASK_4)).when(taskService).getAllByPageable(pageable);
         doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(any(Task.class));
 
-        TaskListDto actualResult = adminService.getAllTasks(1, 2);
+        TaskListDto actualResult = adminService.getAllTasks(1, 2, null);
 
         verify(taskService).getAllByPageable(pageable);
         verify(mapper, times(2)).mapToResponseTaskDto(any(Task.class));
@@ -244,12 +266,27 @@ class AdminServiceTest {
         assertThat(actualResult.getTaskList()).hasSize(2);
     }
 
+    @Test
+    void getAllTasks_shouldSeekAfterCursorAndSetNextCursor_whenCursorIsPresent() {
+        final PageCursor cursor = new PageCursor(TASK_2.getId(), USER.getUsername());
+        doReturn(List.of(TASK_3, TASK_4)).when(taskService).getAllAfter(cursor, 2);
+        doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(any(Task.class));
+
+        TaskListDto actualResult = adminService.getAllTasks(0, 2, cursor.encode());
+
+        verify(taskService).getAllAfter(cursor, 2);
+        verify(taskService, never()).getAllByPageable(any());
+        assertThat(actualResult.getTaskList()).hasSize(2);
+        assertEquals(new PageCursor(TASK_4.getId(), TASK_4.getUser().getUsername()).encode(),
+                actualResult.getNextCursor());
+    }
+
     @Test
     void getAllTasks_shouldGetEmptyTaskListDto_whenNoTasksByCustomArguments() {
         final Pageable pageable = PageRequest.of(999, 999);
         doReturn(emptyList()).when(taskService).getAllByPageable(pageable);
 
-        TaskListDto actualResult = adminService.getAllTasks(999, 999);
+        TaskListDto actualResult = adminService.getAllTasks(999, 999, null);
 
         verify(taskService).getAllByPageable(pageable);
         verifyNoInteractions(mapper);
@@ -261,7 +298,7 @@ class AdminServiceTest {
         final Pageable pageable = PageRequest.of(0, 20);
         doReturn(emptyList()).when(taskService).getAllByPageable(pageable);
 
-        TaskListDto actualResult = adminService.getAllTasks(0, 20);
+        TaskListDto actualResult = adminService.getAllTasks(0, 20, null);
 
         verify(taskService).getAllByPageable(pageable);
         verifyNoInteractions(mapper);
@@ -289,4 +326,27 @@ class AdminServiceTest {
     }
 
 
+    @Test
+    void getUserRevisions_shouldDelegateToRevisionService() {
+        final RevisionListDto revisionListDto = new RevisionListDto(emptyList());
+        doReturn(revisionListDto).when(revisionService).getUserRevisions(USER.getId(), 20, null, RevisionView.DIFF);
+
+        RevisionListDto actualResult = adminService.getUserRevisions(USER.getId(), 20, null, RevisionView.DIFF);
+
+        verify(revisionService).getUserRevisions(USER.getId(), 20, null, RevisionView.DIFF);
+        assertEquals(revisionListDto, actualResult);
+    }
+
+
+    @Test
+    void exportAllTasks_shouldGetExportOfAllTasks() {
+        final StreamingResponseBody export = out -> {};
+        doReturn(export).when(taskService).exportAll(ExportFormat.NDJSON);
+
+        StreamingResponseBody actualResult = adminService.exportAllTasks(ExportFormat.NDJSON);
+
+        verify(taskService).exportAll(ExportFormat.NDJSON);
+        assertSame(export, actualResult);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package lepdv.todolistrest.unit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lepdv.todolistrest.dto.task.ResponseTaskDto;
+import lepdv.todolistrest.dto.task.TaskListDto;
+import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.repository.TaskRepository;
+import lepdv.todolistrest.search.TaskSearchEngine;
+import lepdv.todolistrest.service.TaskSearchService;
+import lepdv.todolistrest.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static lepdv.todolistrest.Constants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchServiceTest {
+
+    @Mock
+    private TaskSearchEngine searchEngine;
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private UserService userService;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskSearchService taskSearchService;
+
+
+
+    @BeforeEach
+    void setUp() {
+        taskSearchService = new TaskSearchService(searchEngine, taskRepository, userService, meterRegistry);
+        lenient().doReturn("lucene").when(searchEngine).name();
+    }
+
+
+
+    @Test
+    void search_shouldGetTasksInRankOrder() {
+        final ResponseTaskDto task3 = ResponseTaskDto.builder().id(3L).description("Ivan task3").build();
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(List.of(3L, 1L)).when(searchEngine).search(USER.getId(), "task", 20, 10);
+        doReturn(List.of(RESPONSE_TASK_DTO, task3)).when(taskRepository)
+                .findAllDtoByIdInAndUserId(List.of(3L, 1L), USER.getId());
+
+        TaskListDto actualResult = taskSearchService.search("task", 2, 10);
+
+        verify(searchEngine).search(USER.getId(), "task", 20, 10);
+        assertEquals(new TaskListDto(List.of(task3, RESPONSE_TASK_DTO)), actualResult);
+        assertEquals(1, meterRegistry.get("task.search").tag("engine", "lucene").tag("phase", "total")
+                .timer().count());
+    }
+
+    @Test
+    void search_shouldSkipIds_whenTasksNotExist() {
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(List.of(7L, 1L)).when(searchEngine).search(USER.getId(), "task1", 0, 20);
+        doReturn(List.of(RESPONSE_TASK_DTO)).when(taskRepository)
+                .findAllDtoByIdInAndUserId(List.of(7L, 1L), USER.getId());
+
+        TaskListDto actualResult = taskSearchService.search("task1", 0, 20);
+
+        assertEquals(new TaskListDto(List.of(RESPONSE_TASK_DTO)), actualResult);
+    }
+
+    @Test
+    void search_shouldNotQueryTasks_whenNothingFound() {
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(List.of()).when(searchEngine).search(USER.getId(), "nothing", 0, 20);
+
+        TaskListDto actualResult = taskSearchService.search("nothing", 0, 20);
+
+        verifyNoInteractions(taskRepository);
+        assertEquals(new TaskListDto(List.of()), actualResult);
+    }
+
+    @Test
+    void search_shouldThrowUnitedException_whenQueryIsBlank() {
+        assertThrows(UnitedException.class, () -> taskSearchService.search(" ", 0, 20));
+
+        verifyNoInteractions(searchEngine, taskRepository, userService);
+    }
+
+    @Test
+    void search_shouldThrowUnitedException_whenPageOrSizeIsInvalid() {
+        assertThrows(UnitedException.class, () -> taskSearchService.search("task", 0, 0));
+        assertThrows(UnitedException.class, () -> taskSearchService.search("task", -1, 20));
+        assertThrows(UnitedException.class, () -> taskSearchService.search("task", Integer.MAX_VALUE / 20, 20));
+
+        verifyNoInteractions(searchEngine, taskRepository, userService);
+    }
+
+    @Test
+    void search_shouldLowerSizeToMax() {
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(List.of()).when(searchEngine).search(USER.getId(), "task", 100, 100);
+
+        taskSearchService.search("task", 1, 1000);
+
+        verify(searchEngine).search(USER.getId(), "task", 100, 100);
+    }
+
+
+}
@@ -1,34 +1,51 @@
 package lepdv.todolistrest.unit.service;
 
-import lepdv.todolistrest.dto.task.ResponseTaskDto;
-import lepdv.todolistrest.dto.task.TaskListDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import lepdv.todolistrest.dto.task.*;
 import lepdv.todolistrest.entity.Task;
+import lepdv.todolistrest.entity.TaskStatus;
 import lepdv.todolistrest.exception.NotFoundException;
 import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.export.ExportFormat;
+import lepdv.todolistrest.export.TaskExporter;
+import lepdv.todolistrest.export.TaskImporter;
 import lepdv.todolistrest.mapper.Mapper;
 import lepdv.todolistrest.repository.TaskRepository;
+import lepdv.todolistrest.search.TaskIndexEvent;
 import lepdv.todolistrest.service.TaskService;
 import lepdv.todolistrest.service.UserService;
-import lepdv.todolistrest.util.AuthUser;
+import lepdv.todolistrest.util.PageCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
 import static lepdv.todolistrest.Constants.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -41,6 +58,14 @@ class TaskServiceTest {
     private UserService userService;
     @Mock
     private Mapper mapper;
+    @Mock
+    private Validator validator;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TaskExporter taskExporter;
+    @Mock
+    private TaskImporter taskImporter;
     @InjectMocks
     private TaskService taskService;
 
@@ -53,17 +78,20 @@ class TaskServiceTest {
                 .description("Ivan task4")
                 .dueDate(LocalDate.of(2025, Month.MAY, 11))
                 .build();
-        doReturn(USER).when(userService).getAuthUser();
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(USER).when(userService).getUserReference(USER.getId());
         doReturn(task).when(mapper).mapToTask(CREATE_TASK_DTO);
         doReturn(TASK).when(taskRepository).save(task);
-        doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(TASK);
+        doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(TASK, USER.getUsername());
 
         ResponseTaskDto actualResult = taskService.create(CREATE_TASK_DTO);
 
-        verify(userService).getAuthUser();
+        verify(userService).getAuthUserIdentity();
+        verify(userService).getUserReference(USER.getId());
         verify(mapper).mapToTask(CREATE_TASK_DTO);
         verify(taskRepository).save(task);
-        verify(mapper).mapToResponseTaskDto(TASK);
+        verify(mapper).mapToResponseTaskDto(TASK, USER.getUsername());
+        verify(eventPublisher).publishEvent(TaskIndexEvent.saved(List.of(TASK)));
         assertEquals(RESPONSE_TASK_DTO, actualResult);
     }
 
@@ -119,62 +147,109 @@ class TaskServiceTest {
     @Test
     void getAllByAuthUser_shouldGetTaskListDtoOfAuthUser_whenDefaultArguments() {
         final Pageable pageable = PageRequest.of(0, 20);
-        final List<Task> userTaskList = List.of(TASK, TASK_2, TASK_3);
-        doReturn(USER).when(userService).getAuthUser();
-        doReturn(userTaskList).when(taskRepository).findAllByUserIdOrderById(USER.getId(), pageable);
-        doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(any(Task.class));
+        final List<ResponseTaskDto> userTaskList = List.of(RESPONSE_TASK_DTO, RESPONSE_TASK_DTO, RESPONSE_TASK_DTO);
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(userTaskList).when(taskRepository).findAllDtoByUserId(USER.getId(), pageable);
 
-        TaskListDto actualResult = taskService.getAllByAuthUser(0, 20);
+        TaskListDto actualResult = taskService.getAllByAuthUser(0, 20, null);
 
-        verify(userService).getAuthUser();
-        verify(taskRepository).findAllByUserIdOrderById(USER.getId(), pageable);
-        verify(mapper, times(3)).mapToResponseTaskDto(any(Task.class));
+        verify(userService).getAuthUserIdentity();
+        verify(taskRepository).findAllDtoByUserId(USER.getId(), pageable);
+        verifyNoInteractions(mapper);
         assertFalse(actualResult.getTaskList().isEmpty());
         assertThat(actualResult.getTaskList()).hasSize(3);
+        assertNull(actualResult.getNextCursor());
     }
 
     @Test
     void getAllByAuthUser_shouldGetPaginatedTaskListDtoOfAuthUser_whenCustomArguments() {
         final Pageable pageable = PageRequest.of(1, 2);
-        final List<Task> userTaskList = List.of(TASK_6);
-        doReturn(USER).when(userService).getAuthUser();
-        doReturn(userTaskList).when(taskRepository).findAllByUserIdOrderById(USER.getId(), pageable);
-        doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(any(Task.class));
+        final List<ResponseTaskDto> userTaskList = List.of(RESPONSE_TASK_DTO);
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(userTaskList).when(taskRepository).findAllDtoByUserId(USER.getId(), pageable);
 
-        TaskListDto actualResult = taskService.getAllByAuthUser(1, 2);
+        TaskListDto actualResult = taskService.getAllByAuthUser(1, 2, null);
 
-        verify(userService).getAuthUser();
-        verify(taskRepository).findAllByUserIdOrderById(USER.getId(), pageable);
-        verify(mapper).mapToResponseTaskDto(any(Task.class));
+        verify(userService).getAuthUserIdentity();
+        verify(taskRepository).findAllDtoByUserId(USER.getId(), pageable);
         assertFalse(actualResult.getTaskList().isEmpty());
         assertThat(actualResult.getTaskList()).hasSize(1);
     }
 
+    @Test
+    void getAllByAuthUser_shouldSeekAfterCursorAndSetNextCursor_whenCursorIsPresent() {
+        final Pageable pageable = PageRequest.ofSize(2);
+        final ResponseTaskDto lastTask = ResponseTaskDto.builder().id(TASK_3.getId()).build();
+        final List<ResponseTaskDto> userTaskList = List.of(RESPONSE_TASK_DTO, lastTask);
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(userTaskList).when(taskRepository).findAllDtoByUserIdAfter(USER.getId(), TASK.getId(), pageable);
+
+        TaskListDto actualResult = taskService.getAllByAuthUser(0, 2, PageCursor.of(TASK.getId()).encode());
+
+        verify(taskRepository).findAllDtoByUserIdAfter(USER.getId(), TASK.getId(), pageable);
+        verify(taskRepository, never()).findAllDtoByUserId(any(), any());
+        assertThat(actualResult.getTaskList()).hasSize(2);
+        assertEquals(PageCursor.of(TASK_3.getId()).encode(), actualResult.getNextCursor());
+    }
+
+    @Test
+    void getAllByAuthUser_shouldReadBySpecificationAndSetDueDateCursor_whenFilterIsSet() {
+        final TaskFilter filter = TaskFilter.builder()
+                .status(TaskStatus.OPEN)
+                .sort(TaskSort.DUE_DATE)
+                .build();
+        final List<ResponseTaskDto> userTaskList = List.of(RESPONSE_TASK_DTO);
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(userTaskList).when(taskRepository).findAllDto(any(), eq(TaskSort.DUE_DATE), eq(0), eq(1));
+
+        TaskListDto actualResult = taskService.getAllByAuthUser(0, 1, null, filter);
+
+        verify(taskRepository, never()).findAllDtoByUserId(any(), any());
+        assertEquals(userTaskList, actualResult.getTaskList());
+        assertEquals(PageCursor.of(RESPONSE_TASK_DTO.getId(), RESPONSE_TASK_DTO.getDueDate()).encode(),
+                actualResult.getNextCursor());
+    }
+
+    @Test
+    void getAllByAuthUser_shouldThrowException_whenCursorIsInvalid() {
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+
+        assertThrows(UnitedException.class, () -> taskService.getAllByAuthUser(0, 2, "dummy"));
+
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void getAllByAuthUser_shouldThrowException_whenSizeOrPageIsInvalid() {
+        assertThrows(UnitedException.class, () -> taskService.getAllByAuthUser(0, 0, null));
+        assertThrows(UnitedException.class, () -> taskService.getAllByAuthUser(-1, 20, null));
+
+        verifyNoInteractions(taskRepository);
+    }
+
     @Test
     void getAllByAuthUser_shouldGetEmptyTaskListDtoOfAuthUser_whenNoTasksByCustomArguments() {
         final Pageable pageable = PageRequest.of(999, 999);
-        doReturn(USER).when(userService).getAuthUser();
-        doReturn(emptyList()).when(taskRepository).findAllByUserIdOrderById(USER.getId(), pageable);
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(emptyList()).when(taskRepository).findAllDtoByUserId(USER.getId(), pageable);
 
-        TaskListDto actualResult = taskService.getAllByAuthUser(999, 999);
+        TaskListDto actualResult = taskService.getAllByAuthUser(999, 999, null);
 
-        verify(userService).getAuthUser();
-        verify(taskRepository).findAllByUserIdOrderById(USER.getId(), pageable);
-        verifyNoInteractions(mapper);
+        verify(userService).getAuthUserIdentity();
+        verify(taskRepository).findAllDtoByUserId(USER.getId(), pageable);
         assertTrue(actualResult.getTaskList().isEmpty());
     }
 
     @Test
     void getAllByAuthUser_shouldGetEmptyTaskListDtoOfAuthUser_whenNotExist() {
         final Pageable pageable = PageRequest.of(0, 20);
-        doReturn(USER).when(userService).getAuthUser();
-        doReturn(emptyList()).when(taskRepository).findAllByUserIdOrderById(USER.getId(), pageable);
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(emptyList()).when(taskRepository).findAllDtoByUserId(USER.getId(), pageable);
 
-        TaskListDto actualResult = taskService.getAllByAuthUser(0, 20);
+        TaskListDto actualResult = taskService.getAllByAuthUser(0, 20, null);
 
-        verify(userService).getAuthUser();
-        verify(taskRepository).findAllByUserIdOrderById(USER.getId(), pageable);
-        verifyNoInteractions(mapper);
+        verify(userService).getAuthUserIdentity();
+        verify(taskRepository).findAllDtoByUserId(USER.getId(), pageable);
         assertTrue(actualResult.getTaskList().isEmpty());
     }
 
@@ -182,67 +257,193 @@ class TaskServiceTest {
 
     @Test
     void getTaskDtoById_shouldGetResponseTaskDto_whenExist() {
-        doReturn(Optional.of(TASK)).when(taskRepository).findById(TASK.getId());
-        doReturn(USER).when(userService).getAuthUser();
-        doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(TASK);
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(Optional.of(RESPONSE_TASK_DTO)).when(taskRepository).findDtoByIdAndUserId(TASK.getId(), USER.getId());
 
         ResponseTaskDto actualResult = taskService.getTaskDtoById(TASK.getId());
 
-        verify(taskRepository).findById(TASK.getId());
-        verify(userService).getAuthUser();
-        verify(mapper).mapToResponseTaskDto(TASK);
+        verify(userService).getAuthUserIdentity();
+        verify(taskRepository).findDtoByIdAndUserId(TASK.getId(), USER.getId());
+        verifyNoMoreInteractions(taskRepository);
+        verifyNoInteractions(mapper);
         assertEquals(RESPONSE_TASK_DTO, actualResult);
     }
 
     @Test
     void getTaskDtoById_shouldThrowException_whenNotExist() {
-        doReturn(Optional.empty()).when(taskRepository).findById(999L);
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(Optional.empty()).when(taskRepository).findDtoByIdAndUserId(999L, USER.getId());
+        doReturn(false).when(taskRepository).existsById(999L);
 
         assertThrows(NotFoundException.class, () -> taskService.getTaskDtoById(999L));
 
-        verify(taskRepository).findById(999L);
+        verify(taskRepository).findDtoByIdAndUserId(999L, USER.getId());
+        verify(taskRepository).existsById(999L);
     }
 
     @Test
     void getTaskDtoById_shouldThrowException_whenTaskIsForeign() {
-        doReturn(Optional.of(TASK_4)).when(taskRepository).findById(TASK_4.getId());
-        doReturn(USER).when(userService).getAuthUser();
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(Optional.empty()).when(taskRepository).findDtoByIdAndUserId(TASK_4.getId(), USER.getId());
+        doReturn(true).when(taskRepository).existsById(TASK_4.getId());
 
         assertThrows(UnitedException.class, () -> taskService.getTaskDtoById(TASK_4.getId()));
 
-        verify(taskRepository).findById(TASK_4.getId());
-        verify(userService).getAuthUser();
+        verify(userService).getAuthUserIdentity();
+        verify(taskRepository).findDtoByIdAndUserId(TASK_4.getId(), USER.getId());
+        verify(taskRepository).existsById(TASK_4.getId());
     }
 
     @Test
     void getTaskDtoById_shouldGetResponseTaskDto_whenTaskIsForeignButAuthUserIsAdmin() {
-        doReturn(Optional.of(TASK)).when(taskRepository).findById(TASK.getId());
-        doReturn(ADMIN).when(userService).getAuthUser();
-        doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(TASK);
+        doReturn(ADMIN_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(Optional.of(RESPONSE_TASK_DTO)).when(taskRepository).findDtoById(TASK.getId());
 
         ResponseTaskDto actualResult = taskService.getTaskDtoById(TASK.getId());
 
-        verify(taskRepository).findById(TASK.getId());
-        verify(userService).getAuthUser();
-        verify(mapper).mapToResponseTaskDto(TASK);
+        verify(userService).getAuthUserIdentity();
+        verify(taskRepository).findDtoById(TASK.getId());
+        verifyNoMoreInteractions(taskRepository);
         assertEquals(RESPONSE_TASK_DTO, actualResult);
     }
 
 
 
+    @Test
+    void exportByAuthUser_shouldResolveUserBeforeWritingTasks() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+
+        StreamingResponseBody actualResult = taskService.exportByAuthUser(ExportFormat.CSV);
+
+        verify(userService).getAuthUserIdentity();
+        verifyNoInteractions(taskExporter);
+        actualResult.writeTo(out);
+        verify(taskExporter).export(USER.getId(), ExportFormat.CSV, out);
+    }
+
+
+
+    @Test
+    void importTasks_shouldImportTasksForAuthUser() throws IOException {
+        final ByteArrayInputStream in = new ByteArrayInputStream(new byte[0]);
+        final ImportResultDto importResult = new ImportResultDto(0, 0, emptyList());
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(importResult).when(taskImporter).importTasks(USER_IDENTITY, ExportFormat.NDJSON, in);
+
+        ImportResultDto actualResult = taskService.importTasks(ExportFormat.NDJSON, in);
+
+        verify(taskImporter).importTasks(USER_IDENTITY, ExportFormat.NDJSON, in);
+        assertEquals(importResult, actualResult);
+    }
+
+
+
+    @Test
+    void batch_shouldApplyValidItemsAndReportEveryItem() {
+        final Task ownTask = TASK.clone();
+        final Task completedTask = TASK_2.clone();
+        final Task deletedTask = TASK_3.clone();
+        final BatchUpdateTaskDto updateTaskDto = BatchUpdateTaskDto.builder()
+                .id(ownTask.getId())
+                .description("Updated Ivan task1")
+                .build();
+        final BatchTaskDto batchTaskDto = BatchTaskDto.builder()
+                .create(List.of(CREATE_TASK_DTO))
+                .update(List.of(updateTaskDto))
+                .markAsCompleted(List.of(completedTask.getId(), TASK_4.getId()))
+                .delete(List.of(deletedTask.getId(), 999L))
+                .build();
+        final Task newTask = Task.builder().description(CREATE_TASK_DTO.getDescription()).build();
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(USER).when(userService).getUserReference(USER.getId());
+        doReturn(List.of(ownTask, completedTask, deletedTask, TASK_4)).when(taskRepository).findAllById(anySet());
+        doReturn(emptySet()).when(validator).validate(any());
+        doReturn(newTask).when(mapper).mapToTask(CREATE_TASK_DTO);
+        doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(any(Task.class), eq(USER.getUsername()));
+
+        BatchResultDto actualResult = taskService.batch(batchTaskDto);
+
+        verify(userService).getAuthUserIdentity();
+        verify(taskRepository).findAllById(Set.of(ownTask.getId(), completedTask.getId(), deletedTask.getId(),
+                TASK_4.getId(), 999L));
+        verify(taskRepository).saveAll(List.of(newTask));
+        verify(taskRepository).deleteAll(List.of(deletedTask));
+        verify(eventPublisher).publishEvent(TaskIndexEvent.of(List.of(newTask, ownTask),
+                List.of(deletedTask.getId())));
+        assertEquals("Updated Ivan task1", ownTask.getDescription());
+        assertEquals(TaskStatus.COMPLETED, completedTask.getStatus());
+        assertEquals(List.of(201, 200, 200, 400, 200, 404), actualResult.getResults().stream()
+                .map(BatchItemResultDto::getStatus)
+                .toList());
+    }
+
+    @Test
+    void batch_shouldReportInvalidItemAndNotApplyIt() {
+        final CreateTaskDto invalidTaskDto = CreateTaskDto.builder()
+                .description("")
+                .build();
+        final BatchTaskDto batchTaskDto = BatchTaskDto.builder()
+                .create(List.of(invalidTaskDto))
+                .build();
+        final Set<ConstraintViolation<CreateTaskDto>> violations = Validation.buildDefaultValidatorFactory()
+                .getValidator()
+                .validate(invalidTaskDto);
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+        doReturn(violations).when(validator).validate(invalidTaskDto);
+
+        BatchResultDto actualResult = taskService.batch(batchTaskDto);
+
+        verify(taskRepository).saveAll(emptyList());
+        verifyNoInteractions(mapper);
+        assertThat(actualResult.getResults()).hasSize(1);
+        assertEquals(400, actualResult.getResults().get(0).getStatus());
+        assertEquals("description - can't be empty; ", actualResult.getResults().get(0).getError());
+    }
+
+    @Test
+    void batch_shouldReportNullItems() {
+        final BatchTaskDto batchTaskDto = BatchTaskDto.builder()
+                .create(singletonList(null))
+                .update(singletonList(null))
+                .build();
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
+
+        BatchResultDto actualResult = taskService.batch(batchTaskDto);
+
+        verify(taskRepository).findAllById(emptySet());
+        verify(taskRepository).saveAll(emptyList());
+        verifyNoInteractions(validator, mapper);
+        assertThat(actualResult.getResults()).hasSize(2)
+                .allSatisfy(result -> {
+                    assertEquals(400, result.getStatus());
+                    assertEquals("item - can't be empty; ", result.getError());
+                });
+    }
+
+    @Test
+    void batch_shouldThrowException_whenBatchIsTooLarge() {
+        final BatchTaskDto batchTaskDto = BatchTaskDto.builder()
+                .delete(LongStream.rangeClosed(0, TaskService.MAX_BATCH_SIZE).boxed().toList())
+                .build();
+
+        assertThrows(UnitedException.class, () -> taskService.batch(batchTaskDto));
+
+        verifyNoInteractions(taskRepository, userService);
+    }
+
+
+
     @Test
     void update_shouldUpdateTask_whenExist() {
         final Task task = TASK.clone();
         doReturn(Optional.of(task)).when(taskRepository).findById(task.getId());
         doReturn(RESPONSE_TASK_DTO).when(mapper).mapToResponseTaskDto(task);
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
 
-        ResponseTaskDto actualResult;
-        try (MockedStatic<AuthUser> authUserMock = mockStatic(AuthUser.class)) {
-            authUserMock.when(AuthUser::getAuthUsername).thenReturn(USER.getUsername());
-            actualResult = taskService.update(task.getId(), UPDATE_TASK_DTO);
+        ResponseTaskDto actualResult = taskService.update(task.getId(), UPDATE_TASK_DTO);
 
-            authUserMock.verify(AuthUser::getAuthUsername);
-        }
+        verify(userService).getAuthUserIdentity();
         verify(taskRepository).findById(task.getId());
         verify(mapper).mapToResponseTaskDto(task);
         assertEquals(RESPONSE_TASK_DTO, actualResult);
@@ -259,13 +460,11 @@ class TaskServiceTest {
     @Test
     void update_shouldThrowException_whenTaskIsForeign() {
         doReturn(Optional.of(TASK_4)).when(taskRepository).findById(TASK_4.getId());
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
 
-        try (MockedStatic<AuthUser> authUserMock = mockStatic(AuthUser.class)) {
-            authUserMock.when(AuthUser::getAuthUsername).thenReturn(USER.getUsername());
-            assertThrows(UnitedException.class, () -> taskService.update(TASK_4.getId(), UPDATE_TASK_DTO));
+        assertThrows(UnitedException.class, () -> taskService.update(TASK_4.getId(), UPDATE_TASK_DTO));
 
-            authUserMock.verify(AuthUser::getAuthUsername);
-        }
+        verify(userService).getAuthUserIdentity();
         verify(taskRepository).findById(TASK_4.getId());
     }
 
@@ -275,13 +474,11 @@ class TaskServiceTest {
     void markAsCompleted_shouldMarkTaskAsCompleted_whenExist() {
         final Task task = TASK.clone();
         doReturn(Optional.of(task)).when(taskRepository).findById(task.getId());
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
 
-        try (MockedStatic<AuthUser> authUserMock = mockStatic(AuthUser.class)) {
-            authUserMock.when(AuthUser::getAuthUsername).thenReturn(USER.getUsername());
-            taskService.markAsCompleted(task.getId());
+        taskService.markAsCompleted(task.getId());
 
-            authUserMock.verify(AuthUser::getAuthUsername);
-        }
+        verify(userService).getAuthUserIdentity();
         verify(taskRepository).findById(task.getId());
     }
 
@@ -296,13 +493,11 @@ class TaskServiceTest {
     @Test
     void markAsCompleted_shouldThrowException_whenTaskIsForeign() {
         doReturn(Optional.of(TASK_4)).when(taskRepository).findById(TASK_4.getId());
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
 
-        try (MockedStatic<AuthUser> authUserMock = mockStatic(AuthUser.class)) {
-            authUserMock.when(AuthUser::getAuthUsername).thenReturn(USER.getUsername());
-            assertThrows(UnitedException.class, () -> taskService.markAsCompleted(TASK_4.getId()));
+        assertThrows(UnitedException.class, () -> taskService.markAsCompleted(TASK_4.getId()));
 
-            authUserMock.verify(AuthUser::getAuthUsername);
-        }
+        verify(userService).getAuthUserIdentity();
         verify(taskRepository).findById(TASK_4.getId());
     }
 
@@ -312,13 +507,11 @@ class TaskServiceTest {
     void delete_shouldDeleteTask_whenExist() {
         doReturn(Optional.of(TASK)).when(taskRepository).findById(TASK.getId());
         doNothing().when(taskRepository).deleteById(TASK.getId());
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
 
-        try (MockedStatic<AuthUser> authUserMock = mockStatic(AuthUser.class)) {
-            authUserMock.when(AuthUser::getAuthUsername).thenReturn(USER.getUsername());
-            taskService.delete(TASK.getId());
+        taskService.delete(TASK.getId());
 
-            authUserMock.verify(AuthUser::getAuthUsername);
-        }
+        verify(userService).getAuthUserIdentity();
         verify(taskRepository).findById(TASK.getId());
         verify(taskRepository).deleteById(TASK.getId());
     }
@@ -334,13 +527,11 @@ class TaskServiceTest {
     @Test
     void delete_shouldThrowException_whenTaskIsForeign() {
         doReturn(Optional.of(TASK_4)).when(taskRepository).findById(TASK_4.getId());
+        doReturn(USER_IDENTITY).when(userService).getAuthUserIdentity();
 
-        try (MockedStatic<AuthUser> authUserMock = mockStatic(AuthUser.class)) {
-            authUserMock.when(AuthUser::getAuthUsername).thenReturn(USER.getUsername());
-            assertThrows(UnitedException.class, () -> taskService.delete(TASK_4.getId()));
+        assertThrows(UnitedException.class, () -> taskService.delete(TASK_4.getId()));
 
-            authUserMock.verify(AuthUser::getAuthUsername);
-        }
+        verify(userService).getAuthUserIdentity();
         verify(taskRepository).findById(TASK_4.getId());
     }
 
@@ -1,5 +1,7 @@
 package lepdv.todolistrest.unit.service;
 
+import lepdv.todolistrest.cache.UserIdentity;
+import lepdv.todolistrest.cache.UserIdentityCache;
 import lepdv.todolistrest.dto.auth.CredentialsDto;
 import lepdv.todolistrest.dto.user.EditPasswordDto;
 import lepdv.todolistrest.dto.user.UserDto;
@@ -8,6 +10,7 @@ import lepdv.todolistrest.exception.NotFoundException;
 import lepdv.todolistrest.exception.UnitedException;
 import lepdv.todolistrest.mapper.Mapper;
 import lepdv.todolistrest.repository.UserRepository;
+import lepdv.todolistrest.service.RefreshTokenService;
 import lepdv.todolistrest.service.UserService;
 import lepdv.todolistrest.util.AuthUser;
 import org.junit.jupiter.api.Test;
@@ -24,11 +27,14 @@ import java.time.LocalDate;
 import java.time.Month;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static java.util.Collections.emptyList;
 import static lepdv.todolistrest.Constants.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -41,6 +47,10 @@ class UserServiceTest {
     private PasswordEncoder passwordEncoder;
     @Mock
     private Mapper mapper;
+    @Mock
+    private UserIdentityCache userIdentityCache;
+    @Mock
+    private RefreshTokenService refreshTokenService;
     @Spy
     @InjectMocks
     private UserService userService;
@@ -68,6 +78,19 @@ class UserServiceTest {
 
 
 
+    @Test
+    void updatePassword_shouldSetRehashedPassword() {
+        User user = User.builder().id(2L).username("Ivan").password("$2a$04$old").build();
+        doReturn(Optional.of(user)).when(userRepository).findByUsername("Ivan");
+
+        UserDetails actualResult = userService.updatePassword(user, "$2a$12$new");
+
+        assertEquals("$2a$12$new", actualResult.getPassword());
+        assertEquals("$2a$12$new", user.getPassword());
+    }
+
+
+
     @Test
     void register_shouldRegisterNewUser() {
         final User user = User.builder()
@@ -78,13 +101,14 @@ class UserServiceTest {
                 .build();
         doReturn(user).when(mapper).mapToUser(REGISTER_DTO);
         doReturn(SAVED_USER.getPassword()).when(passwordEncoder).encode(user.getPassword());
-        doReturn(SAVED_USER).when(userRepository).save(user);
+        doReturn(SAVED_USER).when(userRepository).saveAndFlush(user);
 
-        userService.register(REGISTER_DTO);
+        User actualResult = userService.register(REGISTER_DTO);
 
+        assertEquals(SAVED_USER, actualResult);
         verify(mapper).mapToUser(REGISTER_DTO);
         verify(passwordEncoder).encode("Petr");
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
     }
 
 
@@ -192,6 +216,7 @@ class UserServiceTest {
         UserDto actualResult = userService.update(USER_DTO);
 
         verify(userService).getAuthUser();
+        verify(userIdentityCache).invalidate(USER.getUsername());
         verify(mapper).mapToUserDto(user);
         assertEquals(USER_DTO, actualResult);
     }
@@ -215,6 +240,8 @@ class UserServiceTest {
         verify(userService).getAuthUser();
         verify(passwordEncoder).matches(editPasswordDto.getOldPassword(), "$2a$10$JfoL9fN.fl4DtP.mUQAF0..OzWxIE2ffAq7nWY4XtXKazpYCd5HSK");
         verify(passwordEncoder).encode(editPasswordDto.getNewPassword());
+        verify(userIdentityCache).invalidate(user.getUsername());
+        verify(refreshTokenService).revokeAll(user.getId());
     }
 
     @Test
@@ -249,6 +276,7 @@ class UserServiceTest {
         verify(userService).getAuthUser();
         verify(passwordEncoder).matches(credentialsDto.getPassword(), USER.getPassword());
         verify(userRepository).delete(USER);
+        verify(userIdentityCache).invalidate(USER.getUsername());
     }
 
     @Test
@@ -276,6 +304,7 @@ class UserServiceTest {
 
         verify(userService).getUser(USER.getId());
         verify(userRepository).deleteById(USER.getId());
+        verify(userIdentityCache).invalidate(USER.getUsername());
     }
 
     @Test
@@ -304,22 +333,46 @@ class UserServiceTest {
     }
 
 
-}
-
-
-
-
-
-
-
-
-
-
-
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAuthUserIdentity_shouldGetIdentityFromCache() {
+        doAnswer(invocation -> ((Function<String, Optional<UserIdentity>>) invocation.getArgument(1))
+                .apply(invocation.getArgument(0)))
+                .when(userIdentityCache).get(eq(USER.getUsername()), any());
+        doReturn(Optional.of(USER)).when(userRepository).findByUsername(USER.getUsername());
 
+        UserIdentity actualResult;
+        try (MockedStatic<AuthUser> authUserMock = mockStatic(AuthUser.class)) {
+            authUserMock.when(AuthUser::getAuthUsername).thenReturn(USER.getUsername());
+            actualResult = userService.getAuthUserIdentity();
+        }
+        verify(userIdentityCache).get(eq(USER.getUsername()), any());
+        verify(userRepository).findByUsername(USER.getUsername());
+        assertEquals(USER_IDENTITY, actualResult);
+    }
 
+    @Test
+    void getAuthUserIdentity_shouldGetIdentityCheckedByJwtFilter() {
+        UserIdentity actualResult;
+        try (MockedStatic<AuthUser> authUserMock = mockStatic(AuthUser.class)) {
+            authUserMock.when(AuthUser::getAuthIdentity).thenReturn(Optional.of(USER_IDENTITY));
+            actualResult = userService.getAuthUserIdentity();
+        }
+        verifyNoInteractions(userIdentityCache, userRepository);
+        assertEquals(USER_IDENTITY, actualResult);
+    }
 
+    @Test
+    void getAuthUserIdentity_shouldThrowException_whenNotExist() {
+        doReturn(Optional.empty()).when(userIdentityCache).get(eq("dummy"), any());
 
+        try (MockedStatic<AuthUser> authUserMock = mockStatic(AuthUser.class)) {
+            authUserMock.when(AuthUser::getAuthUsername).thenReturn("dummy");
+            assertThrows(NotFoundException.class, () -> userService.getAuthUserIdentity());
+        }
+        verify(userIdentityCache).get(eq("dummy"), any());
+    }
 
 
+}
@@ -0,0 +1,49 @@
+package lepdv.todolistrest.unit.util;
+
+import lepdv.todolistrest.exception.UnitedException;
+import lepdv.todolistrest.util.PageCursor;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class PageCursorTest {
+
+    @Test
+    void decode_shouldGetSameCursor_whenEncodedId() {
+        final PageCursor cursor = PageCursor.of(42L);
+
+        PageCursor actualResult = PageCursor.decode(cursor.encode());
+
+        assertEquals(cursor, actualResult);
+    }
+
+    @Test
+    void decode_shouldGetSameCursor_whenEncodedIdAndUsername() {
+        final PageCursor cursor = new PageCursor(42L, "Ivan:Ivanov");
+
+        PageCursor actualResult = PageCursor.decode(cursor.encode());
+
+        assertEquals(cursor, actualResult);
+    }
+
+    @Test
+    void decode_shouldGetSameCursor_whenEncodedIdAndDueDate() {
+        final PageCursor cursor = PageCursor.of(42L, LocalDate.of(2025, Month.MAY, 11));
+
+        PageCursor actualResult = PageCursor.decode(cursor.encode());
+
+        assertEquals(cursor, actualResult);
+    }
+
+    @Test
+    void decode_shouldThrowException_whenCursorIsInvalid() {
+        assertThrows(UnitedException.class, () -> PageCursor.decode("dummy"));
+        assertThrows(UnitedException.class, () -> PageCursor.decode("%%%"));
+    }
+
+
+}